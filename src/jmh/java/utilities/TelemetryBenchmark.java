@@ -0,0 +1,209 @@
+package utilities;
+
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.networktables.MultiSubscriber;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.networktables.NetworkTableType;
+import frc.robot.utilities.Telemetry;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/*
+ * Cost of the Telemetry calls subsystems make every loop, run with ./gradlew jmh. Results go to
+ * build/reports/jmh/results.json so two runs can be compared before a deploy.
+ *
+ * Each value is set through its name (the HashMap lookup and type check) and through the handle
+ * returned by addValue, so the difference between the two is the cost of the string key. The
+ * server runs on the default instance, like in simulation, with and without a second local
+ * instance connected as a client subscribed to everything, so the network side of a set() is
+ * measured too. With staging on, a set() only records the value and flushLoop measures
+ * publishing a loop's worth of them.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TelemetryBenchmark {
+  private static final int LOOP_ENTRIES = 32;
+  private static final long CONNECT_TIMEOUT_MS = 5000;
+
+  @Param({"false", "true"})
+  public boolean clientConnected;
+
+  @Param({"false", "true"})
+  public boolean staged;
+
+  private NetworkTableInstance client;
+  private MultiSubscriber clientSubscriber;
+
+  private Telemetry.BooleanEntry booleanEntry;
+  private Telemetry.DoubleEntry doubleEntry;
+  private Telemetry.IntegerEntry integerEntry;
+  private Telemetry.StringEntry stringEntry;
+  private Telemetry.DoubleArrayEntry doubleArrayEntry;
+  private Telemetry.DoubleEntry readableEntry;
+  private Telemetry.RawBufferEntry rawBufferEntry;
+  private final Telemetry.DoubleEntry[] loopEntries = new Telemetry.DoubleEntry[LOOP_ENTRIES];
+
+  // Changes every call, so an onChange check or NT never gets to skip a value
+  private long counter = 0;
+  private final String[] strings = new String[] {"Idle", "Intake", "Score", "Stow"};
+  private final double[] array = new double[16];
+  private final byte[] raw = new byte[256];
+  private final ByteBuffer rawBuffer = ByteBuffer.allocateDirect(256);
+
+  @Setup(Level.Trial)
+  public void setup() throws InterruptedException {
+    if (!HAL.initialize(500, 0)) {
+      throw new IllegalStateException("HAL failed to initialize");
+    }
+    Telemetry.startSimulationServer();
+    Telemetry.setStagingEnabled(staged);
+
+    booleanEntry = Telemetry.addValue("bench/boolean", NetworkTableType.kBoolean);
+    doubleEntry = Telemetry.addValue("bench/double", NetworkTableType.kDouble);
+    integerEntry = Telemetry.addValue("bench/integer", NetworkTableType.kInteger);
+    stringEntry = Telemetry.addValue("bench/string", NetworkTableType.kString);
+    doubleArrayEntry = Telemetry.addValue("bench/doubleArray", NetworkTableType.kDoubleArray);
+    readableEntry = Telemetry.addReadableValue("bench/readable", NetworkTableType.kDouble);
+    readableEntry.set(1.0);
+    rawBufferEntry = Telemetry.addRawBufferValue("bench/rawBuffer", "raw");
+    for (int i = 0; i < LOOP_ENTRIES; i++) {
+      loopEntries[i] = Telemetry.addValue("bench/loop/" + i, NetworkTableType.kDouble);
+    }
+    Telemetry.flush();
+
+    if (clientConnected) {
+      client = NetworkTableInstance.create();
+      clientSubscriber = new MultiSubscriber(client, new String[] {""});
+      client.startClient4("benchmark");
+      client.setServer("localhost");
+      long deadline = System.currentTimeMillis() + CONNECT_TIMEOUT_MS;
+      while (!client.isConnected()) {
+        if (System.currentTimeMillis() > deadline) {
+          throw new IllegalStateException("benchmark client could not connect to localhost");
+        }
+        Thread.sleep(10);
+      }
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    if (client != null) {
+      clientSubscriber.close();
+      client.close();
+    }
+  }
+
+  @Benchmark
+  public void setBooleanByName() {
+    Telemetry.setValue("bench/boolean", (++counter & 1) == 0);
+  }
+
+  @Benchmark
+  public void setBooleanByHandle() {
+    booleanEntry.set((++counter & 1) == 0);
+  }
+
+  @Benchmark
+  public void setDoubleByName() {
+    Telemetry.setValue("bench/double", (double) ++counter);
+  }
+
+  @Benchmark
+  public void setDoubleByHandle() {
+    doubleEntry.set(++counter);
+  }
+
+  @Benchmark
+  public void setIntegerByName() {
+    Telemetry.setValue("bench/integer", (int) ++counter);
+  }
+
+  @Benchmark
+  public void setIntegerByHandle() {
+    integerEntry.set(++counter);
+  }
+
+  @Benchmark
+  public void setStringByName() {
+    Telemetry.setValue("bench/string", strings[(int) (++counter & 3)]);
+  }
+
+  @Benchmark
+  public void setStringByHandle() {
+    stringEntry.set(strings[(int) (++counter & 3)]);
+  }
+
+  @Benchmark
+  public void setDoubleArrayByName() {
+    array[0] = ++counter;
+    Telemetry.setValue("bench/doubleArray", array);
+  }
+
+  @Benchmark
+  public void setDoubleArrayByHandle() {
+    array[0] = ++counter;
+    doubleArrayEntry.set(array);
+  }
+
+  @Benchmark
+  public void setDoubleArrayPrefixByHandle() {
+    array[0] = ++counter;
+    doubleArrayEntry.set(array, 8);
+  }
+
+  @Benchmark
+  public void setRawByName() {
+    raw[0] = (byte) ++counter;
+    Telemetry.setValue("bench/raw", raw);
+  }
+
+  @Benchmark
+  public void setRawFromBuffer() {
+    rawBuffer.put(0, (byte) ++counter);
+    rawBufferEntry.set(rawBuffer);
+  }
+
+  @Benchmark
+  public double getDoubleByName() {
+    return Telemetry.getValue("bench/readable", 0.0);
+  }
+
+  @Benchmark
+  public double getDoubleByHandle() {
+    return readableEntry.get(0.0);
+  }
+
+  /** A setter of the wrong type every call, which is counted and only printed now and then. */
+  @Benchmark
+  public void typeMismatchWarning() {
+    Telemetry.setValue("bench/double", "not a double");
+  }
+
+  /** Reading an entry that wasn't made readable, the other warning a loop can hit repeatedly. */
+  @Benchmark
+  public double notReadableWarning() {
+    return Telemetry.getValue("bench/double", 0.0);
+  }
+
+  /** One robot loop: every loop entry set through its handle, then flushed. */
+  @Benchmark
+  public void flushLoop() {
+    double value = ++counter;
+    for (Telemetry.DoubleEntry entry : loopEntries) {
+      entry.set(value);
+    }
+    Telemetry.flush();
+  }
+}
@@ -37,6 +37,7 @@ import edu.wpi.first.wpilibj.DriverStation;
 import edu.wpi.first.wpilibj.util.Color8Bit;
 import frc.robot.subsystems.Arm.ArmStageConfig;
 import frc.robot.subsystems.Swerve.SwerveModuleConfig;
+import frc.robot.utilities.PublishPolicy;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -51,6 +52,13 @@ import java.util.Map;
 public final class Constants {
   public static int MAX_CONFIG_RETRIES = 5;
 
+  // Startup device configuration, see DeviceConfigurator
+  public static class ConfigConstants {
+    public static final int THREADS = 8;
+    public static final double TIMEOUT_SECONDS = 10.0; // for every device together
+    public static final double INITIAL_BACKOFF_SECONDS = 0.05; // doubled after each failure
+  }
+
   public static class DashboardConstants {
     public static final boolean DASHBOARD_ENABLED = true;
     public static final String DASHBOARD_PATH = "dashboard";
@@ -72,8 +80,73 @@ public final class Constants {
     }
   }
 
+  public static class CANConstants {
+    // An unchanged control request is still resent this often, in case a device missed it
+    public static final int CONTROL_REFRESH_LOOPS = 10;
+    public static final int BUS_CHECK_LOOPS = 50;
+    // Above HIGH the governed status signals are slowed down, below LOW they're sped back up
+    public static final double HIGH_BUS_UTILIZATION = 0.8;
+    public static final double LOW_BUS_UTILIZATION = 0.6;
+    public static final Frequency MAX_STATUS_FREQUENCY = Hertz.of(50);
+    public static final Frequency MIN_STATUS_FREQUENCY = Hertz.of(10);
+  }
+
   public static class TelemetryConstants {
     public static final String ROOT_NAME = "telemetry";
+    // Starting size of the staging buffers; they double when more entries are added
+    public static final int INITIAL_CAPACITY = 256;
+    // How often an unchanged value is republished when its entry has a PublishPolicy
+    public static final double DEFAULT_HEARTBEAT_SECONDS = 1.0;
+
+    // Mirror every Telemetry entry into the WPILib DataLog (wpilog files)
+    public static final boolean MIRROR_TO_DATALOG = true;
+
+    // Telemetry.setProfilingEnabled(), see TelemetryProfiler
+    public static final int PROFILE_WINDOW_LOOPS = 250; // p50/p99 over the last 5 s
+    public static final int PROFILE_REPORT_LOOPS = 50;
+    public static final int PROFILE_HEAVIEST_COUNT = 10;
+
+    // Diagnostics: each message key is printed at most once per interval, counts published in bulk
+    public static final double DIAGNOSTIC_REPORT_INTERVAL_SECONDS = 2.0;
+    public static final int DIAGNOSTIC_PUBLISH_LOOPS = 50;
+
+    // If above 0, entries created implicitly by setValue() on an unknown name are closed after
+    // this long without a write. Off, since setValue() names are often just written rarely; other
+    // entries only close when given a timeout, see Entry.setIdleTimeout()
+    public static final double IMPLICIT_IDLE_TIMEOUT_SECONDS = 0;
+    public static final int IDLE_SWEEP_LOOPS = 50; // how often the reaper looks, in loops
+
+    // Client profiles, see TelemetryProfile: lighter copies for clients beyond the driver station
+    public static final String PROFILE_ROOT_NAME = "telemetryProfiles";
+    public static final int DASHBOARD_PROFILE_LOOPS = 5; // 10 Hz
+    public static final int SCOUTING_PROFILE_LOOPS = 50; // 1 Hz
+
+    // On-robot binary log, see TelemetryLogger
+    public static final String LOG_DIRECTORY_USB = "/u/telemetry";
+    public static final String LOG_DIRECTORY_INTERNAL = "/home/lvuser/telemetry";
+    public static final int LOG_QUEUE_CAPACITY = 8192; // records, rounded down to a power of two
+    public static final long LOG_IDLE_NANOS = 5_000_000; // writer sleep when the queue is empty
+    public static final int LOG_SEGMENT_BYTES = 16 * 1024 * 1024;
+    public static final int MAX_LOG_SEGMENTS = 8; // oldest segment is deleted past this
+    // How often the writer forces the mapped segment to disk; what's newer is lost on power off
+    public static final long LOG_FORCE_NANOS = 1_000_000_000;
+
+    public static class Policies {
+      public static final PublishPolicy FLAG = PublishPolicy.onChange();
+      public static final PublishPolicy TEMPERATURE =
+          PublishPolicy.onChange().withAbsoluteDeadband(0.5).withFrequency(1); // degrees C
+      // The same policy for the Pigeon, which has always published Fahrenheit
+      public static final PublishPolicy TEMPERATURE_FAHRENHEIT =
+          PublishPolicy.onChange().withAbsoluteDeadband(0.9).withFrequency(1); // degrees F
+      public static final PublishPolicy VOLTAGE =
+          PublishPolicy.onChange().withAbsoluteDeadband(0.05); // volts
+      public static final PublishPolicy CURRENT =
+          PublishPolicy.onChange().withAbsoluteDeadband(0.1); // amps
+      // Sticky faults and fault arrays only matter to a human looking at the dashboard
+      public static final PublishPolicy STICKY_FLAG = PublishPolicy.onChange().withFrequency(2);
+      public static final PublishPolicy FAULT_ARRAY = PublishPolicy.onChange().withFrequency(5);
+      public static final PublishPolicy SLOW = PublishPolicy.always().withFrequency(5);
+    }
   }
 
   public static class LEDConstants {
@@ -326,6 +399,11 @@ public final class Constants {
       public static final AngularVelocity GYRO_VELOCITY_TOLERANCE = DegreesPerSecond.of(0);
     }
 
+    public static class OdometryConstants {
+      // CAN FD on the drivetrain CANivore has room for 250 Hz; use 100 Hz on the rio's bus
+      public static final Frequency UPDATE_FREQUENCY = Hertz.of(250);
+    }
+
     public static final SwerveModuleConfig FRONT_LEFT_CONFIG =
         new SwerveModuleConfig(
             "FrontLeft",
@@ -4,12 +4,17 @@
 
 package frc.robot;
 
+import edu.wpi.first.wpilibj.DataLogManager;
 import edu.wpi.first.wpilibj.TimedRobot;
 import edu.wpi.first.wpilibj.simulation.BatterySim;
 import edu.wpi.first.wpilibj.simulation.RoboRioSim;
 import edu.wpi.first.wpilibj2.command.Command;
 import edu.wpi.first.wpilibj2.command.CommandScheduler;
+import frc.robot.Constants.TelemetryConstants;
+import frc.robot.utilities.DeviceConfigurator;
 import frc.robot.utilities.Telemetry;
+import java.nio.file.Files;
+import java.nio.file.Path;
 
 /**
  * The methods in this class are called automatically corresponding to each mode, as described in
@@ -29,6 +34,41 @@ public class Robot extends TimedRobot {
     // Instantiate our RobotContainer.  This will perform all our button bindings, and put our
     // autonomous chooser on the dashboard.
     m_robotContainer = new RobotContainer();
+
+    // Every subsystem has submitted its device configurations; wait for the rest and report them
+    DeviceConfigurator.awaitAll();
+
+    // Buffer telemetry during the loop and publish it all at once in robotPeriodic()
+    Telemetry.setStagingEnabled(true);
+
+    // Lighter copies of the busiest entries for clients beyond the driver station, which subscribe
+    // to /telemetryProfiles/<name>/ instead of the whole tree. See TelemetryProfile.
+    Telemetry.profile("dashboard", TelemetryConstants.DASHBOARD_PROFILE_LOOPS)
+        .decimate("Swerve/Pose")
+        .decimate("Swerve/MeasuredStates")
+        .decimate("Arm/Stage1/Status")
+        .decimate("Arm/Stage2/Status")
+        .decimate("Arm/Stage3/Status")
+        .aggregate("Power/Voltage")
+        .aggregate("Power/TotalCurrent");
+    Telemetry.profile("scouting", TelemetryConstants.SCOUTING_PROFILE_LOOPS)
+        .decimate("Swerve/Pose")
+        .aggregate("Power/Voltage");
+
+    if (TelemetryConstants.MIRROR_TO_DATALOG) {
+      // Telemetry logs its own entries, so DataLogManager doesn't also need to copy all of NT
+      DataLogManager.logNetworkTables(false);
+      Telemetry.startDataLog();
+    }
+
+    // Keep an on-robot copy of telemetry, on the USB stick if there is one
+    if (isReal()) {
+      Path logDirectory = Path.of(TelemetryConstants.LOG_DIRECTORY_USB);
+      if (!Files.isDirectory(logDirectory.getParent())) {
+        logDirectory = Path.of(TelemetryConstants.LOG_DIRECTORY_INTERNAL);
+      }
+      Telemetry.startLogging(logDirectory);
+    }
   }
 
   /**
@@ -40,16 +80,25 @@ public class Robot extends TimedRobot {
    */
   @Override
   public void robotPeriodic() {
+    // Apply dashboard-side changes to watched topics first, so commands see them this loop
+    Telemetry.readUpdates();
+
     // Runs the Scheduler.  This is responsible for polling buttons, adding newly-scheduled
     // commands, running already-scheduled commands, removing finished or interrupted commands,
     // and running subsystem periodic() methods.  This must be called from the robot's periodic
     // block in order for anything in the Command-based framework to work.
     CommandScheduler.getInstance().run();
+
+    // Publish everything the subsystems staged this loop with one timestamp
+    Telemetry.flush();
   }
 
   /** This function is called once each time the robot enters Disabled mode. */
   @Override
-  public void disabledInit() {}
+  public void disabledInit() {
+    // Capture the state the robot was in when it stopped, e.g. at the end of a match
+    Telemetry.snapshot();
+  }
 
   @Override
   public void disabledPeriodic() {}
@@ -57,6 +106,7 @@ public class Robot extends TimedRobot {
   /** This autonomous runs the autonomous command selected by your {@link RobotContainer} class. */
   @Override
   public void autonomousInit() {
+    Telemetry.snapshot();
     m_autonomousCommand = m_robotContainer.getAutonomousCommand();
 
     // schedule the autonomous command (example)
@@ -71,6 +121,8 @@ public class Robot extends TimedRobot {
 
   @Override
   public void teleopInit() {
+    Telemetry.snapshot();
+
     // This makes sure that the autonomous stops running when
     // teleop starts running. If you want the autonomous to
     // continue until interrupted by another command, remove
@@ -14,17 +14,18 @@ import com.revrobotics.spark.SparkRelativeEncoder;
 import edu.wpi.first.math.system.plant.DCMotor;
 import edu.wpi.first.math.util.Units;
 import edu.wpi.first.networktables.NetworkTableType;
-import edu.wpi.first.wpilibj.DriverStation;
 import edu.wpi.first.wpilibj.simulation.RoboRioSim;
 import edu.wpi.first.wpilibj.simulation.SingleJointedArmSim;
 import edu.wpi.first.wpilibj2.command.Command;
 import edu.wpi.first.wpilibj2.command.Command.InterruptionBehavior;
 import edu.wpi.first.wpilibj2.command.SubsystemBase;
 import edu.wpi.first.wpilibj2.command.button.Trigger;
-import frc.robot.Constants;
 import frc.robot.Constants.ArmConstants.ArmStagesConstants.POSITIONS;
 import frc.robot.Robot;
+import frc.robot.utilities.DeviceConfigurator;
 import frc.robot.utilities.Telemetry;
+import frc.robot.utilities.TelemetryNamespace;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.DoubleSupplier;
 
 public class ArmStage extends SubsystemBase {
@@ -42,6 +43,14 @@ public class ArmStage extends SubsystemBase {
 
   private double m_targetPosition;
 
+  // Refilled every loop and published as one struct, in place of an entry per value
+  private final ArmStageStatus m_status = new ArmStageStatus();
+
+  // Only what the Status struct doesn't already carry
+  private final Telemetry.DoubleEntry m_absolutePositionAtMotorEntry;
+  private final Telemetry.DoubleEntry m_adjustedPositionEntry;
+  private final Telemetry.StructEntry<ArmStageStatus> m_statusEntry;
+
   public DoubleSupplier relativePosition = () -> m_relativeEncoder.getPosition();
   public DoubleSupplier absolutePosition = () -> m_absoluteEncoder.getPosition();
   public DoubleSupplier adjustedPosition = () -> 0; // TODO
@@ -67,20 +76,11 @@ public class ArmStage extends SubsystemBase {
 
     System.out.println("ArmStage " + m_name + " instantiated");
 
-    Telemetry.addValue("Arm/" + m_name + "/RelativePosition", NetworkTableType.kDouble);
-    Telemetry.addValue("Arm/" + m_name + "/AbsolutePosition", NetworkTableType.kDouble);
-    Telemetry.addValue("Arm/" + m_name + "/AbsolutePositionAtMotor", NetworkTableType.kDouble);
-    Telemetry.addValue("Arm/" + m_name + "/AdjustedPosition", NetworkTableType.kDouble);
-    Telemetry.addValue("Arm/" + m_name + "/RelativeVelocityRPM", NetworkTableType.kDouble);
-    Telemetry.addValue("Arm/" + m_name + "/TargetPosition", NetworkTableType.kDouble);
-    Telemetry.addValue("Arm/" + m_name + "/Output", NetworkTableType.kDouble);
-    Telemetry.addValue("Arm/" + m_name + "/CurrentDraw", NetworkTableType.kDouble);
-    Telemetry.addValue("Arm/" + m_name + "/Temperature", NetworkTableType.kDouble);
-    Telemetry.addValue("Arm/" + m_name + "/HasFault", NetworkTableType.kBoolean);
-    Telemetry.addValue("Arm/" + m_name + "/HasStickyFault", NetworkTableType.kBoolean);
-    Telemetry.addValue("Arm/" + m_name + "/VoltageIn", NetworkTableType.kDouble);
-
-    Telemetry.addValue("Arm/" + m_name + "/TotalCurrentDraw", NetworkTableType.kDouble);
+    TelemetryNamespace telemetry = Telemetry.namespace("Arm/" + m_name);
+    m_absolutePositionAtMotorEntry =
+        telemetry.addValue("AbsolutePositionAtMotor", NetworkTableType.kDouble);
+    m_adjustedPositionEntry = telemetry.addValue("AdjustedPosition", NetworkTableType.kDouble);
+    m_statusEntry = telemetry.addStructValue("Status", ArmStageStatus.struct);
 
     if (Robot.isSimulation()) {
       m_simMotor = new SparkMaxSim(m_motor, m_simMotorModel);
@@ -105,21 +105,16 @@ public class ArmStage extends SubsystemBase {
         m_absoluteEncoder.getPosition() * m_config.getAbsoluteEncoderToMotorRatio());
   }
 
-  public REVLibError configureAll() {
-    REVLibError error = REVLibError.kError;
-    for (int tries = 0; tries < Constants.MAX_CONFIG_RETRIES; tries++) {
-      error =
-          m_motor.configure(
-              m_config.getMotorConfig(),
-              ResetMode.kResetSafeParameters,
-              PersistMode.kPersistParameters);
-      if (error == REVLibError.kOk) {
-        return error;
-      }
-      DriverStation.reportWarning("Warning: Failure configuring " + m_name + " :" + error, false);
-    }
-    DriverStation.reportError("Error configuring " + m_name + " :" + error, false);
-    return error;
+  // Finishes in the background, see DeviceConfigurator
+  public CompletableFuture<REVLibError> configureAll() {
+    return DeviceConfigurator.submit(
+        m_name,
+        () ->
+            m_motor.configure(
+                m_config.getMotorConfig(),
+                ResetMode.kResetSafeParameters,
+                PersistMode.kPersistParameters),
+        REVLibError.kOk);
   }
 
   private Command goToNumericPosition(double position) {
@@ -199,22 +194,22 @@ public class ArmStage extends SubsystemBase {
 
   @Override
   public void periodic() {
-    Telemetry.setValue("Arm/" + m_name + "/RelativePosition", m_relativeEncoder.getPosition());
-    Telemetry.setValue("Arm/" + m_name + "/AbsolutePosition", m_absoluteEncoder.getPosition());
-    Telemetry.setValue(
-        "Arm/" + m_name + "/AbsolutePositionAtMotor",
-        m_absoluteEncoder.getPosition() * m_config.getAbsoluteEncoderToMotorRatio());
-    Telemetry.setValue("Arm/" + m_name + "/AdjustedPosition", adjustedPosition.getAsDouble());
-    Telemetry.setValue("Arm/" + m_name + "/RelativeVelocityRPM", m_relativeEncoder.getVelocity());
-    Telemetry.setValue("Arm/" + m_name + "/TargetPosition", m_targetPosition);
-    Telemetry.setValue("Arm/" + m_name + "/Output", m_motor.getAppliedOutput());
-    Telemetry.setValue("Arm/" + m_name + "/CurrentDraw", m_motor.getOutputCurrent());
-    Telemetry.setValue("Arm/" + m_name + "/Temperature", m_motor.getMotorTemperature());
-    Telemetry.setValue("Arm/" + m_name + "/HasFault", m_motor.hasActiveFault());
-    Telemetry.setValue("Arm/" + m_name + "/HasStickyFault", m_motor.hasStickyFault());
-    Telemetry.setValue("Arm/" + m_name + "/VoltageIn", m_motor.getBusVoltage());
-
-    Telemetry.setValue("Arm/" + m_name + "/TotalCurrentDraw", totalCurrentDraw.getAsDouble());
+    // Read each value from the Spark once, then publish them together
+    m_status.relativePosition = m_relativeEncoder.getPosition();
+    m_status.absolutePosition = m_absoluteEncoder.getPosition();
+    m_status.targetPosition = m_targetPosition;
+    m_status.velocityRPM = m_relativeEncoder.getVelocity();
+    m_status.output = m_motor.getAppliedOutput();
+    m_status.currentDraw = m_motor.getOutputCurrent();
+    m_status.temperature = m_motor.getMotorTemperature();
+    m_status.voltageIn = m_motor.getBusVoltage();
+    m_status.hasFault = m_motor.hasActiveFault();
+    m_status.hasStickyFault = m_motor.hasStickyFault();
+    m_statusEntry.set(m_status);
+
+    m_absolutePositionAtMotorEntry.set(
+        m_status.absolutePosition * m_config.getAbsoluteEncoderToMotorRatio());
+    m_adjustedPositionEntry.set(adjustedPosition.getAsDouble());
   }
 
   @Override
@@ -0,0 +1,79 @@
+package frc.robot.subsystems.Arm;
+
+import edu.wpi.first.util.struct.Struct;
+import edu.wpi.first.util.struct.StructSerializable;
+import java.nio.ByteBuffer;
+
+/**
+ * Everything an ArmStage reports each loop, published as one struct so a dashboard or log always
+ * sees the position, output and faults from the same loop. Mutable so the stage can refill a
+ * single instance every loop instead of allocating one.
+ */
+public class ArmStageStatus implements StructSerializable {
+  public double relativePosition;
+  public double absolutePosition;
+  public double targetPosition;
+  public double velocityRPM;
+  public double output;
+  public double currentDraw;
+  public double temperature;
+  public double voltageIn;
+  public boolean hasFault;
+  public boolean hasStickyFault;
+
+  public static final ArmStageStatusStruct struct = new ArmStageStatusStruct();
+
+  public static final class ArmStageStatusStruct implements Struct<ArmStageStatus> {
+    @Override
+    public Class<ArmStageStatus> getTypeClass() {
+      return ArmStageStatus.class;
+    }
+
+    @Override
+    public String getTypeName() {
+      return "ArmStageStatus";
+    }
+
+    @Override
+    public int getSize() {
+      return kSizeDouble * 8 + kSizeBool * 2;
+    }
+
+    @Override
+    public String getSchema() {
+      return "double relativePosition;double absolutePosition;double targetPosition;"
+          + "double velocityRPM;double output;double currentDraw;double temperature;"
+          + "double voltageIn;bool hasFault;bool hasStickyFault";
+    }
+
+    @Override
+    public ArmStageStatus unpack(ByteBuffer bb) {
+      ArmStageStatus status = new ArmStageStatus();
+      status.relativePosition = bb.getDouble();
+      status.absolutePosition = bb.getDouble();
+      status.targetPosition = bb.getDouble();
+      status.velocityRPM = bb.getDouble();
+      status.output = bb.getDouble();
+      status.currentDraw = bb.getDouble();
+      status.temperature = bb.getDouble();
+      status.voltageIn = bb.getDouble();
+      status.hasFault = bb.get() != 0;
+      status.hasStickyFault = bb.get() != 0;
+      return status;
+    }
+
+    @Override
+    public void pack(ByteBuffer bb, ArmStageStatus value) {
+      bb.putDouble(value.relativePosition);
+      bb.putDouble(value.absolutePosition);
+      bb.putDouble(value.targetPosition);
+      bb.putDouble(value.velocityRPM);
+      bb.putDouble(value.output);
+      bb.putDouble(value.currentDraw);
+      bb.putDouble(value.temperature);
+      bb.putDouble(value.voltageIn);
+      bb.put((byte) (value.hasFault ? 1 : 0));
+      bb.put((byte) (value.hasStickyFault ? 1 : 0));
+    }
+  }
+}
@@ -15,7 +15,6 @@ import edu.wpi.first.networktables.NetworkTableType;
 import edu.wpi.first.wpilibj.DigitalInput;
 import edu.wpi.first.wpilibj.DoubleSolenoid;
 import edu.wpi.first.wpilibj.DoubleSolenoid.Value;
-import edu.wpi.first.wpilibj.DriverStation;
 import edu.wpi.first.wpilibj.PneumaticHub;
 import edu.wpi.first.wpilibj.PneumaticsModuleType;
 import edu.wpi.first.wpilibj.simulation.DCMotorSim;
@@ -31,11 +30,14 @@ import edu.wpi.first.wpilibj2.command.Command;
 import edu.wpi.first.wpilibj2.command.Command.InterruptionBehavior;
 import edu.wpi.first.wpilibj2.command.SubsystemBase;
 import edu.wpi.first.wpilibj2.command.button.Trigger;
-import frc.robot.Constants;
 import frc.robot.Constants.ArmConstants.ClawConstants;
 import frc.robot.Constants.ArmConstants.ClawConstants.RollerSpeeds;
+import frc.robot.Constants.TelemetryConstants.Policies;
 import frc.robot.Robot;
+import frc.robot.utilities.DeviceConfigurator;
 import frc.robot.utilities.Telemetry;
+import frc.robot.utilities.TelemetryNamespace;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.BooleanSupplier;
 import java.util.function.DoubleSupplier;
 
@@ -139,71 +141,114 @@ public class Claw extends SubsystemBase {
           new MechanismLigament2d(
               "rollerRight", ClawConstants.SimulationConstants.MECHANISM2D_ROLLER_RADIUS, 0));
 
+  // Bits of the roller Faults entry
+  private static final int LEFT_HAS_FAULT_BIT = 0;
+  private static final int LEFT_HAS_STICKY_FAULT_BIT = 1;
+  private static final int RIGHT_HAS_FAULT_BIT = 2;
+  private static final int RIGHT_HAS_STICKY_FAULT_BIT = 3;
+  private static final String[] ROLLER_FAULT_BIT_NAMES = {
+    "LeftHasFault", "LeftHasStickyFault", "RightHasFault", "RightHasStickyFault"
+  };
+
+  private final Telemetry.DoubleEntry m_pneumaticsForwardVoltageEntry;
+  private final Telemetry.DoubleEntry m_pneumaticsReverseVoltageEntry;
+  private final Telemetry.BooleanEntry m_pneumaticsPressureSwitchEntry;
+  private final Telemetry.DoubleEntry m_pneumaticsCompressorCurrentEntry;
+  private final Telemetry.DoubleEntry m_pneumaticsInputVoltageEntry;
+  private final Telemetry.DoubleEntry m_pneumaticsSolenoidsTotalCurrentEntry;
+  private final Telemetry.BooleanEntry m_beamBreakRawValueEntry;
+  private final Telemetry.BooleanEntry m_beamBreakLogicValueEntry;
+  private final Telemetry.BooleanEntry m_clampIsOpenEntry;
+  private final Telemetry.BooleanEntry m_clampIsClosedEntry;
+  private final Telemetry.DoubleEntry m_rollerOutputEntry;
+  private final Telemetry.DoubleEntry m_rollerLeftCurrentDrawEntry;
+  private final Telemetry.DoubleEntry m_rollerRightCurrentDrawEntry;
+  private final Telemetry.DoubleEntry m_rollerLeftTemperatureEntry;
+  private final Telemetry.DoubleEntry m_rollerRightTemperatureEntry;
+  private final Telemetry.DoubleEntry m_rollerLeftVoltageInEntry;
+  private final Telemetry.DoubleEntry m_rollerRightVoltageInEntry;
+  private final Telemetry.FlagsEntry m_rollerFaultsEntry;
+  private final Telemetry.DoubleEntry m_rollerLeftVelocityRPMEntry;
+  private final Telemetry.DoubleEntry m_rollerRightVelocityRPMEntry;
+  private final Telemetry.DoubleEntry m_totalCurrentDrawEntry;
+  private Telemetry.DoubleEntry m_simulationPressureEntry;
+
   public Claw() {
     System.out.println("Claw instantiated");
 
-    Telemetry.addValue("Arm/Claw/Pneumatics/ForwardVoltage", NetworkTableType.kDouble);
-    Telemetry.addValue("Arm/Claw/Pneumatics/ReverseVoltage", NetworkTableType.kDouble);
-    Telemetry.addValue("Arm/Claw/Pneumatics/PressureSwitch", NetworkTableType.kBoolean);
-    Telemetry.addValue("Arm/Claw/Pneumatics/CompressorCurrent", NetworkTableType.kDouble);
-    Telemetry.addValue("Arm/Claw/Pneumatics/InputVoltage", NetworkTableType.kDouble);
-    Telemetry.addValue("Arm/Claw/Pneumatics/SolenoidsTotalCurrent", NetworkTableType.kDouble);
-
-    Telemetry.addValue("Arm/Claw/BeamBreak/RawValue", NetworkTableType.kBoolean);
-    Telemetry.addValue("Arm/Claw/BeamBreak/LogicValue", NetworkTableType.kBoolean);
-
-    Telemetry.addValue("Arm/Claw/Clamp/IsOpen", NetworkTableType.kBoolean);
-    Telemetry.addValue("Arm/Claw/Clamp/IsClosed", NetworkTableType.kBoolean);
-
-    Telemetry.addValue("Arm/Claw/Roller/Output", NetworkTableType.kDouble);
-    Telemetry.addValue("Arm/Claw/Roller/LeftCurrentDraw", NetworkTableType.kDouble);
-    Telemetry.addValue("Arm/Claw/Roller/RightCurrentDraw", NetworkTableType.kDouble);
-    Telemetry.addValue("Arm/Claw/Roller/LeftTemperature", NetworkTableType.kDouble);
-    Telemetry.addValue("Arm/Claw/Roller/RightTemperature", NetworkTableType.kDouble);
-    Telemetry.addValue("Arm/Claw/Roller/LeftVoltageIn", NetworkTableType.kDouble);
-    Telemetry.addValue("Arm/Claw/Roller/RightVoltageIn", NetworkTableType.kDouble);
-    Telemetry.addValue("Arm/Claw/Roller/LeftHasFault", NetworkTableType.kBoolean);
-    Telemetry.addValue("Arm/Claw/Roller/RightHasFault", NetworkTableType.kBoolean);
-    Telemetry.addValue("Arm/Claw/Roller/LeftHasStickyFault", NetworkTableType.kBoolean);
-    Telemetry.addValue("Arm/Claw/Roller/RightHasStickyFault", NetworkTableType.kBoolean);
-    Telemetry.addValue("Arm/Claw/Roller/LeftVelocityRPM", NetworkTableType.kDouble);
-    Telemetry.addValue("Arm/Claw/Roller/RightVelocityRPM", NetworkTableType.kDouble);
-
-    Telemetry.addValue("Arm/Claw/TotalCurrentDraw", NetworkTableType.kDouble);
+    TelemetryNamespace telemetry = Telemetry.namespace("Arm/Claw");
+    TelemetryNamespace pneumatics = telemetry.child("Pneumatics");
+    TelemetryNamespace beamBreak = telemetry.child("BeamBreak");
+    TelemetryNamespace clamp = telemetry.child("Clamp");
+    TelemetryNamespace roller = telemetry.child("Roller");
+
+    m_pneumaticsForwardVoltageEntry =
+        pneumatics.addValue("ForwardVoltage", NetworkTableType.kDouble, Policies.VOLTAGE);
+    m_pneumaticsReverseVoltageEntry =
+        pneumatics.addValue("ReverseVoltage", NetworkTableType.kDouble, Policies.VOLTAGE);
+    m_pneumaticsPressureSwitchEntry =
+        pneumatics.addValue("PressureSwitch", NetworkTableType.kBoolean, Policies.FLAG);
+    m_pneumaticsCompressorCurrentEntry =
+        pneumatics.addValue("CompressorCurrent", NetworkTableType.kDouble, Policies.CURRENT);
+    m_pneumaticsInputVoltageEntry =
+        pneumatics.addValue("InputVoltage", NetworkTableType.kDouble, Policies.VOLTAGE);
+    m_pneumaticsSolenoidsTotalCurrentEntry =
+        pneumatics.addValue("SolenoidsTotalCurrent", NetworkTableType.kDouble, Policies.CURRENT);
+
+    m_beamBreakRawValueEntry =
+        beamBreak.addValue("RawValue", NetworkTableType.kBoolean, Policies.FLAG);
+    m_beamBreakLogicValueEntry =
+        beamBreak.addValue("LogicValue", NetworkTableType.kBoolean, Policies.FLAG);
+
+    m_clampIsOpenEntry = clamp.addValue("IsOpen", NetworkTableType.kBoolean, Policies.FLAG);
+    m_clampIsClosedEntry = clamp.addValue("IsClosed", NetworkTableType.kBoolean, Policies.FLAG);
+
+    m_rollerOutputEntry = roller.addValue("Output", NetworkTableType.kDouble);
+    m_rollerLeftCurrentDrawEntry =
+        roller.addValue("LeftCurrentDraw", NetworkTableType.kDouble, Policies.CURRENT);
+    m_rollerRightCurrentDrawEntry =
+        roller.addValue("RightCurrentDraw", NetworkTableType.kDouble, Policies.CURRENT);
+    m_rollerLeftTemperatureEntry =
+        roller.addValue("LeftTemperature", NetworkTableType.kDouble, Policies.TEMPERATURE);
+    m_rollerRightTemperatureEntry =
+        roller.addValue("RightTemperature", NetworkTableType.kDouble, Policies.TEMPERATURE);
+    m_rollerLeftVoltageInEntry =
+        roller.addValue("LeftVoltageIn", NetworkTableType.kDouble, Policies.VOLTAGE);
+    m_rollerRightVoltageInEntry =
+        roller.addValue("RightVoltageIn", NetworkTableType.kDouble, Policies.VOLTAGE);
+    m_rollerFaultsEntry = roller.addFlagsValue("Faults", ROLLER_FAULT_BIT_NAMES, Policies.FLAG);
+    m_rollerLeftVelocityRPMEntry = roller.addValue("LeftVelocityRPM", NetworkTableType.kDouble);
+    m_rollerRightVelocityRPMEntry = roller.addValue("RightVelocityRPM", NetworkTableType.kDouble);
+
+    m_totalCurrentDrawEntry =
+        telemetry.addValue("TotalCurrentDraw", NetworkTableType.kDouble, Policies.CURRENT);
 
     if (Robot.isSimulation()) {
-      Telemetry.addValue("Arm/Claw/Simulation/Pressure", NetworkTableType.kDouble);
+      m_simulationPressureEntry =
+          telemetry.child("Simulation").addValue("Pressure", NetworkTableType.kDouble);
     }
   }
 
-  public REVLibError configureAll(
+  // Both rollers at once; finishes in the background, see DeviceConfigurator
+  public CompletableFuture<Void> configureAll(
       SparkMaxConfig rollerLeftConfig, SparkMaxConfig rollerRightConfig) {
-    REVLibError leftErr = REVLibError.kError;
-    REVLibError rightErr = REVLibError.kError;
-
-    for (int i = 0; i < Constants.MAX_CONFIG_RETRIES; i++) {
-      leftErr =
-          m_rollerLeft.configure(
-              rollerLeftConfig, ResetMode.kResetSafeParameters, PersistMode.kPersistParameters);
-      rightErr =
-          m_rollerRight.configure(
-              rollerRightConfig, ResetMode.kResetSafeParameters, PersistMode.kPersistParameters);
-
-      if (leftErr == REVLibError.kOk && rightErr == REVLibError.kOk) {
-        return rightErr;
-      }
-      DriverStation.reportWarning(
-          "Warning: Failure configuring Claw: " + leftErr + ", " + rightErr, false);
-    }
-
-    System.out.println("Error configuring Claw: " + leftErr + ", " + rightErr);
-    DriverStation.reportError("Error configuring Claw: " + leftErr + ", " + rightErr, false);
-
-    // return error, if present
-    if (leftErr == REVLibError.kOk) {
-      return rightErr;
-    }
-    return leftErr;
+    return CompletableFuture.allOf(
+        DeviceConfigurator.submit(
+            "Claw Roller Left",
+            () ->
+                m_rollerLeft.configure(
+                    rollerLeftConfig,
+                    ResetMode.kResetSafeParameters,
+                    PersistMode.kPersistParameters),
+            REVLibError.kOk),
+        DeviceConfigurator.submit(
+            "Claw Roller Right",
+            () ->
+                m_rollerRight.configure(
+                    rollerRightConfig,
+                    ResetMode.kResetSafeParameters,
+                    PersistMode.kPersistParameters),
+            REVLibError.kOk));
   }
 
   public Command prepareForCubeCommand() {
@@ -344,41 +389,38 @@ public class Claw extends SubsystemBase {
   public void periodic() {
     SmartDashboard.putData("Arm/Claw/ClawSubsystem", this);
 
-    Telemetry.setValue(
-        "Arm/Claw/Pneumatics/ForwardVoltage",
+    m_pneumaticsForwardVoltageEntry.set(
         m_pneumaticHub.getAnalogVoltage(ClawConstants.PNEUMATIC_CHANNEL.CLAMP_FORWARD));
-    Telemetry.setValue(
-        "Arm/Claw/Pneumatics/ReverseVoltage",
+    m_pneumaticsReverseVoltageEntry.set(
         m_pneumaticHub.getAnalogVoltage(ClawConstants.PNEUMATIC_CHANNEL.CLAMP_REVERSE));
-    Telemetry.setValue("Arm/Claw/Pneumatics/PressureSwitch", m_pneumaticHub.getPressureSwitch());
-    Telemetry.setValue(
-        "Arm/Claw/Pneumatics/CompressorCurrent", m_pneumaticHub.getCompressorCurrent());
-    Telemetry.setValue("Arm/Claw/Pneumatics/InputVoltage", m_pneumaticHub.getInputVoltage());
-    Telemetry.setValue(
-        "Arm/Claw/Pneumatics/SolenoidsTotalCurrent",
+    m_pneumaticsPressureSwitchEntry.set(m_pneumaticHub.getPressureSwitch());
+    m_pneumaticsCompressorCurrentEntry.set(m_pneumaticHub.getCompressorCurrent());
+    m_pneumaticsInputVoltageEntry.set(m_pneumaticHub.getInputVoltage());
+    m_pneumaticsSolenoidsTotalCurrentEntry.set(
         m_pneumaticHub.getPressure(ClawConstants.PNEUMATIC_CHANNEL.PRESSURE_SWITCH_PORT));
 
-    Telemetry.setValue("Arm/Claw/BeamBreak/RawValue", m_beamBreak.get());
-    Telemetry.setValue("Arm/Claw/BeamBreak/LogicValue", beamBreak.getAsBoolean());
-
-    Telemetry.setValue("Arm/Claw/Clamp/IsOpen", isOpen.getAsBoolean());
-    Telemetry.setValue("Arm/Claw/Clamp/IsClosed", isClosed.getAsBoolean());
-
-    Telemetry.setValue("Arm/Claw/Roller/Output", rollerOutput.getAsDouble());
-    Telemetry.setValue("Arm/Claw/Roller/LeftCurrentDraw", m_rollerLeft.getOutputCurrent());
-    Telemetry.setValue("Arm/Claw/Roller/RightCurrentDraw", m_rollerRight.getOutputCurrent());
-    Telemetry.setValue("Arm/Claw/Roller/LeftTemperature", m_rollerLeft.getMotorTemperature());
-    Telemetry.setValue("Arm/Claw/Roller/RightTemperature", m_rollerRight.getMotorTemperature());
-    Telemetry.setValue("Arm/Claw/Roller/LeftVoltageIn", m_rollerLeft.getBusVoltage());
-    Telemetry.setValue("Arm/Claw/Roller/RightVoltageIn", m_rollerRight.getBusVoltage());
-    Telemetry.setValue("Arm/Claw/Roller/LeftHasFault", m_rollerLeft.hasActiveFault());
-    Telemetry.setValue("Arm/Claw/Roller/LeftHasStickyFault", m_rollerLeft.hasStickyFault());
-    Telemetry.setValue("Arm/Claw/Roller/RightHasFault", m_rollerRight.hasActiveFault());
-    Telemetry.setValue("Arm/Claw/Roller/RightHasStickyFault", m_rollerRight.hasStickyFault());
-    Telemetry.setValue("Arm/Claw/Roller/LeftVelocityRPM", m_rollerLeftEncoder.getVelocity());
-    Telemetry.setValue("Arm/Claw/Roller/RightVelocityRPM", m_rollerRightEncoder.getVelocity());
-
-    Telemetry.setValue("Arm/Claw/TotalCurrentDraw", totalCurrentDraw.getAsDouble());
+    m_beamBreakRawValueEntry.set(m_beamBreak.get());
+    m_beamBreakLogicValueEntry.set(beamBreak.getAsBoolean());
+
+    m_clampIsOpenEntry.set(isOpen.getAsBoolean());
+    m_clampIsClosedEntry.set(isClosed.getAsBoolean());
+
+    m_rollerOutputEntry.set(rollerOutput.getAsDouble());
+    m_rollerLeftCurrentDrawEntry.set(m_rollerLeft.getOutputCurrent());
+    m_rollerRightCurrentDrawEntry.set(m_rollerRight.getOutputCurrent());
+    m_rollerLeftTemperatureEntry.set(m_rollerLeft.getMotorTemperature());
+    m_rollerRightTemperatureEntry.set(m_rollerRight.getMotorTemperature());
+    m_rollerLeftVoltageInEntry.set(m_rollerLeft.getBusVoltage());
+    m_rollerRightVoltageInEntry.set(m_rollerRight.getBusVoltage());
+    m_rollerFaultsEntry.set(LEFT_HAS_FAULT_BIT, m_rollerLeft.hasActiveFault());
+    m_rollerFaultsEntry.set(LEFT_HAS_STICKY_FAULT_BIT, m_rollerLeft.hasStickyFault());
+    m_rollerFaultsEntry.set(RIGHT_HAS_FAULT_BIT, m_rollerRight.hasActiveFault());
+    m_rollerFaultsEntry.set(RIGHT_HAS_STICKY_FAULT_BIT, m_rollerRight.hasStickyFault());
+    m_rollerFaultsEntry.publish();
+    m_rollerLeftVelocityRPMEntry.set(m_rollerLeftEncoder.getVelocity());
+    m_rollerRightVelocityRPMEntry.set(m_rollerRightEncoder.getVelocity());
+
+    m_totalCurrentDrawEntry.set(totalCurrentDraw.getAsDouble());
 
     // Mechanism2d update
     m_mechClawLeft.setAngle(
@@ -420,7 +462,7 @@ public class Claw extends SubsystemBase {
 
   @Override
   public void simulationPeriodic() {
-    Telemetry.setValue("Arm/Claw/Simulation/Pressure", m_simulatedPressure);
+    m_simulationPressureEntry.set(m_simulatedPressure);
 
     // In this method, we update our simulation of what our arm is doing
     // First, we set our "inputs" (voltages)
@@ -9,6 +9,7 @@ import edu.wpi.first.wpilibj.util.Color;
 import edu.wpi.first.wpilibj2.command.Command;
 import edu.wpi.first.wpilibj2.command.SubsystemBase;
 import frc.robot.Constants.LEDConstants;
+import frc.robot.Constants.TelemetryConstants.Policies;
 import frc.robot.utilities.Power;
 import frc.robot.utilities.Telemetry;
 import java.util.function.DoubleSupplier;
@@ -50,6 +51,9 @@ public class LEDSubsystem extends SubsystemBase {
           .scrollAtRelativeSpeed(LEDConstants.SCROLL_SPEED)
           .blink(LEDConstants.SELF_DESTRUCT_BREATHE_TIME);
 
+  private final Telemetry.StringEntry m_patternEntry;
+  private final Telemetry.BooleanEntry m_isUnderglowEnabledEntry;
+
   public LEDSubsystem() {
     m_led = new AddressableLED(LEDConstants.LED_PORT);
     m_ledBuffer = new AddressableLEDBuffer(LEDConstants.LED_LENGTH);
@@ -60,8 +64,9 @@ public class LEDSubsystem extends SubsystemBase {
 
     System.out.println("LED Subsystem Initialized");
 
-    Telemetry.addValue("LEDs/Pattern", NetworkTableType.kString);
-    Telemetry.addValue("LEDs/IsUnderglowEnabled", NetworkTableType.kBoolean);
+    m_patternEntry = Telemetry.addValue("LEDs/Pattern", NetworkTableType.kString, Policies.FLAG);
+    m_isUnderglowEnabledEntry =
+        Telemetry.addValue("LEDs/IsUnderglowEnabled", NetworkTableType.kBoolean, Policies.FLAG);
 
     setDefaultCommand(setInitialize());
   }
@@ -173,10 +178,9 @@ public class LEDSubsystem extends SubsystemBase {
     // This method will be called once per scheduler run
     if (m_led != null) m_led.setData(m_ledBuffer);
 
-    Telemetry.setValue(
-        "LEDs/Pattern",
+    m_patternEntry.set(
         this.getCurrentCommand() == null ? "null" : this.getCurrentCommand().getName());
-    Telemetry.setValue("LEDs/IsUnderglowEnabled", Power.getSwitchableChannel());
+    m_isUnderglowEnabledEntry.set(Power.getSwitchableChannel());
   }
 
   public final DoubleSupplier totalCurrentDraw = () -> 0; // no tracking available
@@ -0,0 +1,123 @@
+package frc.robot.subsystems.Swerve;
+
+import edu.wpi.first.math.geometry.Translation2d;
+import edu.wpi.first.math.kinematics.ChassisSpeeds;
+import edu.wpi.first.math.kinematics.SwerveDriveKinematics;
+
+/*
+ * ChassisSpeeds.discretize, SwerveDriveKinematics.toSwerveModuleStates / toChassisSpeeds and
+ * desaturateWheelSpeeds, done on primitives in arrays allocated once, so driving doesn't make
+ * garbage every loop. The math is WPILib's; only the objects are gone.
+ *
+ * Module states come out in speeds (m/s) and angles (radians), indexed like the modules passed to
+ * the WPILib kinematics this was built from. They're overwritten by the next call.
+ */
+final class SwerveKinematics {
+  private final int moduleCount;
+  private final double[] moduleX;
+  private final double[] moduleY;
+  // Forward kinematics is least squares about the centroid, where rotation and translation split
+  private final double centroidX;
+  private final double centroidY;
+  private final double radiusSquaredSum;
+
+  final double[] speeds;
+  final double[] angles;
+
+  SwerveKinematics(SwerveDriveKinematics kinematics) {
+    Translation2d[] modules = kinematics.getModules();
+    moduleCount = modules.length;
+    moduleX = new double[moduleCount];
+    moduleY = new double[moduleCount];
+    speeds = new double[moduleCount];
+    angles = new double[moduleCount];
+
+    double sumX = 0;
+    double sumY = 0;
+    for (int module = 0; module < moduleCount; module++) {
+      moduleX[module] = modules[module].getX();
+      moduleY[module] = modules[module].getY();
+      sumX += moduleX[module];
+      sumY += moduleY[module];
+    }
+    centroidX = sumX / moduleCount;
+    centroidY = sumY / moduleCount;
+
+    double radiusSquared = 0;
+    for (int module = 0; module < moduleCount; module++) {
+      double x = moduleX[module] - centroidX;
+      double y = moduleY[module] - centroidY;
+      radiusSquared += x * x + y * y;
+    }
+    radiusSquaredSum = radiusSquared;
+  }
+
+  /**
+   * Robot relative chassis speeds to module speeds and angles, discretized over dtSeconds and
+   * desaturated to maxSpeed. When the chassis is stopped, every module keeps its last angle.
+   */
+  void toModuleStates(double vx, double vy, double omega, double dtSeconds, double maxSpeed) {
+    if (vx == 0 && vy == 0 && omega == 0) {
+      for (int module = 0; module < moduleCount; module++) {
+        speeds[module] = 0;
+      }
+      return;
+    }
+
+    // Pose2d.log of the pose the robot would reach in dtSeconds moving at these speeds
+    double dtheta = omega * dtSeconds;
+    double halfDtheta = dtheta / 2;
+    double cosMinusOne = Math.cos(dtheta) - 1;
+    double halfThetaByTanOfHalfDtheta =
+        Math.abs(cosMinusOne) < 1e-9
+            ? 1.0 - dtheta * dtheta / 12.0
+            : -(halfDtheta * Math.sin(dtheta)) / cosMinusOne;
+    double discreteVx = vx * halfThetaByTanOfHalfDtheta + vy * halfDtheta;
+    double discreteVy = vy * halfThetaByTanOfHalfDtheta - vx * halfDtheta;
+
+    double fastest = 0;
+    for (int module = 0; module < moduleCount; module++) {
+      double moduleVx = discreteVx - omega * moduleY[module];
+      double moduleVy = discreteVy + omega * moduleX[module];
+      speeds[module] = Math.hypot(moduleVx, moduleVy);
+      angles[module] = Math.atan2(moduleVy, moduleVx);
+      fastest = Math.max(fastest, speeds[module]);
+    }
+
+    if (fastest > maxSpeed) {
+      double scale = maxSpeed / fastest;
+      for (int module = 0; module < moduleCount; module++) {
+        speeds[module] *= scale;
+      }
+    }
+  }
+
+  /** Measured module speeds (m/s) and angles (radians) to robot relative speeds, into out. */
+  ChassisSpeeds toChassisSpeeds(double[] moduleSpeeds, double[] moduleAngles, ChassisSpeeds out) {
+    double sumVx = 0;
+    double sumVy = 0;
+    double sumMoment = 0;
+    for (int module = 0; module < moduleCount; module++) {
+      double moduleVx = moduleSpeeds[module] * Math.cos(moduleAngles[module]);
+      double moduleVy = moduleSpeeds[module] * Math.sin(moduleAngles[module]);
+      sumVx += moduleVx;
+      sumVy += moduleVy;
+      sumMoment +=
+          (moduleX[module] - centroidX) * moduleVy - (moduleY[module] - centroidY) * moduleVx;
+    }
+    double omega = sumMoment / radiusSquaredSum;
+    out.vxMetersPerSecond = sumVx / moduleCount + omega * centroidY;
+    out.vyMetersPerSecond = sumVy / moduleCount - omega * centroidX;
+    out.omegaRadiansPerSecond = omega;
+    return out;
+  }
+
+  /** Rotates robot relative speeds in place into field relative ones, for a robot at yaw. */
+  static ChassisSpeeds toFieldRelative(ChassisSpeeds speeds, double yawCos, double yawSin) {
+    double vx = speeds.vxMetersPerSecond;
+    double vy = speeds.vyMetersPerSecond;
+    speeds.vxMetersPerSecond = vx * yawCos - vy * yawSin;
+    speeds.vyMetersPerSecond = vx * yawSin + vy * yawCos;
+    return speeds;
+  }
+}
@@ -1,36 +1,37 @@
 package frc.robot.subsystems.Swerve;
 
-import static edu.wpi.first.units.Units.Amps;
 import static edu.wpi.first.units.Units.Meters;
-import static edu.wpi.first.units.Units.MetersPerSecond;
-import static edu.wpi.first.units.Units.MetersPerSecondPerSecond;
-import static edu.wpi.first.units.Units.Rotations;
-import static edu.wpi.first.units.Units.RotationsPerSecond;
 
+import com.ctre.phoenix6.BaseStatusSignal;
 import com.ctre.phoenix6.StatusCode;
+import com.ctre.phoenix6.StatusSignal;
 import com.ctre.phoenix6.controls.ControlRequest;
 import com.ctre.phoenix6.controls.MotionMagicVelocityVoltage;
 import com.ctre.phoenix6.controls.PositionVoltage;
 import com.ctre.phoenix6.controls.VelocityVoltage;
 import com.ctre.phoenix6.hardware.CANcoder;
+import com.ctre.phoenix6.hardware.ParentDevice;
 import com.ctre.phoenix6.hardware.TalonFX;
+import edu.wpi.first.math.MathUtil;
 import edu.wpi.first.math.geometry.Rotation2d;
 import edu.wpi.first.math.kinematics.SwerveModulePosition;
 import edu.wpi.first.math.kinematics.SwerveModuleState;
 import edu.wpi.first.units.measure.Angle;
 import edu.wpi.first.units.measure.AngularVelocity;
 import edu.wpi.first.units.measure.Current;
-import edu.wpi.first.units.measure.Distance;
-import edu.wpi.first.units.measure.LinearAcceleration;
-import edu.wpi.first.units.measure.LinearVelocity;
-import edu.wpi.first.wpilibj.DriverStation;
-import frc.robot.Constants;
+import frc.robot.Constants.CANConstants;
 import frc.robot.Constants.SwerveConstants.PIDs;
 import frc.robot.Constants.SwerveConstants.PhysicsConstants;
+import frc.robot.utilities.DeviceConfigurator;
+import frc.robot.utilities.Diagnostics;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.DoubleSupplier;
-import java.util.function.Supplier;
 
 public class SwerveModule {
+  private static final double WHEEL_CIRCUMFERENCE_METERS =
+      PhysicsConstants.WHEEL_CIRCUMFERENCE.in(Meters);
+  private static final double WHEEL_DIAMETER_METERS = PhysicsConstants.WHEEL_DIAMETER.in(Meters);
+
   private SwerveModuleConfig config;
 
   private TalonFX driveMotor;
@@ -42,167 +43,131 @@ public class SwerveModule {
       new MotionMagicVelocityVoltage(0);
   private PositionVoltage steerPositionVoltage = new PositionVoltage(0);
 
-  private Supplier<Current> driveCurrentSupplier;
-  private Supplier<Current> steerCurrentSupplier;
-  private Supplier<AngularVelocity> rawDriveVelocitySupplier;
-  private Supplier<Angle> rawDrivePositionSupplier;
-  private Supplier<Distance> drivePositionSupplier;
-  private Supplier<Angle> steerEncoderAngleSupplier;
-  private Supplier<LinearVelocity> driveVelocitySupplier;
-  private Supplier<Rotation2d> steerPositionSupplier;
-
-  public final DoubleSupplier totalCurrentDraw =
-      () -> driveCurrentSupplier.get().in(Amps) + steerCurrentSupplier.get().in(Amps);
+  // A rejected setControl tends to repeat every loop, so these are rate limited by Diagnostics
+  private final Diagnostics.Key driveControlError;
+  private final Diagnostics.Key steerControlError;
+
+  private final StatusSignal<Angle> drivePosition;
+  private final StatusSignal<AngularVelocity> driveVelocity;
+  private final StatusSignal<Angle> steerEncoderPosition;
+  private final StatusSignal<Current> driveCurrent;
+  private final StatusSignal<Current> steerCurrent;
+
+  // Refreshed in one batch with every other module's by SwerveSubsystem, then read from here
+  private final SwerveModuleState state = new SwerveModuleState();
+  private final SwerveModulePosition position = new SwerveModulePosition();
+  private double lastSteerRotations = Double.NaN;
+  private double steerRadians = 0;
+  private double totalCurrentAmps = 0;
+
+  // Set by optimize(), so it can hand back the angle and the speed without an object
+  private double optimizedAngle = 0;
+
+  // What was last sent, so a target that hasn't changed isn't sent again every loop
+  private ControlRequest lastDriveRequest = null;
+  private double lastDriveVelocity = 0;
+  private double lastDriveFeedForward = 0;
+  private int loopsSinceDriveSent = 0;
+  private ControlRequest lastSteerRequest = null;
+  private double lastSteerPosition = 0;
+  private int loopsSinceSteerSent = 0;
+
+  public final DoubleSupplier totalCurrentDraw = () -> totalCurrentAmps;
 
   public SwerveModule(SwerveModuleConfig config) {
     this.config = config;
 
+    this.driveControlError =
+        Diagnostics.key(Diagnostics.Severity.ERROR, "Swerve drive setControl", config.getName());
+    this.steerControlError =
+        Diagnostics.key(Diagnostics.Severity.ERROR, "Swerve steer setControl", config.getName());
+
     this.driveMotor = config.createDriveMotor();
     this.steerMotor = config.createSteerMotor();
     this.steerEncoder = config.createSteerEncoder();
 
-    this.driveCurrentSupplier = driveMotor.getStatorCurrent().asSupplier();
-    this.steerCurrentSupplier = steerMotor.getStatorCurrent().asSupplier();
-
-    this.rawDriveVelocitySupplier = driveMotor.getVelocity().asSupplier();
-    this.rawDrivePositionSupplier = driveMotor.getPosition().asSupplier();
-    this.drivePositionSupplier =
-        () ->
-            Meters.of(
-                rawDrivePositionSupplier.get().in(Rotations)
-                    * PhysicsConstants.WHEEL_CIRCUMFERENCE.in(Meters));
-    this.steerEncoderAngleSupplier = steerEncoder.getPosition().asSupplier();
-
-    this.driveVelocitySupplier =
-        () ->
-            MetersPerSecond.of(
-                rawDriveVelocitySupplier.get().in(RotationsPerSecond)
-                    * PhysicsConstants.WHEEL_DIAMETER.in(Meters));
-    this.steerPositionSupplier =
-        () -> Rotation2d.fromRotations(steerEncoderAngleSupplier.get().in(Rotations));
+    this.drivePosition = driveMotor.getPosition();
+    this.driveVelocity = driveMotor.getVelocity();
+    this.steerEncoderPosition = steerEncoder.getPosition();
+    this.driveCurrent = driveMotor.getStatorCurrent();
+    this.steerCurrent = steerMotor.getStatorCurrent();
   }
 
-  public StatusCode configureAll() {
-    StatusCode status = StatusCode.OK;
+  /** Starts configuring the drive motor, steer motor and steer encoder, all at once. */
+  public CompletableFuture<Void> configureAll() {
+    return CompletableFuture.allOf(
+        DeviceConfigurator.submit(
+            config.getName() + " Drive Motor",
+            () -> driveMotor.getConfigurator().apply(config.getDriveMotorConfig()),
+            StatusCode.OK),
+        DeviceConfigurator.submit(
+            config.getName() + " Steer Motor",
+            () -> steerMotor.getConfigurator().apply(config.getSteerMotorConfig()),
+            StatusCode.OK),
+        DeviceConfigurator.submit(
+            config.getName() + " Steer Encoder",
+            () -> steerEncoder.getConfigurator().apply(config.getSteerEncoderConfig()),
+            StatusCode.OK));
+  }
 
-    // Configure the drive motor
-    for (int i = 0; i < Constants.MAX_CONFIG_RETRIES; i++) {
-      status = driveMotor.getConfigurator().apply(config.getDriveMotorConfig());
-      if (status == StatusCode.OK) {
-        break;
+  private StatusCode commandMotorsFromRequests(
+      ControlRequest driveRequest,
+      double driveVelocity,
+      double driveFeedForward,
+      ControlRequest steerRequest,
+      double steerPosition) {
+    // Set the target state for the drive motor, if it changed or is due a refresh
+    StatusCode driveStatus = StatusCode.OK;
+    if (driveRequest != lastDriveRequest
+        || driveVelocity != lastDriveVelocity
+        || driveFeedForward != lastDriveFeedForward
+        || ++loopsSinceDriveSent >= CANConstants.CONTROL_REFRESH_LOOPS) {
+      driveStatus = driveMotor.setControl(driveRequest);
+      if (driveStatus == StatusCode.OK) {
+        lastDriveRequest = driveRequest;
+        lastDriveVelocity = driveVelocity;
+        lastDriveFeedForward = driveFeedForward;
+        loopsSinceDriveSent = 0;
       } else {
-        DriverStation.reportWarning(
-            "Warning: Failure configuring "
-                + config.getName()
-                + " Drive Motor :"
-                + status.toString()
-                + ", "
-                + status.getDescription(),
-            false);
+        lastDriveRequest = null; // resent next loop no matter what
       }
     }
 
-    if (status != StatusCode.OK) {
-      DriverStation.reportError(
-          "Error configuring "
+    if (driveStatus != StatusCode.OK && Diagnostics.count(driveControlError)) {
+      Diagnostics.emit(
+          driveControlError,
+          "Error setting target state for "
               + config.getName()
               + " Drive Motor :"
-              + status.toString()
-              + ", "
-              + status.getDescription(),
-          false);
-      return status;
-    }
-
-    // Configure the steer motor
-    for (int i = 0; i < Constants.MAX_CONFIG_RETRIES; i++) {
-      status = steerMotor.getConfigurator().apply(config.getSteerMotorConfig());
-      if (status == StatusCode.OK) {
-        break;
-      } else {
-        DriverStation.reportWarning(
-            "Warning: Failure configuring "
-                + config.getName()
-                + " Steer Motor :"
-                + status.toString()
-                + ", "
-                + status.getDescription(),
-            false);
-      }
-    }
-
-    if (status != StatusCode.OK) {
-      DriverStation.reportError(
-          "Error configuring "
-              + config.getName()
-              + " Steer Motor :"
-              + status.toString()
+              + driveStatus.toString()
               + ", "
-              + status.getDescription(),
-          false);
-      return status;
+              + driveStatus.getDescription());
     }
 
-    // Configure the steer encoder
-    for (int i = 0; i < Constants.MAX_CONFIG_RETRIES; i++) {
-      status = steerEncoder.getConfigurator().apply(config.getSteerEncoderConfig());
-      if (status == StatusCode.OK) {
-        break;
+    // Set the target state for the steer motor, if it changed or is due a refresh
+    StatusCode steerStatus = StatusCode.OK;
+    if (steerRequest != lastSteerRequest
+        || steerPosition != lastSteerPosition
+        || ++loopsSinceSteerSent >= CANConstants.CONTROL_REFRESH_LOOPS) {
+      steerStatus = steerMotor.setControl(steerRequest);
+      if (steerStatus == StatusCode.OK) {
+        lastSteerRequest = steerRequest;
+        lastSteerPosition = steerPosition;
+        loopsSinceSteerSent = 0;
       } else {
-        DriverStation.reportWarning(
-            "Warning: Failure configuring "
-                + config.getName()
-                + " Steer Encoder :"
-                + status.toString()
-                + ", "
-                + status.getDescription(),
-            false);
+        lastSteerRequest = null;
       }
     }
 
-    if (status != StatusCode.OK) {
-      DriverStation.reportError(
-          "Error configuring "
-              + config.getName()
-              + " Steer Encoder :"
-              + status.toString()
-              + ", "
-              + status.getDescription(),
-          false);
-      return status;
-    }
-
-    return status;
-  }
-
-  private StatusCode commandMotorsFromRequests(
-      ControlRequest driveVelocityVoltage, ControlRequest steerPositionVoltage) {
-    // Set the target state for the drive motor
-    StatusCode driveStatus = driveMotor.setControl(driveVelocityVoltage);
-
-    if (driveStatus != StatusCode.OK) {
-      DriverStation.reportError(
-          "Error setting target state for "
-              + config.getName()
-              + " Drive Motor :"
-              + driveStatus.toString()
-              + ", "
-              + driveStatus.getDescription(),
-          false);
-    }
-
-    // Set the target state for the steer motor
-    StatusCode steerStatus = steerMotor.setControl(steerPositionVoltage);
-
-    if (steerStatus != StatusCode.OK) {
-      DriverStation.reportError(
+    if (steerStatus != StatusCode.OK && Diagnostics.count(steerControlError)) {
+      Diagnostics.emit(
+          steerControlError,
           "Error setting target state for "
               + config.getName()
               + " Steer Motor :"
               + steerStatus.toString()
               + ", "
-              + steerStatus.getDescription(),
-          false);
+              + steerStatus.getDescription());
     }
 
     // Check for errors
@@ -213,37 +178,103 @@ public class SwerveModule {
     }
   }
 
-  public StatusCode setTargetState(SwerveModuleState state) {
-    state.optimize(getPosition().angle);
-    state.cosineScale(getPosition().angle);
+  /**
+   * Drives toward a speed (m/s) and steer angle (radians). The target is optimized against the
+   * steer angle from the last updateCache(): it never turns more than a quarter turn, reversing
+   * the wheel instead, and the speed is scaled down by how far the wheel still has to turn.
+   */
+  public StatusCode setTarget(double speedMetersPerSecond, double angleRadians) {
+    double velocity = optimize(speedMetersPerSecond, angleRadians) / WHEEL_DIAMETER_METERS;
+    double position = optimizedAngle / (2 * Math.PI);
 
-    // Set the target state for the drive motor
     return commandMotorsFromRequests(
-        driveVelocityVoltage.withVelocity(
-            state.speedMetersPerSecond / PhysicsConstants.WHEEL_DIAMETER.in(Meters)),
-        steerPositionVoltage.withPosition(state.angle.getRotations()));
+        driveVelocityVoltage.withVelocity(velocity),
+        velocity,
+        0,
+        steerPositionVoltage.withPosition(position),
+        position);
   }
 
-  public StatusCode setTargetState(SwerveModuleState state, LinearAcceleration feedForward) {
-    state.optimize(getPosition().angle);
-    state.cosineScale(getPosition().angle);
+  /** Same as {@link #setTarget(double, double)}, with a drive acceleration feedforward. */
+  public StatusCode setTarget(
+      double speedMetersPerSecond, double angleRadians, double accelerationMetersPerSecondSquared) {
+    double velocity = optimize(speedMetersPerSecond, angleRadians) / WHEEL_DIAMETER_METERS;
+    double feedForward = accelerationMetersPerSecondSquared * PIDs.DriveMotor.kA;
+    double position = optimizedAngle / (2 * Math.PI);
 
-    // Set the target state for the drive motor
     return commandMotorsFromRequests(
-        driveMotionMagicVelocityVoltage
-            .withVelocity(state.speedMetersPerSecond / PhysicsConstants.WHEEL_DIAMETER.in(Meters))
-            .withFeedForward(feedForward.in(MetersPerSecondPerSecond) * PIDs.DriveMotor.kA),
-        steerPositionVoltage.withPosition(state.angle.getRotations()));
+        driveMotionMagicVelocityVoltage.withVelocity(velocity).withFeedForward(feedForward),
+        velocity,
+        feedForward,
+        steerPositionVoltage.withPosition(position),
+        position);
+  }
+
+  // SwerveModuleState.optimize and cosineScale. Returns the speed; the angle goes in optimizedAngle
+  private double optimize(double speedMetersPerSecond, double angleRadians) {
+    double delta = MathUtil.angleModulus(angleRadians - steerRadians);
+    if (Math.abs(delta) > Math.PI / 2) {
+      speedMetersPerSecond = -speedMetersPerSecond;
+      angleRadians = MathUtil.angleModulus(angleRadians + Math.PI);
+      delta = MathUtil.angleModulus(delta + Math.PI);
+    }
+    optimizedAngle = angleRadians;
+    return speedMetersPerSecond * Math.cos(delta);
+  }
+
+  /**
+   * The signals read by {@link #updateCache()}, for SwerveSubsystem to refresh along with every
+   * other module's in one call.
+   */
+  BaseStatusSignal[] getSignals() {
+    return new BaseStatusSignal[] {
+      drivePosition, driveVelocity, steerEncoderPosition, driveCurrent, steerCurrent
+    };
+  }
+
+  /**
+   * The signals only the main loop reads, whose rate the drivetrain's CANBusGovernor may lower.
+   * The positions aren't among them; odometry runs them at its own rate.
+   */
+  BaseStatusSignal[] getGovernedSignals() {
+    return new BaseStatusSignal[] {driveVelocity, driveCurrent, steerCurrent};
   }
 
+  ParentDevice[] getDevices() {
+    return new ParentDevice[] {driveMotor, steerMotor, steerEncoder};
+  }
+
+  /** Reads the signals SwerveSubsystem just refreshed. Called once per loop. */
+  void updateCache() {
+    double steerRotations = steerEncoderPosition.getValueAsDouble();
+    // Rotation2d is immutable, so only make a new one when the wheel actually turned
+    if (steerRotations != lastSteerRotations) {
+      lastSteerRotations = steerRotations;
+      steerRadians = MathUtil.angleModulus(steerRotations * 2 * Math.PI);
+      state.angle = Rotation2d.fromRadians(steerRadians);
+      position.angle = state.angle;
+    }
+    state.speedMetersPerSecond = driveVelocity.getValueAsDouble() * WHEEL_DIAMETER_METERS;
+    position.distanceMeters = drivePosition.getValueAsDouble() * WHEEL_CIRCUMFERENCE_METERS;
+    totalCurrentAmps = driveCurrent.getValueAsDouble() + steerCurrent.getValueAsDouble();
+  }
+
+  /** The state as of the last updateCache(). The same object every call, updated in place. */
   public SwerveModuleState getState() {
-    // Get the current state of the module
-    return new SwerveModuleState(driveVelocitySupplier.get(), steerPositionSupplier.get());
+    return state;
   }
 
+  /** The position as of the last updateCache(). The same object every call, updated in place. */
   public SwerveModulePosition getPosition() {
-    // Get the current position of the module
-    return new SwerveModulePosition(drivePositionSupplier.get(), steerPositionSupplier.get());
+    return position;
+  }
+
+  public double getSpeedMetersPerSecond() {
+    return state.speedMetersPerSecond;
+  }
+
+  public double getSteerRadians() {
+    return steerRadians;
   }
 
   // Resets drive encoder
@@ -255,6 +286,15 @@ public class SwerveModule {
     return config.getName();
   }
 
+  // Copies, so the odometry thread never waits on the signal objects SwerveSubsystem refreshes
+  StatusSignal<Angle> getOdometryDrivePosition() {
+    return driveMotor.getPosition().clone();
+  }
+
+  StatusSignal<Angle> getOdometrySteerPosition() {
+    return steerEncoder.getPosition().clone();
+  }
+
   public void updateTelemetry() {
     // TODO update telemetry
   }
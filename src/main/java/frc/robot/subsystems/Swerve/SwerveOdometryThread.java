@@ -0,0 +1,186 @@
+package frc.robot.subsystems.Swerve;
+
+import static edu.wpi.first.units.Units.Hertz;
+import static edu.wpi.first.units.Units.Meters;
+
+import com.ctre.phoenix6.BaseStatusSignal;
+import com.ctre.phoenix6.StatusCode;
+import com.ctre.phoenix6.StatusSignal;
+import edu.wpi.first.math.estimator.SwerveDrivePoseEstimator;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.kinematics.SwerveModulePosition;
+import edu.wpi.first.units.measure.Angle;
+import edu.wpi.first.wpilibj.Threads;
+import edu.wpi.first.wpilibj.Timer;
+import frc.robot.Constants.SwerveConstants;
+import frc.robot.Constants.SwerveConstants.OdometryConstants;
+import frc.robot.Constants.SwerveConstants.PhysicsConstants;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/*
+ * Runs the pose estimator off the main loop. The thread blocks in BaseStatusSignal.waitForAll
+ * until a new frame of every module's drive position and steer encoder angle, and the Pigeon's
+ * yaw, has arrived (at OdometryConstants.UPDATE_FREQUENCY), then feeds that frame to the
+ * estimator with the time it was measured. At 20 ms a robot at full speed covers tens of
+ * centimeters between updates; at 250 Hz it's a couple.
+ *
+ * The thread waits on its own copies of the signals, so it never refreshes a signal object the
+ * main loop is reading. The estimator is only touched while holding lock, and only for one update,
+ * reset or vision measurement at a time. The pose is handed back through a volatile field after
+ * every update, so getPose() never waits on the thread.
+ */
+final class SwerveOdometryThread extends Thread {
+  private static final double WHEEL_CIRCUMFERENCE_METERS =
+      PhysicsConstants.WHEEL_CIRCUMFERENCE.in(Meters);
+  // Two missed frames before giving up on one, so a late frame isn't dropped
+  private static final double WAIT_TIMEOUT_SECONDS =
+      2.0 / OdometryConstants.UPDATE_FREQUENCY.in(Hertz);
+  // Some failures return at once (e.g. the bus is missing); this keeps those from spinning
+  private static final long FAILURE_BACKOFF_NANOS =
+      (long) (1e9 / OdometryConstants.UPDATE_FREQUENCY.in(Hertz));
+
+  private final BaseStatusSignal[] drivePositions;
+  private final BaseStatusSignal[] steerPositions;
+  private final StatusSignal<Angle> yaw;
+  private final BaseStatusSignal[] allSignals;
+
+  private final ReentrantLock lock = new ReentrantLock();
+  // Guarded by lock
+  private final SwerveDrivePoseEstimator estimator;
+  private final SwerveModulePosition[] positions;
+  private final double[] lastSteerRotations;
+  private Rotation2d yawAngle;
+  private double lastYawDegrees = Double.NaN;
+
+  private volatile Pose2d latestPose = new Pose2d();
+
+  // Only written by this thread
+  private volatile int updates = 0;
+  private volatile int failedWaits = 0;
+  private volatile StatusCode lastFailure = StatusCode.OK;
+
+  SwerveOdometryThread(SwerveModule[] modules, StatusSignal<Angle> yaw) {
+    this.yaw = yaw;
+    drivePositions = new BaseStatusSignal[modules.length];
+    steerPositions = new BaseStatusSignal[modules.length];
+    positions = new SwerveModulePosition[modules.length];
+    lastSteerRotations = new double[modules.length];
+    allSignals = new BaseStatusSignal[2 * modules.length + 1];
+    for (int module = 0; module < modules.length; module++) {
+      drivePositions[module] = modules[module].getOdometryDrivePosition();
+      steerPositions[module] = modules[module].getOdometrySteerPosition();
+      positions[module] = new SwerveModulePosition();
+      lastSteerRotations[module] = Double.NaN;
+      allSignals[2 * module] = drivePositions[module];
+      allSignals[2 * module + 1] = steerPositions[module];
+    }
+    allSignals[allSignals.length - 1] = yaw;
+
+    BaseStatusSignal.setUpdateFrequencyForAll(OdometryConstants.UPDATE_FREQUENCY, allSignals);
+    BaseStatusSignal.refreshAll(allSignals);
+    sample();
+    estimator =
+        new SwerveDrivePoseEstimator(SwerveConstants.KINEMATICS, yawAngle, positions, new Pose2d());
+
+    setName("SwerveOdometry");
+    setDaemon(true);
+  }
+
+  @Override
+  public void run() {
+    // Above the main loop, like CTRE's own odometry thread, so a busy loop can't delay a frame
+    Threads.setCurrentThreadPriority(true, 1);
+
+    while (!isInterrupted()) {
+      StatusCode status = BaseStatusSignal.waitForAll(WAIT_TIMEOUT_SECONDS, allSignals);
+      if (!status.isOK()) {
+        lastFailure = status;
+        failedWaits++;
+        LockSupport.parkNanos(FAILURE_BACKOFF_NANOS);
+        continue;
+      }
+      // waitForAll returns once the last of the frame arrives, so the yaw stands in for them all
+      double timestamp = Timer.getFPGATimestamp() - yaw.getTimestamp().getLatency();
+
+      lock.lock();
+      try {
+        sample();
+        latestPose = estimator.updateWithTime(timestamp, yawAngle, positions);
+      } finally {
+        lock.unlock();
+      }
+      updates++;
+    }
+  }
+
+  // Copies the current frame into positions and yawAngle; hold lock once the thread is running
+  private void sample() {
+    // Rotation2d is immutable, so only make a new one when the angle actually moved
+    for (int module = 0; module < positions.length; module++) {
+      positions[module].distanceMeters =
+          drivePositions[module].getValueAsDouble() * WHEEL_CIRCUMFERENCE_METERS;
+      double steerRotations = steerPositions[module].getValueAsDouble();
+      if (steerRotations != lastSteerRotations[module]) {
+        lastSteerRotations[module] = steerRotations;
+        positions[module].angle = Rotation2d.fromRotations(steerRotations);
+      }
+    }
+    double yawDegrees = yaw.getValueAsDouble();
+    if (yawDegrees != lastYawDegrees) {
+      lastYawDegrees = yawDegrees;
+      yawAngle = Rotation2d.fromDegrees(yawDegrees);
+    }
+  }
+
+  /** The pose as of the last frame. Never blocks. */
+  Pose2d getPose() {
+    return latestPose;
+  }
+
+  /**
+   * Resets the estimator to pose, keeping the last frame's wheel positions and yaw. Before the
+   * thread is started, the frame is read fresh, since the devices may have been configured since
+   * the constructor sampled it.
+   */
+  void resetPose(Pose2d pose) {
+    lock.lock();
+    try {
+      if (!isAlive()) {
+        // Nothing else refreshes these signals until run() does
+        BaseStatusSignal.refreshAll(allSignals);
+        sample();
+      }
+      estimator.resetPosition(yawAngle, positions, pose);
+      latestPose = pose;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /** Fuses a vision pose measured at timestampSeconds, on the FPGA timebase. */
+  void addVisionMeasurement(Pose2d pose, double timestampSeconds) {
+    lock.lock();
+    try {
+      estimator.addVisionMeasurement(pose, timestampSeconds);
+      latestPose = estimator.getEstimatedPosition();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /** Frames fed to the estimator since the thread started. */
+  int getUpdateCount() {
+    return updates;
+  }
+
+  /** Frames that didn't arrive in time, or arrived with an error. */
+  int getFailedWaitCount() {
+    return failedWaits;
+  }
+
+  StatusCode getLastFailure() {
+    return lastFailure;
+  }
+}
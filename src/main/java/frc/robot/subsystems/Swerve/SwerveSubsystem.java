@@ -1,31 +1,44 @@
 package frc.robot.subsystems.Swerve;
 
-import static edu.wpi.first.units.Units.Degrees;
+import static edu.wpi.first.units.Units.MetersPerSecond;
 
+import com.ctre.phoenix6.BaseStatusSignal;
 import com.ctre.phoenix6.StatusCode;
+import com.ctre.phoenix6.StatusSignal;
+import com.ctre.phoenix6.hardware.ParentDevice;
 import com.pathplanner.lib.auto.AutoBuilder;
 import com.pathplanner.lib.util.DriveFeedforwards;
-import edu.wpi.first.math.estimator.SwerveDrivePoseEstimator;
 import edu.wpi.first.math.geometry.Pose2d;
 import edu.wpi.first.math.geometry.Rotation2d;
 import edu.wpi.first.math.kinematics.ChassisSpeeds;
-import edu.wpi.first.math.kinematics.SwerveDriveKinematics;
-import edu.wpi.first.math.kinematics.SwerveModulePosition;
 import edu.wpi.first.math.kinematics.SwerveModuleState;
-import edu.wpi.first.units.measure.LinearAcceleration;
+import edu.wpi.first.networktables.NetworkTableType;
+import edu.wpi.first.units.measure.Angle;
 import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.TimedRobot;
+import edu.wpi.first.wpilibj.Timer;
 import edu.wpi.first.wpilibj.smartdashboard.SendableChooser;
 import edu.wpi.first.wpilibj2.command.Command;
 import edu.wpi.first.wpilibj2.command.InstantCommand;
 import edu.wpi.first.wpilibj2.command.SubsystemBase;
-import frc.robot.Constants;
+import frc.robot.Constants.CANConstants;
 import frc.robot.Constants.SwerveConstants;
+import frc.robot.Constants.SwerveConstants.PhysicsConstants;
+import frc.robot.utilities.CANBusGovernor;
+import frc.robot.utilities.DeviceConfigurator;
+import frc.robot.utilities.Diagnostics;
 import frc.robot.utilities.Pigeon;
+import frc.robot.utilities.Telemetry;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.BooleanSupplier;
 import java.util.function.DoubleSupplier;
 import java.util.function.Supplier;
 
 public class SwerveSubsystem extends SubsystemBase {
+  private static final double MAX_SPEED_METERS_PER_SECOND =
+      PhysicsConstants.MAX_STRAFE_SPEED.in(MetersPerSecond);
 
   private SwerveModule[] m_swerveModules =
       new SwerveModule[] {
@@ -34,20 +47,47 @@ public class SwerveSubsystem extends SubsystemBase {
         new SwerveModule(SwerveConstants.BACK_LEFT_CONFIG),
         new SwerveModule(SwerveConstants.BACK_RIGHT_CONFIG),
       };
-  private SwerveDrivePoseEstimator m_poseEstimator =
-      new SwerveDrivePoseEstimator(
-          SwerveConstants.KINEMATICS,
-          Rotation2d.fromDegrees(Pigeon.getYawSupplier().get().in(Degrees)),
-          new SwerveModulePosition[] {
-            m_swerveModules[0].getPosition(),
-            m_swerveModules[1].getPosition(),
-            m_swerveModules[2].getPosition(),
-            m_swerveModules[3].getPosition()
-          },
-          new Pose2d());
+  // Owns the pose estimator; started once the subsystem is configured
+  private final SwerveOdometryThread m_odometryThread =
+      new SwerveOdometryThread(m_swerveModules, Pigeon.getYawSignal());
+
+  // Every module's signals and the yaw, refreshed in one call at the start of each loop
+  private final StatusSignal<Angle> m_yawSignal = Pigeon.getYawSignal();
+  private final BaseStatusSignal[] m_signals;
+  private double m_yawDegrees = 0;
+  private Rotation2d m_yaw = new Rotation2d();
+  private double m_yawCos = 1;
+  private double m_yawSin = 0;
+  private final Diagnostics.Key m_refreshError =
+      Diagnostics.key(Diagnostics.Severity.WARNING, "Swerve refreshAll");
+
+  // Slows the status signals above when the drivetrain bus is busy, and publishes its load
+  private final CANBusGovernor m_busGovernor;
 
   private SendableChooser<Command> m_autoChooser;
 
+  // Preallocated, so driving and measuring don't make garbage every loop
+  private final SwerveKinematics m_kinematics = new SwerveKinematics(SwerveConstants.KINEMATICS);
+  private final double[] m_measuredSpeeds = new double[4];
+  private final double[] m_measuredAngles = new double[4];
+  private final ChassisSpeeds m_robotRelativeSpeeds = new ChassisSpeeds();
+  private final ChassisSpeeds m_fieldRelativeSpeeds = new ChassisSpeeds();
+  // The modules update their states in place, so this is filled once
+  private final SwerveModuleState[] m_measuredStates = new SwerveModuleState[4];
+  private final Telemetry.StructEntry<Pose2d> m_poseEntry =
+      Telemetry.addStructValue("Swerve/Pose", Pose2d.struct);
+  private final Telemetry.StructArrayEntry<SwerveModuleState> m_measuredStatesEntry =
+      Telemetry.addStructArrayValue("Swerve/MeasuredStates", SwerveModuleState.struct);
+  private final Telemetry.StructEntry<ChassisSpeeds> m_robotRelativeSpeedsEntry =
+      Telemetry.addStructValue("Swerve/RobotRelativeSpeeds", ChassisSpeeds.struct);
+  private final Telemetry.DoubleEntry m_odometryFrequencyEntry =
+      Telemetry.addValue("Swerve/OdometryFrequency", NetworkTableType.kDouble);
+  private final Diagnostics.Key m_odometryWaitError =
+      Diagnostics.key(Diagnostics.Severity.WARNING, "Swerve odometry waitForAll");
+  private int m_lastOdometryUpdates = 0;
+  private int m_lastOdometryFailedWaits = 0;
+  private double m_lastOdometryTime = Timer.getFPGATimestamp();
+
   public final DoubleSupplier totalCurrentDraw =
       () -> {
         double draw = 0;
@@ -60,16 +100,49 @@ public class SwerveSubsystem extends SubsystemBase {
   public final Supplier<Pose2d> poseSupplier = this::getPose;
   public final Supplier<ChassisSpeeds> robotRelativeSpeedsSupplier = this::getRobotRelativeSpeeds;
   public final Supplier<ChassisSpeeds> fieldRelativeSpeedsSupplier = this::getFieldRelativeSpeeds;
-  public final Supplier<Rotation2d> yawSupplier =
-      () -> Rotation2d.fromDegrees(Pigeon.getYawSupplier().get().in(Degrees));
+  public final Supplier<Rotation2d> yawSupplier = () -> m_yaw;
 
   public SwerveSubsystem() {
+    ArrayList<BaseStatusSignal> signals = new ArrayList<BaseStatusSignal>();
+    for (SwerveModule module : m_swerveModules) {
+      signals.addAll(Arrays.asList(module.getSignals()));
+    }
+    signals.add(m_yawSignal);
+    m_signals = signals.toArray(new BaseStatusSignal[0]);
+    for (int module = 0; module < 4; module++) {
+      m_measuredStates[module] = m_swerveModules[module].getState();
+    }
+
     configureAll();
 
+    // Rates are set first (odometry's positions in m_odometryThread, the rest by the governor),
+    // then every other status signal of the module devices is turned off
+    ArrayList<BaseStatusSignal> governed = new ArrayList<BaseStatusSignal>();
+    ArrayList<ParentDevice> devices = new ArrayList<ParentDevice>();
+    for (SwerveModule module : m_swerveModules) {
+      governed.addAll(Arrays.asList(module.getGovernedSignals()));
+      devices.addAll(Arrays.asList(module.getDevices()));
+    }
+    m_busGovernor =
+        new CANBusGovernor(
+            SwerveConstants.CAN.DRIVETRAIN_CANBUS,
+            governed.toArray(new BaseStatusSignal[0]),
+            CANConstants.MAX_STATUS_FREQUENCY,
+            CANConstants.MIN_STATUS_FREQUENCY);
+    StatusCode status =
+        ParentDevice.optimizeBusUtilizationForAll(devices.toArray(new ParentDevice[0]));
+    if (!status.isOK()) {
+      DriverStation.reportWarning(
+          "Warning: Failure optimizing swerve bus utilization: " + status, false);
+    }
+
+    refreshSignals();
+
     System.out.println("Swerve initialized");
 
     // Reset the pose estimator
     resetOdometry(new Pose2d());
+    m_odometryThread.start();
 
     if (AutoBuilder.isConfigured()) {
       System.out.println("AutoBuilder is already configured, skipping configuration.");
@@ -80,7 +153,7 @@ public class SwerveSubsystem extends SubsystemBase {
         this::getPose,
         this::resetOdometry,
         this::getRobotRelativeSpeeds,
-        (speeds, feedForwards) -> driveFromChassisSpeeds(speeds, feedForwards),
+        (speeds, feedForwards) -> driveRobotRelative(speeds, feedForwards),
         SwerveConstants.HOLONOMIC_DRIVE_CONTROLLER,
         SwerveConstants.robotConfig,
         () -> {
@@ -96,23 +169,15 @@ public class SwerveSubsystem extends SubsystemBase {
     System.out.println("Auto chooser initialized");
   }
 
-  private StatusCode configureAll() {
-    // Configure all of your necessary components here
-    StatusCode status = StatusCode.GeneralError;
-    moduleLoop:
-    for (SwerveModule module : m_swerveModules) {
-      for (int tries = 0; tries < Constants.MAX_CONFIG_RETRIES; tries++) {
-        status = module.configureAll();
-
-        if (status == StatusCode.OK) {
-          continue moduleLoop;
-        }
-        DriverStation.reportWarning(
-            "Warning: Failure configuring " + module.getName() + ": " + status, false);
-      }
-      DriverStation.reportError("Error configuring " + module.getName() + ": " + status, false);
+  // The modules configure in parallel; the bus setup after this needs them done
+  private void configureAll() {
+    CompletableFuture<?>[] modules = new CompletableFuture<?>[m_swerveModules.length];
+    for (int module = 0; module < m_swerveModules.length; module++) {
+      modules[module] = m_swerveModules[module].configureAll();
+    }
+    if (!DeviceConfigurator.await(modules)) {
+      DriverStation.reportError("Error configuring Swerve: timed out", false);
     }
-    return status;
   }
 
   public Command driveFromJoystickCommand(
@@ -122,15 +187,12 @@ public class SwerveSubsystem extends SubsystemBase {
       BooleanSupplier fieldRelative) {
     return this.run(
             () -> {
-              ChassisSpeeds speeds =
-                  new ChassisSpeeds(
-                      forward.getAsDouble(), strafe.getAsDouble(), rotation.getAsDouble());
               if (fieldRelative.getAsBoolean()) {
-                driveFromChassisSpeeds(
-                    ChassisSpeeds.fromFieldRelativeSpeeds(
-                        speeds, Rotation2d.fromDegrees(Pigeon.getYawSupplier().get().in(Degrees))));
+                driveFieldRelative(
+                    forward.getAsDouble(), strafe.getAsDouble(), rotation.getAsDouble());
               } else {
-                driveFromChassisSpeeds(speeds);
+                driveRobotRelative(
+                    forward.getAsDouble(), strafe.getAsDouble(), rotation.getAsDouble());
               }
             })
         .repeatedly()
@@ -140,7 +202,11 @@ public class SwerveSubsystem extends SubsystemBase {
   public Command driveRobotRelativeCommand(Supplier<ChassisSpeeds> chassisSpeeds) {
     return this.run(
             () -> {
-              driveFromChassisSpeeds(chassisSpeeds.get());
+              ChassisSpeeds speeds = chassisSpeeds.get();
+              driveRobotRelative(
+                  speeds.vxMetersPerSecond,
+                  speeds.vyMetersPerSecond,
+                  speeds.omegaRadiansPerSecond);
             })
         .repeatedly()
         .withName("Robot Relative Drive");
@@ -149,10 +215,11 @@ public class SwerveSubsystem extends SubsystemBase {
   public Command driveFieldRelativeCommand(Supplier<ChassisSpeeds> chassisSpeeds) {
     return this.run(
             () -> {
-              driveFromChassisSpeeds(
-                  ChassisSpeeds.fromFieldRelativeSpeeds(
-                      chassisSpeeds.get(),
-                      Rotation2d.fromDegrees(Pigeon.getYawSupplier().get().in(Degrees))));
+              ChassisSpeeds speeds = chassisSpeeds.get();
+              driveFieldRelative(
+                  speeds.vxMetersPerSecond,
+                  speeds.vyMetersPerSecond,
+                  speeds.omegaRadiansPerSecond);
             })
         .repeatedly()
         .withName("Field Relative Drive");
@@ -161,77 +228,71 @@ public class SwerveSubsystem extends SubsystemBase {
   public Command driveXCommand() {
     return this.run(
             () -> {
-              driveFromModuleStates(
-                  new SwerveModuleState[] { // TODO X angles
-                    new SwerveModuleState(0, new Rotation2d()),
-                    new SwerveModuleState(0, new Rotation2d()),
-                    new SwerveModuleState(0, new Rotation2d()),
-                    new SwerveModuleState(0, new Rotation2d())
-                  });
+              for (int module = 0; module < 4; module++) {
+                m_swerveModules[module].setTarget(0, 0); // TODO X angles
+              }
             })
         .repeatedly()
         .withName("X Drive");
   }
 
-  private void driveFromChassisSpeeds(ChassisSpeeds chassisSpeeds) {
-    ChassisSpeeds discreteSpeeds = ChassisSpeeds.discretize(chassisSpeeds, 0.02);
-    SwerveModuleState[] states = SwerveConstants.KINEMATICS.toSwerveModuleStates(discreteSpeeds);
-    SwerveDriveKinematics.desaturateWheelSpeeds(
-        states, SwerveConstants.PhysicsConstants.MAX_STRAFE_SPEED);
-    driveFromModuleStates(states);
+  // ChassisSpeeds.fromFieldRelativeSpeeds, on the yaw from the last refresh
+  private void driveFieldRelative(double vx, double vy, double omega) {
+    driveRobotRelative(vx * m_yawCos + vy * m_yawSin, -vx * m_yawSin + vy * m_yawCos, omega);
   }
 
-  private void driveFromModuleStates(SwerveModuleState[] states) {
+  private void driveRobotRelative(double vx, double vy, double omega) {
+    m_kinematics.toModuleStates(
+        vx, vy, omega, TimedRobot.kDefaultPeriod, MAX_SPEED_METERS_PER_SECOND);
     for (int module = 0; module < 4; module++) {
-      m_swerveModules[module].setTargetState(states[module]);
+      m_swerveModules[module].setTarget(m_kinematics.speeds[module], m_kinematics.angles[module]);
     }
   }
 
-  private void driveFromChassisSpeeds(ChassisSpeeds chassisSpeeds, DriveFeedforwards feedForwards) {
-    ChassisSpeeds discreteSpeeds = ChassisSpeeds.discretize(chassisSpeeds, 0.02);
-    SwerveModuleState[] states = SwerveConstants.KINEMATICS.toSwerveModuleStates(discreteSpeeds);
-    SwerveDriveKinematics.desaturateWheelSpeeds(
-        states, SwerveConstants.PhysicsConstants.MAX_STRAFE_SPEED);
-    driveFromModuleStates(states, feedForwards.accelerations());
-  }
-
-  private void driveFromModuleStates(
-      SwerveModuleState[] states, LinearAcceleration[] feedForwards) {
+  private void driveRobotRelative(ChassisSpeeds speeds, DriveFeedforwards feedForwards) {
+    m_kinematics.toModuleStates(
+        speeds.vxMetersPerSecond,
+        speeds.vyMetersPerSecond,
+        speeds.omegaRadiansPerSecond,
+        TimedRobot.kDefaultPeriod,
+        MAX_SPEED_METERS_PER_SECOND);
+    double[] accelerations = feedForwards.accelerationsMPSSq();
     for (int module = 0; module < 4; module++) {
-      m_swerveModules[module].setTargetState(states[module], feedForwards[module]);
+      m_swerveModules[module].setTarget(
+          m_kinematics.speeds[module], m_kinematics.angles[module], accelerations[module]);
     }
   }
 
+  /** Measured robot relative speeds. The same object every call, updated in place. */
   public ChassisSpeeds getRobotRelativeSpeeds() {
-    return SwerveConstants.KINEMATICS.toChassisSpeeds(
-        new SwerveModuleState[] {
-          m_swerveModules[0].getState(),
-          m_swerveModules[1].getState(),
-          m_swerveModules[2].getState(),
-          m_swerveModules[3].getState()
-        });
+    for (int module = 0; module < 4; module++) {
+      m_measuredSpeeds[module] = m_swerveModules[module].getSpeedMetersPerSecond();
+      m_measuredAngles[module] = m_swerveModules[module].getSteerRadians();
+    }
+    return m_kinematics.toChassisSpeeds(m_measuredSpeeds, m_measuredAngles, m_robotRelativeSpeeds);
   }
 
+  /** Measured field relative speeds. The same object every call, updated in place. */
   public ChassisSpeeds getFieldRelativeSpeeds() {
-    return ChassisSpeeds.fromRobotRelativeSpeeds(
-        getRobotRelativeSpeeds(),
-        Rotation2d.fromDegrees(Pigeon.getYawSupplier().get().in(Degrees)));
+    ChassisSpeeds robotRelative = getRobotRelativeSpeeds();
+    m_fieldRelativeSpeeds.vxMetersPerSecond = robotRelative.vxMetersPerSecond;
+    m_fieldRelativeSpeeds.vyMetersPerSecond = robotRelative.vyMetersPerSecond;
+    m_fieldRelativeSpeeds.omegaRadiansPerSecond = robotRelative.omegaRadiansPerSecond;
+    return SwerveKinematics.toFieldRelative(m_fieldRelativeSpeeds, m_yawCos, m_yawSin);
   }
 
+  /** The latest pose from the odometry thread. Never blocks. */
   public Pose2d getPose() {
-    return m_poseEstimator.getEstimatedPosition();
+    return m_odometryThread.getPose();
   }
 
   public void resetOdometry(Pose2d pose) {
-    m_poseEstimator.resetPosition(
-        Rotation2d.fromDegrees(Pigeon.getYawSupplier().get().in(Degrees)),
-        new SwerveModulePosition[] {
-          m_swerveModules[0].getPosition(),
-          m_swerveModules[1].getPosition(),
-          m_swerveModules[2].getPosition(),
-          m_swerveModules[3].getPosition()
-        },
-        pose);
+    m_odometryThread.resetPose(pose);
+  }
+
+  /** Fuses a vision pose captured at timestampSeconds, on the FPGA timebase. */
+  public void addVisionMeasurement(Pose2d pose, double timestampSeconds) {
+    m_odometryThread.addVisionMeasurement(pose, timestampSeconds);
   }
 
   /** no subsystem requirement */
@@ -245,20 +306,56 @@ public class SwerveSubsystem extends SubsystemBase {
 
   @Override
   public void periodic() {
-    // This method will be called once per scheduler run
-    m_poseEstimator.update(
-        Rotation2d.fromDegrees(Pigeon.getYawSupplier().get().in(Degrees)),
-        new SwerveModulePosition[] {
-          m_swerveModules[0].getPosition(),
-          m_swerveModules[1].getPosition(),
-          m_swerveModules[2].getPosition(),
-          m_swerveModules[3].getPosition()
-        });
-
-    // TODO system telemetry
+    // This method will be called once per scheduler run, before any command reads the modules
+    refreshSignals();
+    updateOdometryTelemetry();
+    m_busGovernor.periodic();
+
+    // Each is one packed message, so the fields of a pose or module state can't arrive torn
+    m_poseEntry.set(getPose());
+    m_measuredStatesEntry.set(m_measuredStates);
+    m_robotRelativeSpeedsEntry.set(getRobotRelativeSpeeds());
 
     for (SwerveModule module : m_swerveModules) {
       module.updateTelemetry();
     }
   }
+
+  // One CAN-synchronized sample per loop, instead of a refresh per value read
+  private void refreshSignals() {
+    StatusCode status = BaseStatusSignal.refreshAll(m_signals);
+    if (!status.isOK() && Diagnostics.count(m_refreshError)) {
+      Diagnostics.emit(m_refreshError, "Swerve status signals not refreshed: " + status);
+    }
+    for (SwerveModule module : m_swerveModules) {
+      module.updateCache();
+    }
+    double yawDegrees = m_yawSignal.getValueAsDouble();
+    if (yawDegrees != m_yawDegrees) {
+      m_yawDegrees = yawDegrees;
+      m_yaw = Rotation2d.fromDegrees(yawDegrees);
+      m_yawCos = m_yaw.getCos();
+      m_yawSin = m_yaw.getSin();
+    }
+  }
+
+  // The thread can't touch Telemetry or Diagnostics itself, so its counters are read back here
+  private void updateOdometryTelemetry() {
+    int updates = m_odometryThread.getUpdateCount();
+    int failedWaits = m_odometryThread.getFailedWaitCount();
+    double now = Timer.getFPGATimestamp();
+    m_odometryFrequencyEntry.set((updates - m_lastOdometryUpdates) / (now - m_lastOdometryTime));
+
+    if (failedWaits != m_lastOdometryFailedWaits && Diagnostics.count(m_odometryWaitError)) {
+      Diagnostics.emit(
+          m_odometryWaitError,
+          "Swerve odometry missed "
+              + (failedWaits - m_lastOdometryFailedWaits)
+              + " frames: "
+              + m_odometryThread.getLastFailure());
+    }
+    m_lastOdometryUpdates = updates;
+    m_lastOdometryFailedWaits = failedWaits;
+    m_lastOdometryTime = now;
+  }
 }
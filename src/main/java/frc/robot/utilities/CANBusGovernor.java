@@ -0,0 +1,159 @@
+package frc.robot.utilities;
+
+import static edu.wpi.first.units.Units.Hertz;
+
+import com.ctre.phoenix6.BaseStatusSignal;
+import com.ctre.phoenix6.CANBus;
+import com.ctre.phoenix6.CANBus.CANBusStatus;
+import com.ctre.phoenix6.StatusCode;
+import edu.wpi.first.networktables.NetworkTableType;
+import edu.wpi.first.units.measure.Frequency;
+import frc.robot.Constants.CANConstants;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/*
+ * Watches the load on one CAN bus and trades the rate of the status signals the main loop reads
+ * for headroom. Every CANConstants.BUS_CHECK_LOOPS loops it reads the bus status; above
+ * HIGH_BUS_UTILIZATION the governed signals are halved, down to the minimum, and below
+ * LOW_BUS_UTILIZATION they're doubled back up to the maximum. The gap between the two keeps it
+ * from flapping. Signals the governor doesn't own (odometry's, at their own rate) are left alone.
+ *
+ * setUpdateFrequencyForAll waits on every device, and a busy bus is exactly when that's slow, so
+ * rate changes are applied on a thread of their own. The new rate is only taken once the change
+ * succeeded; until then, or if it failed, the current one stays.
+ *
+ * Utilization, error counters and the governed rate are published under CAN/<bus name>/.
+ */
+public final class CANBusGovernor {
+  private final CANBus bus;
+  private final BaseStatusSignal[] signals;
+  private final double maxHertz;
+  private final double minHertz;
+  private double hertz;
+  private double utilization = 0;
+  private int loopsSinceCheck = 0;
+
+  private final ExecutorService applier;
+  // Main thread only; the change in flight, if any, and the rate it asks for
+  private Future<StatusCode> pendingChange;
+  private double pendingHertz;
+
+  private final Diagnostics.Key statusError;
+  private final Diagnostics.Key frequencyError;
+
+  private final Telemetry.DoubleEntry utilizationEntry;
+  private final Telemetry.DoubleEntry frequencyEntry;
+  private final Telemetry.IntegerEntry busOffEntry;
+  private final Telemetry.IntegerEntry txFullEntry;
+  private final Telemetry.IntegerEntry receiveErrorEntry;
+  private final Telemetry.IntegerEntry transmitErrorEntry;
+
+  /** Governs signals on bus, starting them at max. */
+  public CANBusGovernor(CANBus bus, BaseStatusSignal[] signals, Frequency max, Frequency min) {
+    this.bus = bus;
+    this.signals = signals;
+    this.maxHertz = max.in(Hertz);
+    this.minHertz = min.in(Hertz);
+
+    String name = bus.getName();
+    statusError = Diagnostics.key(Diagnostics.Severity.WARNING, "CAN bus status", name);
+    frequencyError = Diagnostics.key(Diagnostics.Severity.WARNING, "CAN setUpdateFrequency", name);
+
+    TelemetryNamespace telemetry = Telemetry.namespace("CAN/" + name);
+    utilizationEntry = telemetry.addValue("Utilization", NetworkTableType.kDouble);
+    frequencyEntry = telemetry.addValue("StatusFrequency", NetworkTableType.kDouble);
+    busOffEntry = telemetry.addValue("BusOffCount", NetworkTableType.kInteger);
+    txFullEntry = telemetry.addValue("TxFullCount", NetworkTableType.kInteger);
+    receiveErrorEntry = telemetry.addValue("ReceiveErrorCount", NetworkTableType.kInteger);
+    transmitErrorEntry = telemetry.addValue("TransmitErrorCount", NetworkTableType.kInteger);
+
+    applier =
+        Executors.newSingleThreadExecutor(
+            runnable -> {
+              Thread thread = new Thread(runnable, "CANBusGovernor " + name);
+              thread.setDaemon(true);
+              return thread;
+            });
+
+    // Startup, before the bus is optimized, so this one waits
+    hertz = maxHertz;
+    checkFrequencyStatus(BaseStatusSignal.setUpdateFrequencyForAll(maxHertz, signals));
+    frequencyEntry.set(hertz);
+  }
+
+  /** Bus utilization from the last check, 0 to 1. */
+  public double getUtilization() {
+    return utilization;
+  }
+
+  public double getFrequency() {
+    return hertz;
+  }
+
+  /** Call once per loop. Only does anything every BUS_CHECK_LOOPS loops. */
+  public void periodic() {
+    if (pendingChange != null && pendingChange.isDone()) {
+      finishFrequencyChange();
+    }
+    if (++loopsSinceCheck < CANConstants.BUS_CHECK_LOOPS) {
+      return;
+    }
+    loopsSinceCheck = 0;
+
+    CANBusStatus status = bus.getStatus();
+    if (!status.Status.isOK()) {
+      Diagnostics.report(statusError, "Can't read status of CAN bus " + bus.getName());
+      return;
+    }
+    utilization = status.BusUtilization;
+    utilizationEntry.set(utilization * 100);
+    busOffEntry.set(status.BusOffCount);
+    txFullEntry.set(status.TxFullCount);
+    receiveErrorEntry.set(status.REC);
+    transmitErrorEntry.set(status.TEC);
+
+    if (pendingChange != null) {
+      return; // one change at a time
+    }
+    if (utilization > CANConstants.HIGH_BUS_UTILIZATION && hertz > minHertz) {
+      requestFrequency(Math.max(minHertz, hertz / 2));
+    } else if (utilization < CANConstants.LOW_BUS_UTILIZATION && hertz < maxHertz) {
+      requestFrequency(Math.min(maxHertz, hertz * 2));
+    }
+  }
+
+  private void requestFrequency(double newHertz) {
+    pendingHertz = newHertz;
+    pendingChange =
+        applier.submit(() -> BaseStatusSignal.setUpdateFrequencyForAll(newHertz, signals));
+  }
+
+  private void finishFrequencyChange() {
+    StatusCode status;
+    try {
+      status = pendingChange.get();
+    } catch (ExecutionException e) {
+      status = StatusCode.GeneralError;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return;
+    }
+    pendingChange = null;
+    if (checkFrequencyStatus(status)) {
+      hertz = pendingHertz;
+      frequencyEntry.set(hertz);
+    }
+  }
+
+  private boolean checkFrequencyStatus(StatusCode status) {
+    if (!status.isOK() && Diagnostics.count(frequencyError)) {
+      Diagnostics.emit(
+          frequencyError,
+          "Error setting status frequency on CAN bus " + bus.getName() + ": " + status);
+    }
+    return status.isOK();
+  }
+}
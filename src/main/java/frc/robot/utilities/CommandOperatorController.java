@@ -5,7 +5,6 @@
 package frc.robot.utilities;
 
 import edu.wpi.first.math.geometry.Translation2d;
-import edu.wpi.first.networktables.NetworkTableType;
 import edu.wpi.first.wpilibj.DriverStation;
 import edu.wpi.first.wpilibj2.command.button.CommandGenericHID;
 import edu.wpi.first.wpilibj2.command.button.Trigger;
@@ -16,27 +15,45 @@ public class CommandOperatorController {
   CommandGenericHID leftBoard;
   CommandGenericHID rightBoard;
 
+  // All 17 LEDs travel as one integer, bit N being LED N. Our own copy of the bits is the one
+  // read and written; dashboard-side changes come in through a watch and are merged once they
+  // show up, so several setLED() calls in one loop all stick.
+  private final Telemetry.FlagsEntry m_leds;
+  private final Telemetry.WatchedValue m_ledValue;
+  private long m_ledValueChangeCount = 0;
+  private final long[] m_ledChangeCounts = new long[17];
+
   public CommandOperatorController(int leftPort, int rightPort) {
     leftBoard = new CommandGenericHID(leftPort);
     rightBoard = new CommandGenericHID(rightPort);
 
-    Telemetry.addValue("buttonBoard/00", NetworkTableType.kBoolean);
-    Telemetry.addValue("buttonBoard/01", NetworkTableType.kBoolean);
-    Telemetry.addValue("buttonBoard/02", NetworkTableType.kBoolean);
-    Telemetry.addValue("buttonBoard/03", NetworkTableType.kBoolean);
-    Telemetry.addValue("buttonBoard/04", NetworkTableType.kBoolean);
-    Telemetry.addValue("buttonBoard/05", NetworkTableType.kBoolean);
-    Telemetry.addValue("buttonBoard/06", NetworkTableType.kBoolean);
-    Telemetry.addValue("buttonBoard/07", NetworkTableType.kBoolean);
-    Telemetry.addValue("buttonBoard/08", NetworkTableType.kBoolean);
-    // 9 intentionally skipped
-    Telemetry.addValue("buttonBoard/10", NetworkTableType.kBoolean);
-    Telemetry.addValue("buttonBoard/11", NetworkTableType.kBoolean);
-    Telemetry.addValue("buttonBoard/12", NetworkTableType.kBoolean);
-    Telemetry.addValue("buttonBoard/13", NetworkTableType.kBoolean);
-    Telemetry.addValue("buttonBoard/14", NetworkTableType.kBoolean);
-    Telemetry.addValue("buttonBoard/15", NetworkTableType.kBoolean);
-    Telemetry.addValue("buttonBoard/16", NetworkTableType.kBoolean);
+    String[] ledNames = new String[17];
+    for (int led = 0; led <= 16; led++) {
+      ledNames[led] = String.format("%02d", led); // 9 is never set, but keeps bit N as LED N
+    }
+    m_leds = Telemetry.addFlagsValue("buttonBoard/LEDs", ledNames);
+    m_ledValue = Telemetry.watch("buttonBoard/LEDs");
+  }
+
+  // Brings in changes made on the dashboard since the last call
+  private void readLEDs() {
+    if (m_ledValue.hasChangedSince(m_ledValueChangeCount)) {
+      m_ledValueChangeCount = m_ledValue.getChangeCount();
+      writeLEDs(m_ledValue.getInteger(m_leds.getBits()), false);
+    }
+  }
+
+  private void writeLEDs(long bits, boolean publish) {
+    long changed = bits ^ m_leds.getBits();
+    for (int led = 0; changed != 0; led++, changed >>>= 1) {
+      if ((changed & 1) != 0) {
+        m_ledChangeCounts[led]++;
+      }
+    }
+    m_leds.setBits(bits);
+    if (publish) {
+      m_leds.publish();
+    }
   }
 
   /** Indexes start at 0 */
@@ -45,7 +62,8 @@ public class CommandOperatorController {
       DriverStation.reportError("Button Board: [GET] Invalid LED number: " + LEDNumber, false);
       return false;
     }
-    return Telemetry.getValue("buttonBoard/" + (LEDNumber < 9 ? "0" : "") + LEDNumber, false);
+    readLEDs();
+    return m_leds.get(LEDNumber);
   }
 
   /** Indexes start at 0 */
@@ -54,7 +72,9 @@ public class CommandOperatorController {
       DriverStation.reportError("Button Board: [SET] Invalid LED number: " + LEDNumber, false);
       return;
     }
-    Telemetry.setValue("buttonBoard/" + (LEDNumber < 9 ? "0" : "") + LEDNumber, value);
+    readLEDs();
+    long bit = 1L << LEDNumber;
+    writeLEDs(value ? m_leds.getBits() | bit : m_leds.getBits() & ~bit, true);
   }
 
   /** Indexes start at 0 */
@@ -72,6 +92,16 @@ public class CommandOperatorController {
     }
   }
 
+  /** Goes up every time this LED changes, from here or the dashboard. Indexes start at 0 */
+  public long getLEDChangeCount(int LEDNumber) {
+    if (LEDNumber > 16 || LEDNumber < 0 || LEDNumber == 9) {
+      DriverStation.reportError("Button Board: [COUNT] Invalid LED number: " + LEDNumber, false);
+      return 0;
+    }
+    readLEDs();
+    return m_ledChangeCounts[LEDNumber];
+  }
+
   /** Indexes start at 0 */
   public Trigger button(int buttonNumber) {
     return (buttonNumber < 9)
@@ -0,0 +1,237 @@
+package frc.robot.utilities;
+
+import edu.wpi.first.networktables.NetworkTableType;
+import edu.wpi.first.wpilibj.DriverStation;
+import frc.robot.Constants;
+import frc.robot.Constants.ConfigConstants;
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/*
+ * Applies device configurations at startup on a small pool of threads, so independent devices
+ * configure at the same time instead of one after another. Every apply blocks on a CAN round trip
+ * or several, and with a dozen and more devices that used to be most of boot.
+ *
+ * Each device gets MAX_CONFIG_RETRIES attempts, with a backoff between them that starts at
+ * ConfigConstants.INITIAL_BACKOFF_SECONDS and doubles, so a busy bus gets a moment to clear. All
+ * devices share one deadline, ConfigConstants.TIMEOUT_SECONDS after the first submit; no attempt
+ * starts after it. Subsystems submit from their constructors and only wait (with await) when
+ * something right after depends on the result. Robot calls awaitAll() once every subsystem
+ * exists, which waits out the deadline at most, reports each device's latency and the total, and
+ * shuts the pool down. A device still running then is reported on its own when it finishes.
+ *
+ * Only a device's final failure is reported, once, so a flaky device can't flood the console.
+ * submit, await and awaitAll are for the main thread; only the applies run on the pool.
+ */
+public final class DeviceConfigurator {
+  private static final long TIMEOUT_NANOS = (long) (ConfigConstants.TIMEOUT_SECONDS * 1e9);
+
+  private static final class Result {
+    private final String device;
+    private final boolean succeeded;
+    private final int attempts;
+    private final long latencyNanos;
+    private final long finishNanos;
+
+    private Result(
+        String device, boolean succeeded, int attempts, long latencyNanos, long finishNanos) {
+      this.device = device;
+      this.succeeded = succeeded;
+      this.attempts = attempts;
+      this.latencyNanos = latencyNanos;
+      this.finishNanos = finishNanos;
+    }
+  }
+
+  private static ExecutorService executor;
+  private static long startNanos = 0;
+  private static long deadlineNanos = 0;
+  private static final ArrayList<String> pendingDevices = new ArrayList<String>();
+  private static final ArrayList<CompletableFuture<?>> pending =
+      new ArrayList<CompletableFuture<?>>();
+  // Written by the pool threads as devices finish; reported is set once awaitAll has taken them
+  private static final Object resultsLock = new Object();
+  private static final ArrayList<Result> results = new ArrayList<Result>();
+  private static boolean reported = false;
+
+  private static Telemetry.DoubleEntry totalEntry;
+  private static Telemetry.StringArrayEntry devicesEntry;
+  private static Telemetry.DoubleArrayEntry latencyEntry;
+  private static Telemetry.BooleanArrayEntry succeededEntry;
+  private static Telemetry.IntegerArrayEntry attemptsEntry;
+
+  private DeviceConfigurator() {}
+
+  /**
+   * Starts configuring one device. apply is called until it returns ok, up to MAX_CONFIG_RETRIES
+   * times, and its last result completes the future (null if it only ever threw). Works for any
+   * vendor's status type, e.g. {@code submit("Stage1", () -> m_motor.configure(...), kOk)}.
+   */
+  public static <E> CompletableFuture<E> submit(String device, Supplier<E> apply, E ok) {
+    if (executor == null) {
+      executor =
+          Executors.newFixedThreadPool(
+              ConfigConstants.THREADS,
+              runnable -> {
+                Thread thread = new Thread(runnable, "DeviceConfigurator");
+                thread.setDaemon(true);
+                return thread;
+              });
+    }
+    if (pending.isEmpty()) {
+      startNanos = System.nanoTime();
+      deadlineNanos = startNanos + TIMEOUT_NANOS;
+      synchronized (resultsLock) {
+        reported = false;
+      }
+    }
+    long deadline = deadlineNanos;
+    CompletableFuture<E> future =
+        CompletableFuture.supplyAsync(() -> configure(device, apply, ok, deadline), executor);
+    pendingDevices.add(device);
+    pending.add(future);
+    return future;
+  }
+
+  private static <E> E configure(String device, Supplier<E> apply, E ok, long deadline) {
+    long start = System.nanoTime();
+    long backoffNanos = (long) (ConfigConstants.INITIAL_BACKOFF_SECONDS * 1e9);
+    E result = null;
+    String error = "";
+    int attempts = 0;
+    while (true) {
+      attempts++;
+      try {
+        result = apply.get();
+        error = String.valueOf(result);
+      } catch (RuntimeException e) {
+        error = e.toString();
+      }
+      if (ok.equals(result)) {
+        break;
+      }
+      if (attempts >= Constants.MAX_CONFIG_RETRIES
+          || System.nanoTime() + backoffNanos >= deadline) {
+        DriverStation.reportError(
+            "Error configuring " + device + " after " + attempts + " tries: " + error, false);
+        break;
+      }
+      try {
+        TimeUnit.NANOSECONDS.sleep(backoffNanos);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        break;
+      }
+      backoffNanos *= 2;
+    }
+    long finish = System.nanoTime();
+    Result done = new Result(device, ok.equals(result), attempts, finish - start, finish);
+    boolean late;
+    synchronized (resultsLock) {
+      late = reported;
+      if (!late) {
+        results.add(done);
+      }
+    }
+    if (late) {
+      System.out.printf(
+          "Configured %s %.0f ms after the timeout%s%n",
+          device, (finish - deadline) / 1e6, done.succeeded ? "" : " (failed)");
+    }
+    return result;
+  }
+
+  /**
+   * Waits for the given configurations, until the shared deadline at most. Returns false if any
+   * were still running when it passed.
+   */
+  public static boolean await(CompletableFuture<?>... futures) {
+    try {
+      CompletableFuture.allOf(futures)
+          .get(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+      return true;
+    } catch (TimeoutException e) {
+      return false;
+    } catch (ExecutionException e) {
+      return true; // configure() doesn't throw, so this can't happen
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
+    }
+  }
+
+  /**
+   * Waits for everything submitted so far, then reports how long each device took, and the whole
+   * batch, to the console and under Config/. Called once by Robot after every subsystem exists.
+   */
+  public static void awaitAll() {
+    if (pending.isEmpty()) {
+      return;
+    }
+    boolean allDone = await(pending.toArray(new CompletableFuture<?>[0]));
+    // Anything still running finishes on its own and reports itself; no new work is taken
+    executor.shutdown();
+    executor = null;
+
+    Result[] finished;
+    synchronized (resultsLock) {
+      reported = true;
+      finished = results.toArray(new Result[0]);
+      results.clear();
+    }
+
+    for (int i = 0; i < pending.size(); i++) {
+      if (!pending.get(i).isDone()) {
+        DriverStation.reportError(
+            "Error configuring " + pendingDevices.get(i) + ": timed out", false);
+      }
+    }
+
+    // Until the last device finished, or the deadline if some didn't
+    long endNanos = allDone ? startNanos : deadlineNanos;
+    for (Result result : finished) {
+      endNanos = Math.max(endNanos, result.finishNanos);
+    }
+    double totalMillis = (endNanos - startNanos) / 1e6;
+
+    String[] devices = new String[finished.length];
+    double[] latencyMillis = new double[finished.length];
+    boolean[] succeeded = new boolean[finished.length];
+    long[] attempts = new long[finished.length];
+    StringBuilder summary = new StringBuilder("Configured devices in ");
+    summary.append(String.format("%.0f ms:", totalMillis));
+    for (int i = 0; i < finished.length; i++) {
+      devices[i] = finished[i].device;
+      latencyMillis[i] = finished[i].latencyNanos / 1e6;
+      succeeded[i] = finished[i].succeeded;
+      attempts[i] = finished[i].attempts;
+      summary.append(String.format(" %s %.0f ms", devices[i], latencyMillis[i]));
+      if (!succeeded[i]) {
+        summary.append(" (failed)");
+      }
+    }
+    System.out.println(summary);
+
+    if (totalEntry == null) {
+      totalEntry = Telemetry.addValue("Config/TotalMs", NetworkTableType.kDouble);
+      devicesEntry = Telemetry.addValue("Config/Devices", NetworkTableType.kStringArray);
+      latencyEntry = Telemetry.addValue("Config/LatencyMs", NetworkTableType.kDoubleArray);
+      succeededEntry = Telemetry.addValue("Config/Succeeded", NetworkTableType.kBooleanArray);
+      attemptsEntry = Telemetry.addValue("Config/Attempts", NetworkTableType.kIntegerArray);
+    }
+    totalEntry.set(totalMillis);
+    devicesEntry.set(devices);
+    latencyEntry.set(latencyMillis);
+    succeededEntry.set(succeeded);
+    attemptsEntry.set(attempts);
+
+    pending.clear();
+    pendingDevices.clear();
+  }
+}
@@ -0,0 +1,158 @@
+package frc.robot.utilities;
+
+import edu.wpi.first.networktables.NetworkTableType;
+import edu.wpi.first.wpilibj.DriverStation;
+import frc.robot.Constants.TelemetryConstants;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+/*
+ * One place for recurring warnings and errors, so a problem that happens every loop (a
+ * misconfigured Telemetry entry, a motor that rejects every setControl) can't flood the DS
+ * console or eat the loop budget building strings.
+ *
+ * Callers intern a Key once, ideally into a field, and count() each occurrence. Counting is a
+ * field increment; count() only returns true when the key hasn't been printed for
+ * DIAGNOSTIC_REPORT_INTERVAL_SECONDS, and only then does the caller build the message and emit()
+ * it. Every DIAGNOSTIC_PUBLISH_LOOPS loops, the count of every key is published as one array
+ * under diagnostics/, next to a matching array of key names.
+ */
+public final class Diagnostics {
+  private static final long REPORT_INTERVAL_NANOS =
+      (long) (TelemetryConstants.DIAGNOSTIC_REPORT_INTERVAL_SECONDS * 1e9);
+
+  public enum Severity {
+    WARNING,
+    ERROR
+  }
+
+  /** One kind of message, e.g. a failed setControl on one motor. Get one from {@link #key}. */
+  public static final class Key {
+    private final Severity severity;
+    private final String category;
+    private final String subject;
+    private long count = 0;
+    private long suppressed = 0;
+    private long lastEmitNanos;
+
+    private Key(Severity severity, String category, String subject) {
+      this.severity = severity;
+      this.category = category;
+      this.subject = subject;
+    }
+
+    public long getCount() {
+      return count;
+    }
+
+    private String getLabel() {
+      return subject.isEmpty() ? category : category + " " + subject;
+    }
+  }
+
+  // Interned by category, then subject, so looking a key up again never builds a string
+  private static final HashMap<String, HashMap<String, Key>> keysByCategory =
+      new HashMap<String, HashMap<String, Key>>();
+  private static final ArrayList<Key> keys = new ArrayList<Key>();
+  private static boolean countsChanged = false;
+  private static int loopsSincePublish = 0;
+
+  private static String[] labels = new String[] {};
+  private static long[] counts = new long[] {};
+  private static Telemetry.StringArrayEntry labelsEntry;
+  private static Telemetry.IntegerArrayEntry countsEntry;
+
+  private Diagnostics() {}
+
+  /** Same as {@link #key(Severity, String, String)} for a message with a single subject. */
+  public static Key key(Severity severity, String category) {
+    return key(severity, category, "");
+  }
+
+  /**
+   * Returns the key for this category and subject, creating it the first time. The subject lets
+   * one category be limited separately per thing, e.g. per Telemetry entry name. The severity of
+   * an existing key is kept.
+   */
+  public static Key key(Severity severity, String category, String subject) {
+    HashMap<String, Key> bySubject = keysByCategory.get(category);
+    if (bySubject == null) {
+      bySubject = new HashMap<String, Key>();
+      keysByCategory.put(category, bySubject);
+    }
+    Key key = bySubject.get(subject);
+    if (key == null) {
+      key = new Key(severity, category, subject);
+      bySubject.put(subject, key);
+      keys.add(key);
+    }
+    return key;
+  }
+
+  /**
+   * Counts one occurrence. Returns true if the key is due to be printed, in which case the caller
+   * should build its message and pass it to {@link #emit}; otherwise it's only counted.
+   */
+  public static boolean count(Key key) {
+    key.count++;
+    countsChanged = true;
+    long now = System.nanoTime();
+    if (key.count == 1 || now - key.lastEmitNanos >= REPORT_INTERVAL_NANOS) {
+      key.lastEmitNanos = now;
+      return true;
+    }
+    key.suppressed++;
+    return false;
+  }
+
+  /** Prints a message for a key that count() said was due. */
+  public static void emit(Key key, String message) {
+    if (key.suppressed > 0) {
+      message += " (" + key.suppressed + " more since last report)";
+      key.suppressed = 0;
+    }
+    if (key.severity == Severity.ERROR) {
+      DriverStation.reportError(message, false);
+    } else {
+      DriverStation.reportWarning(message, false);
+    }
+  }
+
+  /** count() and emit() together, for messages that don't need building. */
+  public static void report(Key key, String message) {
+    if (count(key)) {
+      emit(key, message);
+    }
+  }
+
+  /** Called by Telemetry.flush() every loop; publishes the counts when it's time and they moved. */
+  static void publish() {
+    if (++loopsSincePublish < TelemetryConstants.DIAGNOSTIC_PUBLISH_LOOPS || !countsChanged) {
+      return;
+    }
+    loopsSincePublish = 0;
+    countsChanged = false;
+
+    int size = keys.size();
+    if (labelsEntry == null) {
+      labelsEntry = Telemetry.addValue("diagnostics/keys", NetworkTableType.kStringArray);
+      countsEntry = Telemetry.addValue("diagnostics/counts", NetworkTableType.kIntegerArray);
+    }
+    // Names only change when keys are added, so only then is the array rebuilt and republished
+    if (labels.length != size) {
+      labels = Arrays.copyOf(labels, size);
+      counts = new long[size];
+      for (int i = 0; i < size; i++) {
+        if (labels[i] == null) {
+          labels[i] = keys.get(i).getLabel();
+        }
+      }
+      labelsEntry.set(labels);
+    }
+    for (int i = 0; i < size; i++) {
+      counts[i] = keys.get(i).count;
+    }
+    countsEntry.set(counts, size);
+  }
+}
@@ -6,6 +6,7 @@ import static edu.wpi.first.units.Units.Fahrenheit;
 import static edu.wpi.first.units.Units.Volts;
 
 import com.ctre.phoenix6.StatusCode;
+import com.ctre.phoenix6.StatusSignal;
 import com.ctre.phoenix6.hardware.Pigeon2;
 import edu.wpi.first.math.geometry.Rotation3d;
 import edu.wpi.first.networktables.NetworkTableType;
@@ -13,17 +14,20 @@ import edu.wpi.first.units.measure.Angle;
 import edu.wpi.first.units.measure.AngularVelocity;
 import edu.wpi.first.units.measure.Temperature;
 import edu.wpi.first.units.measure.Voltage;
-import edu.wpi.first.wpilibj.DriverStation;
 import edu.wpi.first.wpilibj2.command.SubsystemBase;
 import edu.wpi.first.wpilibj2.command.button.Trigger;
 import frc.robot.Configs;
-import frc.robot.Constants;
 import frc.robot.Constants.SwerveConstants.CAN;
 import frc.robot.Constants.SwerveConstants.GyroConstants;
+import frc.robot.Constants.TelemetryConstants.Policies;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Supplier;
 
 public class Pigeon extends SubsystemBase {
-  private static Pigeon instance = null;
+  // lazily created on first use by the JVM, without locking on every call
+  private static final class Holder {
+    private static final Pigeon INSTANCE = new Pigeon();
+  }
 
   private Pigeon2 pigeon;
   private Supplier<Angle> yawSupplier;
@@ -37,6 +41,17 @@ public class Pigeon extends SubsystemBase {
   private Supplier<Voltage> voltageSupplier;
   private Supplier<Temperature> temperatureSupplier;
 
+  private final Telemetry.DoubleEntry pitchEntry;
+  private final Telemetry.DoubleEntry pitchVelocityEntry;
+  private final Telemetry.DoubleEntry yawEntry;
+  private final Telemetry.DoubleEntry yawVelocityEntry;
+  private final Telemetry.DoubleEntry rollEntry;
+  private final Telemetry.DoubleEntry rollVelocityEntry;
+  private final Telemetry.IntegerEntry faultsEntry;
+  private final Telemetry.IntegerEntry stickyFaultsEntry;
+  private final Telemetry.DoubleEntry supplyVoltageEntry;
+  private final Telemetry.DoubleEntry temperatureEntry;
+
   private Pigeon() {
     pigeon = new Pigeon2(CAN.PIGEON, CAN.DRIVETRAIN_CANBUS);
 
@@ -58,31 +73,26 @@ public class Pigeon extends SubsystemBase {
 
     System.out.println("Pigeon initialized");
 
-    Telemetry.addValue("Pigeon/Pitch", NetworkTableType.kDouble);
-    Telemetry.addValue("Pigeon/PitchVelocity", NetworkTableType.kDouble);
-    Telemetry.addValue("Pigeon/Yaw", NetworkTableType.kDouble);
-    Telemetry.addValue("Pigeon/YawVelocity", NetworkTableType.kDouble);
-    Telemetry.addValue("Pigeon/Roll", NetworkTableType.kDouble);
-    Telemetry.addValue("Pigeon/RollVelocity", NetworkTableType.kDouble);
-    Telemetry.addValue("Pigeon/Faults", NetworkTableType.kInteger);
-    Telemetry.addValue("Pigeon/StickyFaults", NetworkTableType.kInteger);
-    Telemetry.addValue("Pigeon/SupplyVoltage", NetworkTableType.kDouble);
-    Telemetry.addValue("Pigeon/Temperature", NetworkTableType.kDouble);
-  }
-
-  // called automatically in constructor
-  public StatusCode configureAll() {
-    StatusCode status = StatusCode.GeneralError;
-    for (int tries = 0; tries < Constants.MAX_CONFIG_RETRIES; tries++) {
-      status = pigeon.getConfigurator().apply(Configs.Drive.PIGEON_CONFIG);
-
-      if (status == StatusCode.OK) {
-        return status;
-      }
-      DriverStation.reportWarning("Warning: Failure configuring Pigeon: " + status, false);
-    }
-    DriverStation.reportError("Error configuring Pigeon: " + status, false);
-    return status;
+    pitchEntry = Telemetry.addValue("Pigeon/Pitch", NetworkTableType.kDouble);
+    pitchVelocityEntry = Telemetry.addValue("Pigeon/PitchVelocity", NetworkTableType.kDouble);
+    yawEntry = Telemetry.addValue("Pigeon/Yaw", NetworkTableType.kDouble);
+    yawVelocityEntry = Telemetry.addValue("Pigeon/YawVelocity", NetworkTableType.kDouble);
+    rollEntry = Telemetry.addValue("Pigeon/Roll", NetworkTableType.kDouble);
+    rollVelocityEntry = Telemetry.addValue("Pigeon/RollVelocity", NetworkTableType.kDouble);
+    faultsEntry = Telemetry.addValue("Pigeon/Faults", NetworkTableType.kInteger, Policies.FLAG);
+    stickyFaultsEntry =
+        Telemetry.addValue("Pigeon/StickyFaults", NetworkTableType.kInteger, Policies.STICKY_FLAG);
+    supplyVoltageEntry =
+        Telemetry.addValue("Pigeon/SupplyVoltage", NetworkTableType.kDouble, Policies.VOLTAGE);
+    temperatureEntry =
+        Telemetry.addValue(
+            "Pigeon/Temperature", NetworkTableType.kDouble, Policies.TEMPERATURE_FAHRENHEIT);
+  }
+
+  // called automatically in constructor; finishes in the background, see DeviceConfigurator
+  public CompletableFuture<StatusCode> configureAll() {
+    return DeviceConfigurator.submit(
+        "Pigeon", () -> pigeon.getConfigurator().apply(Configs.Drive.PIGEON_CONFIG), StatusCode.OK);
   }
 
   public static Trigger rollZero =
@@ -118,16 +128,18 @@ public class Pigeon extends SubsystemBase {
                   .isNear(DegreesPerSecond.of(0), GyroConstants.GYRO_VELOCITY_TOLERANCE));
 
   private static Pigeon getInstance() {
-    if (instance == null) {
-      instance = new Pigeon();
-    }
-    return instance;
+    return Holder.INSTANCE;
   }
 
   public static Supplier<Angle> getYawSupplier() {
     return getInstance().yawSupplier;
   }
 
+  /** A copy of the yaw signal, for a thread that waits on and refreshes it by itself. */
+  public static StatusSignal<Angle> getYawSignal() {
+    return getInstance().pigeon.getYaw().clone();
+  }
+
   public static Supplier<AngularVelocity> getYawVelocitySupplier() {
     return getInstance().yawVelocitySupplier;
   }
@@ -175,16 +187,16 @@ public class Pigeon extends SubsystemBase {
   @Override
   public void periodic() {
     // This method will be called once per scheduler run
-    Telemetry.setValue("Pigeon/Pitch", pitchSupplier.get().in(Degrees));
-    Telemetry.setValue("Pigeon/PitchVelocity", pitchVelocitySupplier.get().in(DegreesPerSecond));
-    Telemetry.setValue("Pigeon/Yaw", yawSupplier.get().in(Degrees));
-    Telemetry.setValue("Pigeon/YawVelocity", yawVelocitySupplier.get().in(DegreesPerSecond));
-    Telemetry.setValue("Pigeon/Roll", rollSupplier.get().in(Degrees));
-    Telemetry.setValue("Pigeon/RollVelocity", rollVelocitySupplier.get().in(DegreesPerSecond));
-    Telemetry.setValue("Pigeon/Faults", faultsSupplier.get());
-    Telemetry.setValue("Pigeon/StickyFaults", stickyFaultsSupplier.get());
-    Telemetry.setValue("Pigeon/SupplyVoltage", voltageSupplier.get().in(Volts));
-    Telemetry.setValue("Pigeon/Temperature", temperatureSupplier.get().in(Fahrenheit));
+    pitchEntry.set(pitchSupplier.get().in(Degrees));
+    pitchVelocityEntry.set(pitchVelocitySupplier.get().in(DegreesPerSecond));
+    yawEntry.set(yawSupplier.get().in(Degrees));
+    yawVelocityEntry.set(yawVelocitySupplier.get().in(DegreesPerSecond));
+    rollEntry.set(rollSupplier.get().in(Degrees));
+    rollVelocityEntry.set(rollVelocitySupplier.get().in(DegreesPerSecond));
+    faultsEntry.set(faultsSupplier.get());
+    stickyFaultsEntry.set(stickyFaultsSupplier.get());
+    supplyVoltageEntry.set(voltageSupplier.get().in(Volts));
+    temperatureEntry.set(temperatureSupplier.get().in(Fahrenheit));
   }
 
   @Override
@@ -7,30 +7,73 @@ import edu.wpi.first.wpilibj.PowerDistribution;
 import edu.wpi.first.wpilibj.PowerDistribution.ModuleType;
 import edu.wpi.first.wpilibj2.command.SubsystemBase;
 import frc.robot.Constants.PowerConstants;
+import frc.robot.Constants.TelemetryConstants.Policies;
+import java.util.Arrays;
 
 public class Power extends SubsystemBase {
-  private static Power powerInstance = null;
+  // lazily created on first use by the JVM, without locking on every call
+  private static final class Holder {
+    private static final Power INSTANCE = new Power();
+  }
+
+  public static final int FAULT_COUNT = 27;
+  public static final int STICKY_FAULT_COUNT = 30;
 
   private PowerDistribution m_pdh;
 
+  // Reused every loop so periodic() doesn't allocate new fault arrays
+  private final boolean[] m_faults = new boolean[FAULT_COUNT];
+  private final boolean[] m_stickyFaults = new boolean[STICKY_FAULT_COUNT];
+
+  private final Telemetry.DoubleEntry m_voltageEntry;
+  private final Telemetry.DoubleEntry m_totalCurrentEntry;
+  private final Telemetry.DoubleArrayEntry m_currentArrayEntry;
+  private final Telemetry.BooleanEntry m_switchableChannelEntry;
+  private final Telemetry.FlagsEntry m_faultsEntry;
+  private final Telemetry.BooleanEntry m_hasFaultEntry;
+  private final Telemetry.FlagsEntry m_stickyFaultsEntry;
+  private final Telemetry.BooleanEntry m_hasStickyFaultEntry;
+
   private Power() {
     m_pdh = new PowerDistribution(PowerConstants.CAN.PDH, ModuleType.kRev);
 
-    Telemetry.addValue("Power/Voltage", NetworkTableType.kDouble);
-    Telemetry.addValue("Power/TotalCurrent", NetworkTableType.kDouble);
-    Telemetry.addValue("Power/CurrentArray", NetworkTableType.kDoubleArray);
-    Telemetry.addValue("Power/SwitchableChannel", NetworkTableType.kBoolean);
-    Telemetry.addValue("Power/Faults", NetworkTableType.kBooleanArray);
-    Telemetry.addValue("Power/HasFault", NetworkTableType.kBoolean);
-    Telemetry.addValue("Power/StickyFaults", NetworkTableType.kBooleanArray);
-    Telemetry.addValue("Power/HasStickyFault", NetworkTableType.kBoolean);
+    m_voltageEntry =
+        Telemetry.addValue("Power/Voltage", NetworkTableType.kDouble, Policies.VOLTAGE);
+    m_totalCurrentEntry =
+        Telemetry.addValue("Power/TotalCurrent", NetworkTableType.kDouble, Policies.CURRENT);
+    m_currentArrayEntry =
+        Telemetry.addValue("Power/CurrentArray", NetworkTableType.kDoubleArray, Policies.SLOW);
+    m_switchableChannelEntry =
+        Telemetry.addValue("Power/SwitchableChannel", NetworkTableType.kBoolean, Policies.FLAG);
+    // Each fault set travels as one integer, bit i being index i of getFaults()/getStickyFaults()
+    m_faultsEntry =
+        Telemetry.addFlagsValue("Power/Faults", faultNames(FAULT_COUNT), Policies.FAULT_ARRAY);
+    m_hasFaultEntry =
+        Telemetry.addValue("Power/HasFault", NetworkTableType.kBoolean, Policies.FLAG);
+    m_stickyFaultsEntry =
+        Telemetry.addFlagsValue(
+            "Power/StickyFaults", faultNames(STICKY_FAULT_COUNT), Policies.FAULT_ARRAY);
+    m_hasStickyFaultEntry =
+        Telemetry.addValue("Power/HasStickyFault", NetworkTableType.kBoolean, Policies.STICKY_FLAG);
+  }
+
+  /** Names for the first count indexes of a fault array, in the order getStickyFaults() fills. */
+  private static String[] faultNames(int count) {
+    String[] names = new String[STICKY_FAULT_COUNT];
+    names[0] = "Brownout";
+    names[1] = "CanWarning";
+    names[2] = "HardwareFault";
+    for (int channel = 0; channel < 24; channel++) {
+      names[3 + channel] = "Channel" + channel + "BreakerFault";
+    }
+    names[27] = "FirmwareFault";
+    names[28] = "CanBusOff";
+    names[29] = "HasReset";
+    return Arrays.copyOf(names, count);
   }
 
-  private static synchronized Power getInstance() {
-    if (powerInstance == null) {
-      powerInstance = new Power();
-    }
-    return powerInstance;
+  private static Power getInstance() {
+    return Holder.INSTANCE;
   }
 
   public static double getVoltage() {
@@ -66,8 +109,12 @@ public class Power extends SubsystemBase {
   }
 
   public static boolean[] getFaults() {
+    return getFaults(new boolean[FAULT_COUNT]);
+  }
+
+  /** Fills faultArray (at least FAULT_COUNT long) with the current faults and returns it. */
+  public static boolean[] getFaults(boolean[] faultArray) {
     PowerDistributionFaults faults = getInstance().m_pdh.getFaults();
-    boolean[] faultArray = new boolean[27];
     faultArray[0] = faults.Brownout;
     faultArray[1] = faults.CanWarning;
     faultArray[2] = faults.HardwareFault;
@@ -99,12 +146,7 @@ public class Power extends SubsystemBase {
   }
 
   public static boolean hasFault() {
-    for (boolean fault : getFaults()) {
-      if (fault) {
-        return true;
-      }
-    }
-    return false;
+    return anyTrue(getFaults());
   }
 
   public static void clearStickyFaults() {
@@ -112,8 +154,12 @@ public class Power extends SubsystemBase {
   }
 
   public static boolean[] getStickyFaults() {
+    return getStickyFaults(new boolean[STICKY_FAULT_COUNT]);
+  }
+
+  /** Fills faultArray (at least STICKY_FAULT_COUNT long) with the sticky faults and returns it. */
+  public static boolean[] getStickyFaults(boolean[] faultArray) {
     PowerDistributionStickyFaults faults = getInstance().m_pdh.getStickyFaults();
-    boolean[] faultArray = new boolean[30];
     faultArray[0] = faults.Brownout;
     faultArray[1] = faults.CanWarning;
     faultArray[2] = faults.HardwareFault;
@@ -148,7 +194,11 @@ public class Power extends SubsystemBase {
   }
 
   public static boolean hasStickyFault() {
-    for (boolean fault : getStickyFaults()) {
+    return anyTrue(getStickyFaults());
+  }
+
+  private static boolean anyTrue(boolean[] faults) {
+    for (boolean fault : faults) {
       if (fault) {
         return true;
       }
@@ -158,13 +208,16 @@ public class Power extends SubsystemBase {
 
   @Override
   public void periodic() {
-    Telemetry.setValue("Power/Voltage", getVoltage());
-    Telemetry.setValue("Power/TotalCurrent", getCurrent());
-    Telemetry.setValue("Power/CurrentArray", getAllCurrents());
-    Telemetry.setValue("Power/SwitchableChannel", getSwitchableChannel());
-    Telemetry.setValue("Power/Faults", getFaults());
-    Telemetry.setValue("Power/HasFault", hasFault());
-    Telemetry.setValue("Power/StickyFaults", getStickyFaults());
-    Telemetry.setValue("Power/HasStickyFault", hasStickyFault());
+    m_voltageEntry.set(getVoltage());
+    m_totalCurrentEntry.set(getCurrent());
+    m_currentArrayEntry.set(getAllCurrents());
+    m_switchableChannelEntry.set(getSwitchableChannel());
+    // Read each fault set once into the preallocated buffers
+    m_faultsEntry.set(getFaults(m_faults), FAULT_COUNT);
+    m_faultsEntry.publish();
+    m_hasFaultEntry.set(m_faultsEntry.getBits() != 0);
+    m_stickyFaultsEntry.set(getStickyFaults(m_stickyFaults), STICKY_FAULT_COUNT);
+    m_stickyFaultsEntry.publish();
+    m_hasStickyFaultEntry.set(m_stickyFaultsEntry.getBits() != 0);
   }
 }
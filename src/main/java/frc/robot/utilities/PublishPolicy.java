@@ -0,0 +1,113 @@
+package frc.robot.utilities;
+
+import edu.wpi.first.wpilibj.TimedRobot;
+import frc.robot.Constants.TelemetryConstants;
+
+/**
+ * Decides when a Telemetry entry actually publishes. Entries created without a policy publish
+ * every set(); entries with one only publish when the value changed (by more than the deadband for
+ * doubles and floats), or when the heartbeat says the last publish is getting stale.
+ *
+ * <p>A policy can also put an entry on a slower rate tier, so it only publishes every Nth loop.
+ * Telemetry staggers entries on the same tier across loops so they don't all land on one cycle.
+ *
+ * <p>Policies are immutable, so the with*() methods return a copy and one policy can be shared by
+ * any number of entries, e.g. {@code PublishPolicy.onChange().withAbsoluteDeadband(0.5)}
+ */
+public final class PublishPolicy {
+  private final boolean onChange;
+  private final double absoluteDeadband;
+  private final double relativeDeadband;
+  private final long heartbeatNanos;
+  private final int ratePeriod;
+
+  private PublishPolicy(
+      boolean onChange,
+      double absoluteDeadband,
+      double relativeDeadband,
+      long heartbeatNanos,
+      int ratePeriod) {
+    this.onChange = onChange;
+    this.absoluteDeadband = absoluteDeadband;
+    this.relativeDeadband = relativeDeadband;
+    this.heartbeatNanos = heartbeatNanos;
+    this.ratePeriod = ratePeriod;
+  }
+
+  /** Publish every set(). Only useful combined with a rate tier. */
+  public static PublishPolicy always() {
+    return new PublishPolicy(false, 0, 0, 0, 1);
+  }
+
+  /** Publish only when the value changes, plus the default heartbeat. */
+  public static PublishPolicy onChange() {
+    return new PublishPolicy(true, 0, 0, toNanos(TelemetryConstants.DEFAULT_HEARTBEAT_SECONDS), 1);
+  }
+
+  /** Ignore changes smaller than this, in the entry's own units. */
+  public PublishPolicy withAbsoluteDeadband(double deadband) {
+    return new PublishPolicy(
+        onChange, Math.abs(deadband), relativeDeadband, heartbeatNanos, ratePeriod);
+  }
+
+  /** Ignore changes smaller than this fraction of the last published value, e.g. 0.01 for 1%. */
+  public PublishPolicy withRelativeDeadband(double fraction) {
+    return new PublishPolicy(
+        onChange, absoluteDeadband, Math.abs(fraction), heartbeatNanos, ratePeriod);
+  }
+
+  /** Republish an unchanged value once it is this old. Zero or less turns the heartbeat off. */
+  public PublishPolicy withHeartbeat(double seconds) {
+    return new PublishPolicy(
+        onChange, absoluteDeadband, relativeDeadband, toNanos(seconds), ratePeriod);
+  }
+
+  /** Only publish on every Nth loop. 1 (the default) publishes every loop. */
+  public PublishPolicy withRate(int everyNLoops) {
+    return new PublishPolicy(
+        onChange, absoluteDeadband, relativeDeadband, heartbeatNanos, Math.max(1, everyNLoops));
+  }
+
+  /** Same as {@link #withRate(int)}, rounded from a target rate against the default loop time. */
+  public PublishPolicy withFrequency(double hertz) {
+    return withRate((int) Math.round(1.0 / (hertz * TimedRobot.kDefaultPeriod)));
+  }
+
+  public boolean isOnChange() {
+    return onChange;
+  }
+
+  public double getAbsoluteDeadband() {
+    return absoluteDeadband;
+  }
+
+  public double getRelativeDeadband() {
+    return relativeDeadband;
+  }
+
+  public boolean hasHeartbeat() {
+    return onChange && heartbeatNanos > 0;
+  }
+
+  public int getRatePeriod() {
+    return ratePeriod;
+  }
+
+  /** True if value has moved far enough from the last published value to be worth sending. */
+  boolean exceedsDeadband(double lastValue, double value) {
+    double delta = Math.abs(value - lastValue);
+    if (Double.isNaN(delta)) {
+      // NaN or infinities on one side; only publish if it's actually different
+      return Double.compare(lastValue, value) != 0;
+    }
+    return delta > Math.max(absoluteDeadband, relativeDeadband * Math.abs(lastValue));
+  }
+
+  boolean isHeartbeatDue(long lastPublishNanos, long nowNanos) {
+    return heartbeatNanos > 0 && nowNanos - lastPublishNanos >= heartbeatNanos;
+  }
+
+  private static long toNanos(double seconds) {
+    return seconds > 0 ? (long) (seconds * 1e9) : 0;
+  }
+}
@@ -7,14 +7,33 @@
  * This is great for simple telemetry, where all you need is to add, set, and get values
  * It's basically NT3 but on NT4
  *
+ * addValue and addReadableValue return a typed handle (DoubleEntry, BooleanEntry, ...). Keep the
+ * handle as a field and call set() on it from periodic() to skip the name lookup entirely; the
+ * String based setValue/getValue/subscribe calls below are a thin layer over the same handles.
+ *
+ * To react to values set elsewhere (e.g. from the dashboard), watch() a topic instead of polling
+ * it; queued updates are applied once per loop by readUpdates().
+ *
  */
 
 package frc.robot.utilities;
 
 import edu.wpi.first.networktables.*;
+import edu.wpi.first.util.datalog.*;
 import edu.wpi.first.util.function.FloatSupplier;
+import edu.wpi.first.util.struct.Struct;
+import edu.wpi.first.wpilibj.DataLogManager;
 import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.TimedRobot;
 import frc.robot.Constants.TelemetryConstants;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.function.BooleanSupplier;
 import java.util.function.DoubleSupplier;
@@ -22,1352 +41,3459 @@ import java.util.function.LongSupplier;
 import java.util.function.Supplier;
 
 public class Telemetry {
-  private static Telemetry telemetryInstance = null;
-
-  private class TelemetryItem {
-    public Publisher publisher;
-    public boolean isReadable = false;
-    public Subscriber subscriber;
-    public NetworkTableType type;
-
-    public TelemetryItem(
-        Publisher publisher, Subscriber subscriber, boolean readable, NetworkTableType type) {
-      this.publisher = publisher;
-      this.subscriber = subscriber;
-      this.isReadable = readable;
+  // Holder idiom: the JVM initializes Holder (and the singleton) on first use, so
+  // getTelemetry() is a plain static field read instead of a synchronized call
+  private static final class Holder {
+    private static final Telemetry INSTANCE = new Telemetry();
+  }
+
+  /** Base type for the handles returned by {@link #addValue} and {@link #addReadableValue}. */
+  public abstract static class Entry {
+    private final String name;
+    private final NetworkTableType type;
+
+    // Set by register(); the index is this entry's slot in the staging buffers
+    Telemetry owner;
+    int index;
+
+    // Null means publish on every set()
+    PublishPolicy policy;
+    private long lastPublishNanos;
+    // Rate tier: only publish on loops where loopCount % ratePeriod == ratePhase
+    private int ratePeriod = 1;
+    private int ratePhase = 0;
+    // Set for entries created through a TelemetryNamespace, which can disable or slow them down
+    TelemetryNamespace namespace;
+
+    // DataLog mirror: mirrored is true when the log entry exists and this entry is enabled
+    boolean mirrored = false;
+    private boolean dataLogEnabled = true;
+
+    // Idle reaper: written is set by isDue() and cleared by each sweep; 0 sweeps never closes
+    private boolean written = true;
+    private int idleSweeps = 0;
+    private int idleSweepLimit = 0;
+    private boolean closed = false;
+
+    private Entry(String name, NetworkTableType type) {
+      this.name = name;
       this.type = type;
     }
 
-    public void subscribe(Subscriber subscriber) {
-      this.subscriber = subscriber;
-      isReadable = true;
+    public String getName() {
+      return name;
     }
-  }
-
-  private NetworkTableInstance ntInstance = NetworkTableInstance.getDefault();
-  private NetworkTable telemetryTable = ntInstance.getTable(TelemetryConstants.ROOT_NAME);
-  private HashMap<String, TelemetryItem> entries = new HashMap<String, TelemetryItem>();
 
-  private Telemetry() {
-    System.out.println(
-        "Telemetry singleton instantiated, writing to /" + TelemetryConstants.ROOT_NAME + "/");
-  }
-
-  private static synchronized Telemetry getTelemetry() {
-    if (telemetryInstance == null) {
-      telemetryInstance = new Telemetry();
-
-      // we can't call getTelemetry() in the constructor, so we have to add these values here
-      addReadableValue("diagnostics/telemetry/warningCount", NetworkTableType.kInteger);
+    public NetworkTableType getType() {
+      return type;
     }
 
-    return telemetryInstance;
-  }
-
-  public static void startSimulationServer() {
-    getTelemetry().ntInstance.startServer();
-  }
-
-  private static void incrementWarningCounter() {
-    setValue(
-        "diagnostics/telemetry/warningCount",
-        1 + (int) getValue("diagnostics/telemetry/warningCount", 0));
-  }
+    /** The type string the topic is published with, e.g. "double" or "struct:Pose2d". */
+    String getTypeString() {
+      return type.getValueStr();
+    }
 
-  public static int getWarningCount() {
-    return (int) getValue("diagnostics/telemetry/warningCount", 0);
-  }
+    public abstract boolean isReadable();
 
-  public static void clearWarningCount() {
-    setValue("diagnostics/telemetry/warningCount", 0);
-  }
-
-  public static void addValue(String name, NetworkTableType type, PubSubOption... options) {
-    Telemetry table = getTelemetry();
-    Topic top;
-    Publisher pub;
-    switch (type) {
-      case kBoolean:
-        top = table.telemetryTable.getBooleanTopic(name);
-        pub = ((BooleanTopic) top).publish(options);
-        ((BooleanPublisher) pub).set(false);
-        break;
-      case kBooleanArray:
-        top = table.telemetryTable.getBooleanArrayTopic(name);
-        pub = ((BooleanArrayTopic) top).publish(options);
-        ((BooleanArrayPublisher) pub).set(new boolean[] {});
-        break;
-      case kDouble:
-        top = table.telemetryTable.getDoubleTopic(name);
-        pub = ((DoubleTopic) top).publish(options);
-        ((DoublePublisher) pub).set(0);
-        break;
-      case kDoubleArray:
-        top = table.telemetryTable.getDoubleArrayTopic(name);
-        pub = ((DoubleArrayTopic) top).publish(options);
-        ((DoubleArrayPublisher) pub).set(new double[] {});
-        break;
-      case kFloat:
-        top = table.telemetryTable.getFloatTopic(name);
-        pub = ((FloatTopic) top).publish(options);
-        ((FloatPublisher) pub).set(0);
-        break;
-      case kFloatArray:
-        top = table.telemetryTable.getFloatArrayTopic(name);
-        pub = ((FloatArrayTopic) top).publish(options);
-        ((FloatArrayPublisher) pub).set(new float[] {});
-        break;
-      case kInteger:
-        top = table.telemetryTable.getIntegerTopic(name);
-        pub = ((IntegerTopic) top).publish(options);
-        ((IntegerPublisher) pub).set(0);
-        break;
-      case kIntegerArray:
-        top = table.telemetryTable.getIntegerArrayTopic(name);
-        pub = ((IntegerArrayTopic) top).publish(options);
-        ((IntegerArrayPublisher) pub).set(new long[] {});
-        break;
-      case kRaw:
-        top = table.telemetryTable.getRawTopic(name);
-        pub = ((RawTopic) top).publish(type.getValueStr(), options);
-        ((RawPublisher) pub).set(new byte[] {});
-        break;
-      case kString:
-        top = table.telemetryTable.getStringTopic(name);
-        pub = ((StringTopic) top).publish(options);
-        ((StringPublisher) pub).set("");
-        break;
-      case kStringArray:
-        top = table.telemetryTable.getStringArrayTopic(name);
-        pub = ((StringArrayTopic) top).publish(options);
-        ((StringArrayPublisher) pub).set(new String[] {});
-        break;
-      case kUnassigned:
-      default:
-        DriverStation.reportWarning(
-            "Telemetry: invalid type " + type.getValueStr() + " for entry " + name, false);
-        incrementWarningCounter();
-        return;
-    }
-    table.entries.put(name, table.new TelemetryItem(pub, null, false, type));
-  }
-
-  public static void addReadableValue(String name, NetworkTableType type, PubSubOption... options) {
-    Telemetry table = getTelemetry();
-    Topic top;
-    Publisher pub;
-    Subscriber sub;
-    switch (type) {
-      case kBoolean:
-        top = table.telemetryTable.getBooleanTopic(name);
-        pub = ((BooleanTopic) top).publish(options);
-        sub = ((BooleanTopic) top).subscribe(false, options);
-        ((BooleanPublisher) pub).set(false);
-        break;
-      case kBooleanArray:
-        top = table.telemetryTable.getBooleanArrayTopic(name);
-        pub = ((BooleanArrayTopic) top).publish(options);
-        sub = ((BooleanArrayTopic) top).subscribe(new boolean[] {}, options);
-        ((BooleanArrayPublisher) pub).set(new boolean[] {});
-        break;
-      case kDouble:
-        top = table.telemetryTable.getDoubleTopic(name);
-        pub = ((DoubleTopic) top).publish(options);
-        sub = ((DoubleTopic) top).subscribe(0, options);
-        ((DoublePublisher) pub).set(0);
-        break;
-      case kDoubleArray:
-        top = table.telemetryTable.getDoubleArrayTopic(name);
-        pub = ((DoubleArrayTopic) top).publish(options);
-        sub = ((DoubleArrayTopic) top).subscribe(new double[] {}, options);
-        ((DoubleArrayPublisher) pub).set(new double[] {});
-        break;
-      case kFloat:
-        top = table.telemetryTable.getFloatTopic(name);
-        pub = ((FloatTopic) top).publish(options);
-        sub = ((FloatTopic) top).subscribe(0, options);
-        ((FloatPublisher) pub).set(0);
-        break;
-      case kFloatArray:
-        top = table.telemetryTable.getFloatArrayTopic(name);
-        pub = ((FloatArrayTopic) top).publish(options);
-        sub = ((FloatArrayTopic) top).subscribe(new float[] {}, options);
-        ((FloatArrayPublisher) pub).set(new float[] {});
-        break;
-      case kInteger:
-        top = table.telemetryTable.getIntegerTopic(name);
-        pub = ((IntegerTopic) top).publish(options);
-        sub = ((IntegerTopic) top).subscribe(0, options);
-        ((IntegerPublisher) pub).set(0);
-        break;
-      case kIntegerArray:
-        top = table.telemetryTable.getIntegerArrayTopic(name);
-        pub = ((IntegerArrayTopic) top).publish(options);
-        sub = ((IntegerArrayTopic) top).subscribe(new long[] {}, options);
-        ((IntegerArrayPublisher) pub).set(new long[] {});
-        break;
-      case kRaw:
-        top = table.telemetryTable.getRawTopic(name);
-        pub = ((RawTopic) top).publish(type.getValueStr(), options);
-        sub = ((RawTopic) top).subscribe(type.getValueStr(), new byte[] {}, options);
-        ((RawPublisher) pub).set(new byte[] {});
-        break;
-      case kString:
-        top = table.telemetryTable.getStringTopic(name);
-        pub = ((StringTopic) top).publish(options);
-        sub = ((StringTopic) top).subscribe("", options);
-        ((StringPublisher) pub).set("");
-        break;
-      case kStringArray:
-        top = table.telemetryTable.getStringArrayTopic(name);
-        pub = ((StringArrayTopic) top).publish(options);
-        sub = ((StringArrayTopic) top).subscribe(new String[] {}, options);
-        ((StringArrayPublisher) pub).set(new String[] {});
-        break;
-      case kUnassigned:
-      default:
-        DriverStation.reportWarning(
-            "Telemetry: invalid type " + type.getValueStr() + " for entry " + name, false);
-        incrementWarningCounter();
-        return;
+    /** Subscribes if the entry isn't readable yet. False for entries that can't be read back. */
+    boolean makeReadable() {
+      return isReadable();
     }
-    table.entries.put(name, table.new TelemetryItem(pub, sub, true, type));
-  }
 
-  public static void setValue(String name, boolean value) {
-    Telemetry table = getTelemetry();
-    if (!table.entries.containsKey(name)) {
-      DriverStation.reportWarning(
-          "Telemetry: entry " + name + " does not exist, creating with type boolean", false);
-      incrementWarningCounter();
-      addValue(name, NetworkTableType.kBoolean);
+    /**
+     * Includes or leaves out this entry when Telemetry is mirrored to the DataLog. Everything is
+     * included by default; turn off chatty entries to keep log files small.
+     */
+    public void setDataLogEnabled(boolean enabled) {
+      dataLogEnabled = enabled;
+      if (enabled && owner.dataLog != null) {
+        createLogEntry(owner.dataLog, owner.getLogName(name));
+      }
+      mirrored = enabled && owner.dataLog != null;
     }
-    TelemetryItem item = table.entries.get(name);
-    if (item.type == NetworkTableType.kBoolean) {
-      ((BooleanPublisher) item.publisher).set(value);
-    } else {
-      DriverStation.reportWarning(
-          "Telemetry: type mismatch during get "
-              + name
-              + ": expected boolean, got "
-              + item.type.getValueStr(),
-          false);
-      incrementWarningCounter();
+
+    public boolean isDataLogEnabled() {
+      return dataLogEnabled;
     }
-  }
 
-  public static void setValue(String name, boolean[] value) {
-    Telemetry table = getTelemetry();
-    if (!table.entries.containsKey(name)) {
-      DriverStation.reportWarning(
-          "Telemetry: entry " + name + " does not exist, creating with type boolean[]", false);
-      incrementWarningCounter();
-      addValue(name, NetworkTableType.kBooleanArray);
+    /**
+     * Closes this entry once it has gone this long without a set(), e.g. for a temporary debug
+     * value. 0, the default, never closes it. Entries created implicitly by setValue() on an
+     * unknown name start with IMPLICIT_IDLE_TIMEOUT_SECONDS, also 0 unless it's changed.
+     */
+    public void setIdleTimeout(double seconds) {
+      double sweepSeconds = TelemetryConstants.IDLE_SWEEP_LOOPS * TimedRobot.kDefaultPeriod;
+      idleSweepLimit = seconds > 0 ? Math.max(1, (int) Math.ceil(seconds / sweepSeconds)) : 0;
+      idleSweeps = 0;
+      written = true;
+      if (idleSweepLimit > 0 && policy == null) {
+        // Writes are only noticed in isDue(), which set() only calls when there's a policy
+        policy = PublishPolicy.always();
+      }
     }
-    TelemetryItem item = table.entries.get(name);
-    if (item.type == NetworkTableType.kBooleanArray) {
-      ((BooleanArrayPublisher) item.publisher).set(value);
-    } else {
-      DriverStation.reportWarning(
-          "Telemetry: type mismatch during get "
-              + name
-              + ": expected boolean[], got "
-              + item.type.getValueStr(),
-          false);
-      incrementWarningCounter();
+
+    /**
+     * Unpublishes the topic, closes the publisher, subscriber and DataLog entry, and frees the
+     * name and slot for reuse. set() on a closed handle does nothing; add the name again to get a
+     * new one.
+     */
+    public void close() {
+      owner.release(this);
     }
-  }
 
-  public static void setValue(String name, double value) {
-    Telemetry table = getTelemetry();
-    if (!table.entries.containsKey(name)) {
-      DriverStation.reportWarning(
-          "Telemetry: entry " + name + " does not exist, creating with type double", false);
-      incrementWarningCounter();
-      addValue(name, NetworkTableType.kDouble);
+    public boolean isClosed() {
+      return closed;
     }
-    TelemetryItem item = table.entries.get(name);
-    if (item.type == NetworkTableType.kDouble) {
-      ((DoublePublisher) item.publisher).set(value);
-    } else {
-      DriverStation.reportWarning(
-          "Telemetry: type mismatch during get "
-              + name
-              + ": expected double, got "
-              + item.type.getValueStr(),
-          false);
-      incrementWarningCounter();
+
+    /**
+     * True if this loop is one of the entry's rate tier slots, its namespace is enabled and it
+     * hasn't been closed. Every set() on an entry with a policy comes through here, so this is
+     * also where writes are noticed for the idle reaper.
+     */
+    boolean isDue() {
+      written = true;
+      if (closed) {
+        return false;
+      }
+      int period = ratePeriod;
+      int phase = ratePhase;
+      if (namespace != null) {
+        if (!namespace.enabled) {
+          return false;
+        }
+        // A slower namespace tier wins; spread its entries over the loops by slot
+        if (namespace.ratePeriod > period) {
+          period = namespace.ratePeriod;
+          phase = index % period;
+        }
+      }
+      return period == 1 || owner.loopCount % period == phase;
     }
-  }
 
-  public static void setValue(String name, Double value) {
-    setValue(name, value.doubleValue());
+    /** Applies the policy: publish if the value changed, or if the heartbeat is due anyway. */
+    boolean shouldPublish(boolean changed) {
+      long now = System.nanoTime();
+      if (changed || policy.isHeartbeatDue(lastPublishNanos, now)) {
+        lastPublishNanos = now;
+        return true;
+      }
+      return false;
+    }
+
+    /** Publishes the value staged for this entry, stamped with the given time. */
+    abstract int publishStaged(long time);
+
+    /** Creates the typed DataLog entry this handle appends to, if it doesn't have one yet. */
+    abstract void createLogEntry(DataLog log, String logName);
+
+    /** Closes the NT publisher and subscriber and finishes the DataLog entry. */
+    abstract void closeHandles();
   }
 
-  public static void setValue(String name, double[] value) {
-    Telemetry table = getTelemetry();
-    if (!table.entries.containsKey(name)) {
-      DriverStation.reportWarning(
-          "Telemetry: entry " + name + " does not exist, creating with type double[]", false);
-      incrementWarningCounter();
-      addValue(name, NetworkTableType.kDoubleArray);
-    }
-    TelemetryItem item = table.entries.get(name);
-    if (item.type == NetworkTableType.kDoubleArray) {
-      ((DoubleArrayPublisher) item.publisher).set(value);
-    } else {
-      DriverStation.reportWarning(
-          "Telemetry: type mismatch during get "
-              + name
-              + ": expected double[], got "
-              + item.type.getValueStr(),
-          false);
-      incrementWarningCounter();
+  /** Handle for a boolean entry. */
+  public static final class BooleanEntry extends Entry {
+    private final BooleanPublisher publisher;
+    private BooleanSubscriber subscriber;
+    private BooleanLogEntry logEntry;
+    private boolean lastValue = false;
+
+    private BooleanEntry(
+        String name, BooleanTopic topic, boolean readable, PubSubOption... options) {
+      super(name, NetworkTableType.kBoolean);
+      publisher = topic.publish(options);
+      if (readable) {
+        subscriber = topic.subscribe(false, options);
+      }
+      publisher.set(false);
+    }
+
+    public void set(boolean value) {
+      if (policy != null) {
+        if (!isDue()) {
+          return;
+        }
+        if (policy.isOnChange()) {
+          if (!shouldPublish(value != lastValue)) {
+            return;
+          }
+          lastValue = value;
+        }
+      }
+      if (owner.staging) {
+        owner.stageLong(index, value ? 1 : 0);
+      } else {
+        TelemetryProfiler profiler = owner.profiler;
+        long start = profiler != null ? System.nanoTime() : 0;
+        publisher.set(value);
+        owner.logNow(index, TelemetryLogger.BOOLEAN, value ? 1 : 0);
+        if (mirrored) {
+          logEntry.append(value);
+        }
+        if (profiler != null) {
+          profiler.record(index, System.nanoTime() - start, 1);
+        }
+      }
+    }
+
+    public boolean get(boolean defaultValue) {
+      return subscribe(defaultValue).get(defaultValue);
+    }
+
+    private BooleanSubscriber subscribe(boolean defaultValue) {
+      if (subscriber == null) {
+        subscriber = publisher.getTopic().subscribe(defaultValue);
+      }
+      return subscriber;
+    }
+
+    @Override
+    public boolean isReadable() {
+      return subscriber != null;
+    }
+
+    @Override
+    boolean makeReadable() {
+      subscribe(false);
+      return true;
+    }
+
+    @Override
+    int publishStaged(long time) {
+      boolean value = owner.stagedLongs[index] != 0;
+      publisher.set(value, time);
+      owner.log(index, TelemetryLogger.BOOLEAN, value ? 1 : 0, time);
+      if (mirrored) {
+        logEntry.append(value, time);
+      }
+      return 1;
+    }
+
+    @Override
+    void createLogEntry(DataLog log, String logName) {
+      if (logEntry == null) {
+        logEntry = new BooleanLogEntry(log, logName);
+      }
+    }
+
+    @Override
+    void closeHandles() {
+      publisher.close();
+      if (subscriber != null) {
+        subscriber.close();
+      }
+      if (logEntry != null) {
+        logEntry.finish();
+      }
     }
   }
 
-  public static void setValue(String name, Double[] value) {
-    double[] doubleValue = new double[value.length];
-    for (int i = 0; i < value.length; i++) {
-      doubleValue[i] = value[i].doubleValue();
+  /** Handle for a boolean[] entry. */
+  public static final class BooleanArrayEntry extends Entry {
+    private final BooleanArrayPublisher publisher;
+    private BooleanArraySubscriber subscriber;
+    private BooleanArrayLogEntry logEntry;
+    private boolean[] lastValue = new boolean[] {};
+    private boolean[] scratch = new boolean[] {};
+
+    private BooleanArrayEntry(
+        String name, BooleanArrayTopic topic, boolean readable, PubSubOption... options) {
+      super(name, NetworkTableType.kBooleanArray);
+      publisher = topic.publish(options);
+      if (readable) {
+        subscriber = topic.subscribe(new boolean[] {}, options);
+      }
+      publisher.set(new boolean[] {});
+    }
+
+    public void set(boolean[] value) {
+      if (policy != null) {
+        if (!isDue()) {
+          return;
+        }
+        if (policy.isOnChange()) {
+          if (!shouldPublish(!Arrays.equals(lastValue, value))) {
+            return;
+          }
+          if (lastValue.length != value.length) {
+            lastValue = new boolean[value.length];
+          }
+          System.arraycopy(value, 0, lastValue, 0, value.length);
+        }
+      }
+      if (owner.staging) {
+        if (value != scratch) {
+          // Published at flush(), by which time the caller may have refilled its array
+          System.arraycopy(value, 0, buffer(value.length), 0, value.length);
+          value = scratch;
+        }
+        owner.stageObject(index, value);
+      } else {
+        TelemetryProfiler profiler = owner.profiler;
+        long start = profiler != null ? System.nanoTime() : 0;
+        publisher.set(value);
+        if (mirrored) {
+          logEntry.append(value);
+        }
+        if (profiler != null) {
+          profiler.record(index, System.nanoTime() - start, value.length);
+        }
+      }
+    }
+
+    /**
+     * Publishes the first length elements of buffer. They are copied into an array owned by this
+     * entry, so the caller can keep reusing one buffer without allocating every loop.
+     */
+    public void set(boolean[] buffer, int length) {
+      boolean[] value = buffer(length);
+      System.arraycopy(buffer, 0, value, 0, length);
+      set(value);
+    }
+
+    /** This entry's reusable array of the given length; only reallocated if the length changes. */
+    boolean[] buffer(int length) {
+      if (scratch.length != length) {
+        scratch = new boolean[length];
+      }
+      return scratch;
+    }
+
+    public boolean[] get(boolean[] defaultValue) {
+      return subscribe(defaultValue).get(defaultValue);
+    }
+
+    private BooleanArraySubscriber subscribe(boolean[] defaultValue) {
+      if (subscriber == null) {
+        subscriber = publisher.getTopic().subscribe(defaultValue);
+      }
+      return subscriber;
+    }
+
+    @Override
+    public boolean isReadable() {
+      return subscriber != null;
+    }
+
+    @Override
+    boolean makeReadable() {
+      subscribe(new boolean[] {});
+      return true;
+    }
+
+    @Override
+    int publishStaged(long time) {
+      boolean[] value = (boolean[]) owner.stagedObjects[index];
+      owner.stagedObjects[index] = null;
+      publisher.set(value, time);
+      if (mirrored) {
+        logEntry.append(value, time);
+      }
+      return value.length;
+    }
+
+    @Override
+    void createLogEntry(DataLog log, String logName) {
+      if (logEntry == null) {
+        logEntry = new BooleanArrayLogEntry(log, logName);
+      }
+    }
+
+    @Override
+    void closeHandles() {
+      publisher.close();
+      if (subscriber != null) {
+        subscriber.close();
+      }
+      if (logEntry != null) {
+        logEntry.finish();
+      }
     }
-    setValue(name, doubleValue);
   }
 
-  public static void setValue(String name, float value) {
-    Telemetry table = getTelemetry();
-    if (!table.entries.containsKey(name)) {
-      DriverStation.reportWarning(
-          "Telemetry: entry " + name + " does not exist, creating with type float", false);
-      incrementWarningCounter();
-      addValue(name, NetworkTableType.kFloat);
-    }
-    TelemetryItem item = table.entries.get(name);
-    if (item.type == NetworkTableType.kFloat) {
-      ((FloatPublisher) item.publisher).set(value);
-    } else {
-      DriverStation.reportWarning(
-          "Telemetry: type mismatch during get "
-              + name
-              + ": expected float, got "
-              + item.type.getValueStr(),
-          false);
-      incrementWarningCounter();
+  /** Handle for a double entry. */
+  public static final class DoubleEntry extends Entry {
+    private final DoublePublisher publisher;
+    private DoubleSubscriber subscriber;
+    private DoubleLogEntry logEntry;
+    private double lastValue = 0;
+
+    private DoubleEntry(String name, DoubleTopic topic, boolean readable, PubSubOption... options) {
+      super(name, NetworkTableType.kDouble);
+      publisher = topic.publish(options);
+      if (readable) {
+        subscriber = topic.subscribe(0, options);
+      }
+      publisher.set(0);
+    }
+
+    public void set(double value) {
+      if (policy != null) {
+        if (!isDue()) {
+          return;
+        }
+        if (policy.isOnChange()) {
+          if (!shouldPublish(policy.exceedsDeadband(lastValue, value))) {
+            return;
+          }
+          lastValue = value;
+        }
+      }
+      if (owner.staging) {
+        owner.stageDouble(index, value);
+      } else {
+        TelemetryProfiler profiler = owner.profiler;
+        long start = profiler != null ? System.nanoTime() : 0;
+        publisher.set(value);
+        owner.logNow(index, TelemetryLogger.DOUBLE, Double.doubleToRawLongBits(value));
+        if (mirrored) {
+          logEntry.append(value);
+        }
+        if (profiler != null) {
+          profiler.record(index, System.nanoTime() - start, 8);
+        }
+      }
+    }
+
+    public double get(double defaultValue) {
+      return subscribe(defaultValue).get(defaultValue);
+    }
+
+    private DoubleSubscriber subscribe(double defaultValue) {
+      if (subscriber == null) {
+        subscriber = publisher.getTopic().subscribe(defaultValue);
+      }
+      return subscriber;
+    }
+
+    @Override
+    public boolean isReadable() {
+      return subscriber != null;
+    }
+
+    @Override
+    boolean makeReadable() {
+      subscribe(0);
+      return true;
+    }
+
+    @Override
+    int publishStaged(long time) {
+      double value = owner.stagedDoubles[index];
+      publisher.set(value, time);
+      owner.log(index, TelemetryLogger.DOUBLE, Double.doubleToRawLongBits(value), time);
+      if (mirrored) {
+        logEntry.append(value, time);
+      }
+      return 8;
+    }
+
+    @Override
+    void createLogEntry(DataLog log, String logName) {
+      if (logEntry == null) {
+        logEntry = new DoubleLogEntry(log, logName);
+      }
+    }
+
+    @Override
+    void closeHandles() {
+      publisher.close();
+      if (subscriber != null) {
+        subscriber.close();
+      }
+      if (logEntry != null) {
+        logEntry.finish();
+      }
     }
   }
 
-  public static void setValue(String name, Float value) {
-    setValue(name, value.floatValue());
+  /** Handle for a double[] entry. */
+  public static final class DoubleArrayEntry extends Entry {
+    private final DoubleArrayPublisher publisher;
+    private DoubleArraySubscriber subscriber;
+    private DoubleArrayLogEntry logEntry;
+    private double[] lastValue = new double[] {};
+    private double[] scratch = new double[] {};
+
+    private DoubleArrayEntry(
+        String name, DoubleArrayTopic topic, boolean readable, PubSubOption... options) {
+      super(name, NetworkTableType.kDoubleArray);
+      publisher = topic.publish(options);
+      if (readable) {
+        subscriber = topic.subscribe(new double[] {}, options);
+      }
+      publisher.set(new double[] {});
+    }
+
+    public void set(double[] value) {
+      if (policy != null) {
+        if (!isDue()) {
+          return;
+        }
+        if (policy.isOnChange()) {
+          if (!shouldPublish(!Arrays.equals(lastValue, value))) {
+            return;
+          }
+          if (lastValue.length != value.length) {
+            lastValue = new double[value.length];
+          }
+          System.arraycopy(value, 0, lastValue, 0, value.length);
+        }
+      }
+      if (owner.staging) {
+        if (value != scratch) {
+          // Published at flush(), by which time the caller may have refilled its array
+          System.arraycopy(value, 0, buffer(value.length), 0, value.length);
+          value = scratch;
+        }
+        owner.stageObject(index, value);
+      } else {
+        TelemetryProfiler profiler = owner.profiler;
+        long start = profiler != null ? System.nanoTime() : 0;
+        publisher.set(value);
+        if (mirrored) {
+          logEntry.append(value);
+        }
+        if (profiler != null) {
+          profiler.record(index, System.nanoTime() - start, 8 * value.length);
+        }
+      }
+    }
+
+    /**
+     * Publishes the first length elements of buffer. They are copied into an array owned by this
+     * entry, so the caller can keep reusing one buffer without allocating every loop.
+     */
+    public void set(double[] buffer, int length) {
+      double[] value = buffer(length);
+      System.arraycopy(buffer, 0, value, 0, length);
+      set(value);
+    }
+
+    /** This entry's reusable array of the given length; only reallocated if the length changes. */
+    double[] buffer(int length) {
+      if (scratch.length != length) {
+        scratch = new double[length];
+      }
+      return scratch;
+    }
+
+    public double[] get(double[] defaultValue) {
+      return subscribe(defaultValue).get(defaultValue);
+    }
+
+    private DoubleArraySubscriber subscribe(double[] defaultValue) {
+      if (subscriber == null) {
+        subscriber = publisher.getTopic().subscribe(defaultValue);
+      }
+      return subscriber;
+    }
+
+    @Override
+    public boolean isReadable() {
+      return subscriber != null;
+    }
+
+    @Override
+    boolean makeReadable() {
+      subscribe(new double[] {});
+      return true;
+    }
+
+    @Override
+    int publishStaged(long time) {
+      double[] value = (double[]) owner.stagedObjects[index];
+      owner.stagedObjects[index] = null;
+      publisher.set(value, time);
+      if (mirrored) {
+        logEntry.append(value, time);
+      }
+      return 8 * value.length;
+    }
+
+    @Override
+    void createLogEntry(DataLog log, String logName) {
+      if (logEntry == null) {
+        logEntry = new DoubleArrayLogEntry(log, logName);
+      }
+    }
+
+    @Override
+    void closeHandles() {
+      publisher.close();
+      if (subscriber != null) {
+        subscriber.close();
+      }
+      if (logEntry != null) {
+        logEntry.finish();
+      }
+    }
   }
 
-  public static void setValue(String name, float[] value) {
-    Telemetry table = getTelemetry();
-    if (!table.entries.containsKey(name)) {
-      DriverStation.reportWarning(
-          "Telemetry: entry " + name + " does not exist, creating with type float[]", false);
-      incrementWarningCounter();
-      addValue(name, NetworkTableType.kFloatArray);
-    }
-    TelemetryItem item = table.entries.get(name);
-    if (item.type == NetworkTableType.kFloatArray) {
-      ((FloatArrayPublisher) item.publisher).set(value);
-    } else {
-      DriverStation.reportWarning(
-          "Telemetry: type mismatch during get "
-              + name
-              + ": expected float[], got "
-              + item.type.getValueStr(),
-          false);
-      incrementWarningCounter();
+  /** Handle for a float entry. */
+  public static final class FloatEntry extends Entry {
+    private final FloatPublisher publisher;
+    private FloatSubscriber subscriber;
+    private FloatLogEntry logEntry;
+    private float lastValue = 0;
+
+    private FloatEntry(String name, FloatTopic topic, boolean readable, PubSubOption... options) {
+      super(name, NetworkTableType.kFloat);
+      publisher = topic.publish(options);
+      if (readable) {
+        subscriber = topic.subscribe(0, options);
+      }
+      publisher.set(0);
+    }
+
+    public void set(float value) {
+      if (policy != null) {
+        if (!isDue()) {
+          return;
+        }
+        if (policy.isOnChange()) {
+          if (!shouldPublish(policy.exceedsDeadband(lastValue, value))) {
+            return;
+          }
+          lastValue = value;
+        }
+      }
+      if (owner.staging) {
+        owner.stageDouble(index, value);
+      } else {
+        TelemetryProfiler profiler = owner.profiler;
+        long start = profiler != null ? System.nanoTime() : 0;
+        publisher.set(value);
+        owner.logNow(index, TelemetryLogger.DOUBLE, Double.doubleToRawLongBits(value));
+        if (mirrored) {
+          logEntry.append(value);
+        }
+        if (profiler != null) {
+          profiler.record(index, System.nanoTime() - start, 4);
+        }
+      }
+    }
+
+    public float get(float defaultValue) {
+      return subscribe(defaultValue).get(defaultValue);
+    }
+
+    private FloatSubscriber subscribe(float defaultValue) {
+      if (subscriber == null) {
+        subscriber = publisher.getTopic().subscribe(defaultValue);
+      }
+      return subscriber;
+    }
+
+    @Override
+    public boolean isReadable() {
+      return subscriber != null;
+    }
+
+    @Override
+    boolean makeReadable() {
+      subscribe(0);
+      return true;
+    }
+
+    @Override
+    int publishStaged(long time) {
+      float value = (float) owner.stagedDoubles[index];
+      publisher.set(value, time);
+      owner.log(index, TelemetryLogger.DOUBLE, Double.doubleToRawLongBits(value), time);
+      if (mirrored) {
+        logEntry.append(value, time);
+      }
+      return 4;
+    }
+
+    @Override
+    void createLogEntry(DataLog log, String logName) {
+      if (logEntry == null) {
+        logEntry = new FloatLogEntry(log, logName);
+      }
+    }
+
+    @Override
+    void closeHandles() {
+      publisher.close();
+      if (subscriber != null) {
+        subscriber.close();
+      }
+      if (logEntry != null) {
+        logEntry.finish();
+      }
     }
   }
 
-  public static void setValue(String name, Float[] value) {
-    float[] floatValue = new float[value.length];
-    for (int i = 0; i < value.length; i++) {
-      floatValue[i] = value[i].floatValue();
+  /** Handle for a float[] entry. */
+  public static final class FloatArrayEntry extends Entry {
+    private final FloatArrayPublisher publisher;
+    private FloatArraySubscriber subscriber;
+    private FloatArrayLogEntry logEntry;
+    private float[] lastValue = new float[] {};
+    private float[] scratch = new float[] {};
+
+    private FloatArrayEntry(
+        String name, FloatArrayTopic topic, boolean readable, PubSubOption... options) {
+      super(name, NetworkTableType.kFloatArray);
+      publisher = topic.publish(options);
+      if (readable) {
+        subscriber = topic.subscribe(new float[] {}, options);
+      }
+      publisher.set(new float[] {});
+    }
+
+    public void set(float[] value) {
+      if (policy != null) {
+        if (!isDue()) {
+          return;
+        }
+        if (policy.isOnChange()) {
+          if (!shouldPublish(!Arrays.equals(lastValue, value))) {
+            return;
+          }
+          if (lastValue.length != value.length) {
+            lastValue = new float[value.length];
+          }
+          System.arraycopy(value, 0, lastValue, 0, value.length);
+        }
+      }
+      if (owner.staging) {
+        if (value != scratch) {
+          // Published at flush(), by which time the caller may have refilled its array
+          System.arraycopy(value, 0, buffer(value.length), 0, value.length);
+          value = scratch;
+        }
+        owner.stageObject(index, value);
+      } else {
+        TelemetryProfiler profiler = owner.profiler;
+        long start = profiler != null ? System.nanoTime() : 0;
+        publisher.set(value);
+        if (mirrored) {
+          logEntry.append(value);
+        }
+        if (profiler != null) {
+          profiler.record(index, System.nanoTime() - start, 4 * value.length);
+        }
+      }
+    }
+
+    /**
+     * Publishes the first length elements of buffer. They are copied into an array owned by this
+     * entry, so the caller can keep reusing one buffer without allocating every loop.
+     */
+    public void set(float[] buffer, int length) {
+      float[] value = buffer(length);
+      System.arraycopy(buffer, 0, value, 0, length);
+      set(value);
+    }
+
+    /** This entry's reusable array of the given length; only reallocated if the length changes. */
+    float[] buffer(int length) {
+      if (scratch.length != length) {
+        scratch = new float[length];
+      }
+      return scratch;
+    }
+
+    public float[] get(float[] defaultValue) {
+      return subscribe(defaultValue).get(defaultValue);
+    }
+
+    private FloatArraySubscriber subscribe(float[] defaultValue) {
+      if (subscriber == null) {
+        subscriber = publisher.getTopic().subscribe(defaultValue);
+      }
+      return subscriber;
+    }
+
+    @Override
+    public boolean isReadable() {
+      return subscriber != null;
+    }
+
+    @Override
+    boolean makeReadable() {
+      subscribe(new float[] {});
+      return true;
+    }
+
+    @Override
+    int publishStaged(long time) {
+      float[] value = (float[]) owner.stagedObjects[index];
+      owner.stagedObjects[index] = null;
+      publisher.set(value, time);
+      if (mirrored) {
+        logEntry.append(value, time);
+      }
+      return 4 * value.length;
+    }
+
+    @Override
+    void createLogEntry(DataLog log, String logName) {
+      if (logEntry == null) {
+        logEntry = new FloatArrayLogEntry(log, logName);
+      }
+    }
+
+    @Override
+    void closeHandles() {
+      publisher.close();
+      if (subscriber != null) {
+        subscriber.close();
+      }
+      if (logEntry != null) {
+        logEntry.finish();
+      }
     }
-    setValue(name, floatValue);
   }
 
-  public static void setValue(String name, int value) {
-    Telemetry table = getTelemetry();
-    if (!table.entries.containsKey(name)) {
-      DriverStation.reportWarning(
-          "Telemetry: entry " + name + " does not exist, creating with type int", false);
-      incrementWarningCounter();
-      addValue(name, NetworkTableType.kInteger);
-    }
-    TelemetryItem item = table.entries.get(name);
-    if (item.type == NetworkTableType.kInteger) {
-      ((IntegerPublisher) item.publisher).set(value);
-    } else {
-      DriverStation.reportWarning(
-          "Telemetry: type mismatch during get "
-              + name
-              + ": expected int, got "
-              + item.type.getValueStr(),
-          false);
-      incrementWarningCounter();
+  /** Handle for a int entry. */
+  public static final class IntegerEntry extends Entry {
+    private final IntegerPublisher publisher;
+    private IntegerSubscriber subscriber;
+    private IntegerLogEntry logEntry;
+    private long lastValue = 0;
+
+    private IntegerEntry(
+        String name, IntegerTopic topic, boolean readable, PubSubOption... options) {
+      super(name, NetworkTableType.kInteger);
+      publisher = topic.publish(options);
+      if (readable) {
+        subscriber = topic.subscribe(0, options);
+      }
+      publisher.set(0);
+    }
+
+    public void set(long value) {
+      if (policy != null) {
+        if (!isDue()) {
+          return;
+        }
+        if (policy.isOnChange()) {
+          if (!shouldPublish(value != lastValue)) {
+            return;
+          }
+          lastValue = value;
+        }
+      }
+      if (owner.staging) {
+        owner.stageLong(index, value);
+      } else {
+        TelemetryProfiler profiler = owner.profiler;
+        long start = profiler != null ? System.nanoTime() : 0;
+        publisher.set(value);
+        owner.logNow(index, TelemetryLogger.INTEGER, value);
+        if (mirrored) {
+          logEntry.append(value);
+        }
+        if (profiler != null) {
+          profiler.record(index, System.nanoTime() - start, 8);
+        }
+      }
+    }
+
+    public long get(long defaultValue) {
+      return subscribe(defaultValue).get(defaultValue);
+    }
+
+    private IntegerSubscriber subscribe(long defaultValue) {
+      if (subscriber == null) {
+        subscriber = publisher.getTopic().subscribe(defaultValue);
+      }
+      return subscriber;
+    }
+
+    @Override
+    public boolean isReadable() {
+      return subscriber != null;
+    }
+
+    @Override
+    boolean makeReadable() {
+      subscribe(0);
+      return true;
+    }
+
+    @Override
+    int publishStaged(long time) {
+      long value = owner.stagedLongs[index];
+      publisher.set(value, time);
+      owner.log(index, TelemetryLogger.INTEGER, value, time);
+      if (mirrored) {
+        logEntry.append(value, time);
+      }
+      return 8;
+    }
+
+    @Override
+    void createLogEntry(DataLog log, String logName) {
+      if (logEntry == null) {
+        logEntry = new IntegerLogEntry(log, logName);
+      }
+    }
+
+    @Override
+    void closeHandles() {
+      publisher.close();
+      if (subscriber != null) {
+        subscriber.close();
+      }
+      if (logEntry != null) {
+        logEntry.finish();
+      }
     }
   }
 
-  public static void setValue(String name, Integer value) {
-    setValue(name, value.intValue());
+  /** Handle for a int[] entry. */
+  public static final class IntegerArrayEntry extends Entry {
+    private final IntegerArrayPublisher publisher;
+    private IntegerArraySubscriber subscriber;
+    private IntegerArrayLogEntry logEntry;
+    private long[] lastValue = new long[] {};
+    private long[] scratch = new long[] {};
+
+    private IntegerArrayEntry(
+        String name, IntegerArrayTopic topic, boolean readable, PubSubOption... options) {
+      super(name, NetworkTableType.kIntegerArray);
+      publisher = topic.publish(options);
+      if (readable) {
+        subscriber = topic.subscribe(new long[] {}, options);
+      }
+      publisher.set(new long[] {});
+    }
+
+    public void set(long[] value) {
+      if (policy != null) {
+        if (!isDue()) {
+          return;
+        }
+        if (policy.isOnChange()) {
+          if (!shouldPublish(!Arrays.equals(lastValue, value))) {
+            return;
+          }
+          if (lastValue.length != value.length) {
+            lastValue = new long[value.length];
+          }
+          System.arraycopy(value, 0, lastValue, 0, value.length);
+        }
+      }
+      if (owner.staging) {
+        if (value != scratch) {
+          // Published at flush(), by which time the caller may have refilled its array
+          System.arraycopy(value, 0, buffer(value.length), 0, value.length);
+          value = scratch;
+        }
+        owner.stageObject(index, value);
+      } else {
+        TelemetryProfiler profiler = owner.profiler;
+        long start = profiler != null ? System.nanoTime() : 0;
+        publisher.set(value);
+        if (mirrored) {
+          logEntry.append(value);
+        }
+        if (profiler != null) {
+          profiler.record(index, System.nanoTime() - start, 8 * value.length);
+        }
+      }
+    }
+
+    /**
+     * Publishes the first length elements of buffer. They are copied into an array owned by this
+     * entry, so the caller can keep reusing one buffer without allocating every loop.
+     */
+    public void set(long[] buffer, int length) {
+      long[] value = buffer(length);
+      System.arraycopy(buffer, 0, value, 0, length);
+      set(value);
+    }
+
+    /** This entry's reusable array of the given length; only reallocated if the length changes. */
+    long[] buffer(int length) {
+      if (scratch.length != length) {
+        scratch = new long[length];
+      }
+      return scratch;
+    }
+
+    public long[] get(long[] defaultValue) {
+      return subscribe(defaultValue).get(defaultValue);
+    }
+
+    private IntegerArraySubscriber subscribe(long[] defaultValue) {
+      if (subscriber == null) {
+        subscriber = publisher.getTopic().subscribe(defaultValue);
+      }
+      return subscriber;
+    }
+
+    @Override
+    public boolean isReadable() {
+      return subscriber != null;
+    }
+
+    @Override
+    boolean makeReadable() {
+      subscribe(new long[] {});
+      return true;
+    }
+
+    @Override
+    int publishStaged(long time) {
+      long[] value = (long[]) owner.stagedObjects[index];
+      owner.stagedObjects[index] = null;
+      publisher.set(value, time);
+      if (mirrored) {
+        logEntry.append(value, time);
+      }
+      return 8 * value.length;
+    }
+
+    @Override
+    void createLogEntry(DataLog log, String logName) {
+      if (logEntry == null) {
+        logEntry = new IntegerArrayLogEntry(log, logName);
+      }
+    }
+
+    @Override
+    void closeHandles() {
+      publisher.close();
+      if (subscriber != null) {
+        subscriber.close();
+      }
+      if (logEntry != null) {
+        logEntry.finish();
+      }
+    }
   }
 
-  public static void setValue(String name, long[] value) {
-    Telemetry table = getTelemetry();
-    if (!table.entries.containsKey(name)) {
-      DriverStation.reportWarning(
-          "Telemetry: entry " + name + " does not exist, creating with type int[]", false);
-      incrementWarningCounter();
-      addValue(name, NetworkTableType.kIntegerArray);
-    }
-    TelemetryItem item = table.entries.get(name);
-    if (item.type == NetworkTableType.kIntegerArray) {
-      ((IntegerArrayPublisher) item.publisher).set(value);
-    } else {
-      DriverStation.reportWarning(
-          "Telemetry: type mismatch during get "
-              + name
-              + ": expected int[], got "
-              + item.type.getValueStr(),
-          false);
-      incrementWarningCounter();
+  /** Handle for a byte[] entry. */
+  public static final class RawEntry extends Entry {
+    private final RawPublisher publisher;
+    private RawSubscriber subscriber;
+    private RawLogEntry logEntry;
+    private byte[] lastValue = new byte[] {};
+    private byte[] scratch = new byte[] {};
+
+    private RawEntry(String name, RawTopic topic, boolean readable, PubSubOption... options) {
+      super(name, NetworkTableType.kRaw);
+      publisher = topic.publish(NetworkTableType.kRaw.getValueStr(), options);
+      if (readable) {
+        subscriber = topic.subscribe(NetworkTableType.kRaw.getValueStr(), new byte[] {}, options);
+      }
+      publisher.set(new byte[] {});
+    }
+
+    public void set(byte[] value) {
+      if (policy != null) {
+        if (!isDue()) {
+          return;
+        }
+        if (policy.isOnChange()) {
+          if (!shouldPublish(!Arrays.equals(lastValue, value))) {
+            return;
+          }
+          if (lastValue.length != value.length) {
+            lastValue = new byte[value.length];
+          }
+          System.arraycopy(value, 0, lastValue, 0, value.length);
+        }
+      }
+      if (owner.staging) {
+        if (value != scratch) {
+          // Published at flush(), by which time the caller may have refilled its array
+          System.arraycopy(value, 0, buffer(value.length), 0, value.length);
+          value = scratch;
+        }
+        owner.stageObject(index, value);
+      } else {
+        TelemetryProfiler profiler = owner.profiler;
+        long start = profiler != null ? System.nanoTime() : 0;
+        publisher.set(value);
+        if (mirrored) {
+          logEntry.append(value);
+        }
+        if (profiler != null) {
+          profiler.record(index, System.nanoTime() - start, value.length);
+        }
+      }
+    }
+
+    /**
+     * Publishes the first length elements of buffer. They are copied into an array owned by this
+     * entry, so the caller can keep reusing one buffer without allocating every loop.
+     */
+    public void set(byte[] buffer, int length) {
+      byte[] value = buffer(length);
+      System.arraycopy(buffer, 0, value, 0, length);
+      set(value);
+    }
+
+    /** This entry's reusable array of the given length; only reallocated if the length changes. */
+    byte[] buffer(int length) {
+      if (scratch.length != length) {
+        scratch = new byte[length];
+      }
+      return scratch;
+    }
+
+    public byte[] get(byte[] defaultValue) {
+      return subscribe(defaultValue, NetworkTableType.kRaw.getValueStr()).get(defaultValue);
+    }
+
+    private RawSubscriber subscribe(byte[] defaultValue, String typeString) {
+      if (subscriber == null) {
+        subscriber = publisher.getTopic().subscribe(typeString, defaultValue);
+      }
+      return subscriber;
+    }
+
+    @Override
+    public boolean isReadable() {
+      return subscriber != null;
+    }
+
+    @Override
+    boolean makeReadable() {
+      subscribe(new byte[] {}, NetworkTableType.kRaw.getValueStr());
+      return true;
+    }
+
+    @Override
+    int publishStaged(long time) {
+      byte[] value = (byte[]) owner.stagedObjects[index];
+      owner.stagedObjects[index] = null;
+      publisher.set(value, time);
+      if (mirrored) {
+        logEntry.append(value, time);
+      }
+      return value.length;
+    }
+
+    @Override
+    void createLogEntry(DataLog log, String logName) {
+      if (logEntry == null) {
+        logEntry = new RawLogEntry(log, logName);
+      }
+    }
+
+    @Override
+    void closeHandles() {
+      publisher.close();
+      if (subscriber != null) {
+        subscriber.close();
+      }
+      if (logEntry != null) {
+        logEntry.finish();
+      }
     }
   }
 
-  public static void setValue(String name, Long[] value) {
-    long[] longValue = new long[value.length];
-    for (int i = 0; i < value.length; i++) {
-      longValue[i] = value[i].longValue();
+  /** Handle for a String entry. */
+  public static final class StringEntry extends Entry {
+    private final StringPublisher publisher;
+    private StringSubscriber subscriber;
+    private StringLogEntry logEntry;
+    private String lastValue = "";
+
+    private StringEntry(String name, StringTopic topic, boolean readable, PubSubOption... options) {
+      super(name, NetworkTableType.kString);
+      publisher = topic.publish(options);
+      if (readable) {
+        subscriber = topic.subscribe("", options);
+      }
+      publisher.set("");
+    }
+
+    public void set(String value) {
+      if (policy != null) {
+        if (!isDue()) {
+          return;
+        }
+        if (policy.isOnChange()) {
+          if (!shouldPublish(!value.equals(lastValue))) {
+            return;
+          }
+          lastValue = value;
+        }
+      }
+      if (owner.staging) {
+        owner.stageObject(index, value);
+      } else {
+        TelemetryProfiler profiler = owner.profiler;
+        long start = profiler != null ? System.nanoTime() : 0;
+        publisher.set(value);
+        if (mirrored) {
+          logEntry.append(value);
+        }
+        if (profiler != null) {
+          profiler.record(index, System.nanoTime() - start, value.length());
+        }
+      }
+    }
+
+    public String get(String defaultValue) {
+      return subscribe(defaultValue).get(defaultValue);
+    }
+
+    private StringSubscriber subscribe(String defaultValue) {
+      if (subscriber == null) {
+        subscriber = publisher.getTopic().subscribe(defaultValue);
+      }
+      return subscriber;
+    }
+
+    @Override
+    public boolean isReadable() {
+      return subscriber != null;
+    }
+
+    @Override
+    boolean makeReadable() {
+      subscribe("");
+      return true;
+    }
+
+    @Override
+    int publishStaged(long time) {
+      String value = (String) owner.stagedObjects[index];
+      owner.stagedObjects[index] = null;
+      publisher.set(value, time);
+      if (mirrored) {
+        logEntry.append(value, time);
+      }
+      return value.length();
+    }
+
+    @Override
+    void createLogEntry(DataLog log, String logName) {
+      if (logEntry == null) {
+        logEntry = new StringLogEntry(log, logName);
+      }
+    }
+
+    @Override
+    void closeHandles() {
+      publisher.close();
+      if (subscriber != null) {
+        subscriber.close();
+      }
+      if (logEntry != null) {
+        logEntry.finish();
+      }
     }
-    setValue(name, longValue);
   }
 
-  public static void setValue(String name, String value) {
-    Telemetry table = getTelemetry();
-    if (!table.entries.containsKey(name)) {
-      DriverStation.reportWarning(
-          "Telemetry: entry " + name + " does not exist, creating with type String", false);
-      incrementWarningCounter();
-      addValue(name, NetworkTableType.kString);
-    }
-    TelemetryItem item = table.entries.get(name);
-    if (item.type == NetworkTableType.kString) {
-      ((StringPublisher) item.publisher).set(value);
-    } else {
-      DriverStation.reportWarning(
-          "Telemetry: type mismatch during get "
-              + name
-              + ": expected String, got "
-              + item.type.getValueStr(),
-          false);
-      incrementWarningCounter();
+  /** Handle for a String[] entry. */
+  public static final class StringArrayEntry extends Entry {
+    private final StringArrayPublisher publisher;
+    private StringArraySubscriber subscriber;
+    private StringArrayLogEntry logEntry;
+    private String[] lastValue = new String[] {};
+    private String[] scratch = new String[] {};
+
+    private StringArrayEntry(
+        String name, StringArrayTopic topic, boolean readable, PubSubOption... options) {
+      super(name, NetworkTableType.kStringArray);
+      publisher = topic.publish(options);
+      if (readable) {
+        subscriber = topic.subscribe(new String[] {}, options);
+      }
+      publisher.set(new String[] {});
+    }
+
+    public void set(String[] value) {
+      if (policy != null) {
+        if (!isDue()) {
+          return;
+        }
+        if (policy.isOnChange()) {
+          if (!shouldPublish(!Arrays.equals(lastValue, value))) {
+            return;
+          }
+          if (lastValue.length != value.length) {
+            lastValue = new String[value.length];
+          }
+          System.arraycopy(value, 0, lastValue, 0, value.length);
+        }
+      }
+      if (owner.staging) {
+        if (value != scratch) {
+          // Published at flush(), by which time the caller may have refilled its array
+          System.arraycopy(value, 0, buffer(value.length), 0, value.length);
+          value = scratch;
+        }
+        owner.stageObject(index, value);
+      } else {
+        TelemetryProfiler profiler = owner.profiler;
+        long start = profiler != null ? System.nanoTime() : 0;
+        publisher.set(value);
+        if (mirrored) {
+          logEntry.append(value);
+        }
+        if (profiler != null) {
+          profiler.record(index, System.nanoTime() - start, sizeOf(value));
+        }
+      }
+    }
+
+    /**
+     * Publishes the first length elements of buffer. They are copied into an array owned by this
+     * entry, so the caller can keep reusing one buffer without allocating every loop.
+     */
+    public void set(String[] buffer, int length) {
+      String[] value = buffer(length);
+      System.arraycopy(buffer, 0, value, 0, length);
+      set(value);
+    }
+
+    /** This entry's reusable array of the given length; only reallocated if the length changes. */
+    String[] buffer(int length) {
+      if (scratch.length != length) {
+        scratch = new String[length];
+      }
+      return scratch;
+    }
+
+    public String[] get(String[] defaultValue) {
+      return subscribe(defaultValue).get(defaultValue);
+    }
+
+    private StringArraySubscriber subscribe(String[] defaultValue) {
+      if (subscriber == null) {
+        subscriber = publisher.getTopic().subscribe(defaultValue);
+      }
+      return subscriber;
+    }
+
+    @Override
+    public boolean isReadable() {
+      return subscriber != null;
+    }
+
+    @Override
+    boolean makeReadable() {
+      subscribe(new String[] {});
+      return true;
+    }
+
+    @Override
+    int publishStaged(long time) {
+      String[] value = (String[]) owner.stagedObjects[index];
+      owner.stagedObjects[index] = null;
+      publisher.set(value, time);
+      if (mirrored) {
+        logEntry.append(value, time);
+      }
+      return sizeOf(value);
+    }
+
+    @Override
+    void createLogEntry(DataLog log, String logName) {
+      if (logEntry == null) {
+        logEntry = new StringArrayLogEntry(log, logName);
+      }
+    }
+
+    @Override
+    void closeHandles() {
+      publisher.close();
+      if (subscriber != null) {
+        subscriber.close();
+      }
+      if (logEntry != null) {
+        logEntry.finish();
+      }
     }
   }
 
-  public static void setValue(String name, String[] value) {
-    Telemetry table = getTelemetry();
-    if (!table.entries.containsKey(name)) {
-      DriverStation.reportWarning(
-          "Telemetry: entry " + name + " does not exist, creating with type String[]", false);
-      incrementWarningCounter();
-      addValue(name, NetworkTableType.kStringArray);
-    }
-    TelemetryItem item = table.entries.get(name);
-    if (item.type == NetworkTableType.kStringArray) {
-      ((StringArrayPublisher) item.publisher).set(value);
-    } else {
-      DriverStation.reportWarning(
-          "Telemetry: type mismatch during get "
-              + name
-              + ": expected String[], got "
-              + item.type.getValueStr(),
-          false);
-      incrementWarningCounter();
+  /**
+   * Handle for a struct value, e.g. a Pose2d. The value is packed with its {@link Struct} into a
+   * byte buffer owned by the entry and published as one raw message, so every field arrives
+   * together. Packing happens in set(), so the caller may reuse or mutate the object afterwards.
+   */
+  public static final class StructEntry<T> extends Entry {
+    private final Struct<T> struct;
+    private final RawPublisher publisher;
+    private RawSubscriber subscriber;
+    private RawLogEntry logEntry;
+    private final ByteBuffer buffer;
+    private final byte[] lastValue;
+
+    private StructEntry(
+        String name, RawTopic topic, Struct<T> struct, boolean readable, PubSubOption... options) {
+      super(name, NetworkTableType.kRaw);
+      this.struct = struct;
+      buffer = ByteBuffer.allocate(struct.getSize()).order(ByteOrder.LITTLE_ENDIAN);
+      lastValue = new byte[struct.getSize()];
+      publisher = topic.publish(struct.getTypeString(), options);
+      if (readable) {
+        subscriber = topic.subscribe(struct.getTypeString(), new byte[] {}, options);
+      }
+    }
+
+    public void set(T value) {
+      if (policy != null && !isDue()) {
+        return;
+      }
+      buffer.clear();
+      struct.pack(buffer, value);
+      byte[] packed = buffer.array();
+      if (policy != null && policy.isOnChange()) {
+        if (!shouldPublish(!Arrays.equals(lastValue, packed))) {
+          return;
+        }
+        System.arraycopy(packed, 0, lastValue, 0, packed.length);
+      }
+      if (owner.staging) {
+        // The buffer itself is the staged value; a later set() this loop just overwrites it
+        owner.stageObject(index, packed);
+      } else {
+        TelemetryProfiler profiler = owner.profiler;
+        long start = profiler != null ? System.nanoTime() : 0;
+        publisher.set(packed);
+        if (mirrored) {
+          logEntry.append(packed);
+        }
+        if (profiler != null) {
+          profiler.record(index, System.nanoTime() - start, packed.length);
+        }
+      }
+    }
+
+    /** Sets the value from its packed form, as stored in a snapshot. */
+    void restore(byte[] packed) {
+      if (packed.length == struct.getSize()) {
+        set(struct.unpack(ByteBuffer.wrap(packed).order(ByteOrder.LITTLE_ENDIAN)));
+      }
+    }
+
+    public T get(T defaultValue) {
+      if (subscriber == null) {
+        subscriber = publisher.getTopic().subscribe(struct.getTypeString(), new byte[] {});
+      }
+      byte[] value = subscriber.get();
+      if (value.length != struct.getSize()) {
+        return defaultValue;
+      }
+      return struct.unpack(ByteBuffer.wrap(value).order(ByteOrder.LITTLE_ENDIAN));
+    }
+
+    @Override
+    String getTypeString() {
+      return struct.getTypeString();
+    }
+
+    @Override
+    public boolean isReadable() {
+      return subscriber != null;
+    }
+
+    @Override
+    int publishStaged(long time) {
+      byte[] value = (byte[]) owner.stagedObjects[index];
+      owner.stagedObjects[index] = null;
+      publisher.set(value, time);
+      if (mirrored) {
+        logEntry.append(value, time);
+      }
+      return value.length;
+    }
+
+    @Override
+    void createLogEntry(DataLog log, String logName) {
+      if (logEntry == null) {
+        log.addSchema(struct);
+        logEntry = new RawLogEntry(log, logName, "", struct.getTypeString());
+      }
+    }
+
+    @Override
+    void closeHandles() {
+      publisher.close();
+      if (subscriber != null) {
+        subscriber.close();
+      }
+      if (logEntry != null) {
+        logEntry.finish();
+      }
     }
   }
 
-  public static void setValue(String name, byte[] value) {
-    Telemetry table = getTelemetry();
-    if (!table.entries.containsKey(name)) {
-      DriverStation.reportWarning(
-          "Telemetry: entry " + name + " does not exist, creating with type byte[]", false);
-      incrementWarningCounter();
-      addValue(name, NetworkTableType.kRaw);
+  /** Handle for an array of struct values, e.g. the four SwerveModuleStates. */
+  public static final class StructArrayEntry<T> extends Entry {
+    private final Struct<T> struct;
+    private final RawPublisher publisher;
+    private RawLogEntry logEntry;
+    private ByteBuffer buffer;
+    private byte[] lastValue = new byte[] {};
+    private int stagedLength;
+
+    private StructArrayEntry(
+        String name, RawTopic topic, Struct<T> struct, PubSubOption... options) {
+      super(name, NetworkTableType.kRaw);
+      this.struct = struct;
+      buffer = ByteBuffer.allocate(0).order(ByteOrder.LITTLE_ENDIAN);
+      publisher = topic.publish(struct.getTypeString() + "[]", options);
     }
-    TelemetryItem item = table.entries.get(name);
-    if (item.type == NetworkTableType.kRaw) {
-      ((RawPublisher) item.publisher).set(value);
-    } else {
-      DriverStation.reportWarning(
-          "Telemetry: type mismatch during get "
-              + name
-              + ": expected byte[], got "
-              + item.type.getValueStr(),
-          false);
-      incrementWarningCounter();
+
+    public void set(T[] values) {
+      set(values, values.length);
     }
-  }
 
-  public static void setValue(String name, Object value) {
-    DriverStation.reportWarning(
-        "Telemetry: generic setValue() called for "
-            + name
-            + " with type "
-            + value.getClass().getName()
-            + ", expected primitive",
-        false);
-    incrementWarningCounter();
+    /** Publishes the first length values. The buffer only grows, so reusing arrays is free. */
+    public void set(T[] values, int length) {
+      if (policy != null && !isDue()) {
+        return;
+      }
+      int size = length * struct.getSize();
+      if (buffer.capacity() < size) {
+        buffer = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+      }
+      buffer.clear();
+      for (int i = 0; i < length; i++) {
+        struct.pack(buffer, values[i]);
+      }
+      publishPacked(size);
+    }
+
+    /** Sets the values from their packed form, as stored in a snapshot. */
+    void restore(byte[] packed) {
+      if (packed.length % struct.getSize() != 0 || (policy != null && !isDue())) {
+        return;
+      }
+      if (buffer.capacity() < packed.length) {
+        buffer = ByteBuffer.allocate(packed.length).order(ByteOrder.LITTLE_ENDIAN);
+      }
+      System.arraycopy(packed, 0, buffer.array(), 0, packed.length);
+      publishPacked(packed.length);
+    }
+
+    // Publishes the first size bytes of the buffer, subject to the on-change policy
+    private void publishPacked(int size) {
+      byte[] packed = buffer.array();
+      if (policy != null && policy.isOnChange()) {
+        if (!shouldPublish(!Arrays.equals(lastValue, 0, lastValue.length, packed, 0, size))) {
+          return;
+        }
+        if (lastValue.length != size) {
+          lastValue = new byte[size];
+        }
+        System.arraycopy(packed, 0, lastValue, 0, size);
+      }
+      if (owner.staging) {
+        stagedLength = size;
+        owner.stageObject(index, packed);
+      } else {
+        TelemetryProfiler profiler = owner.profiler;
+        long start = profiler != null ? System.nanoTime() : 0;
+        publisher.set(packed, 0, size);
+        if (mirrored) {
+          logEntry.append(packed, 0, size, 0);
+        }
+        if (profiler != null) {
+          profiler.record(index, System.nanoTime() - start, size);
+        }
+      }
+    }
+
+    @Override
+    String getTypeString() {
+      return struct.getTypeString() + "[]";
+    }
+
+    @Override
+    public boolean isReadable() {
+      return false;
+    }
+
+    @Override
+    int publishStaged(long time) {
+      byte[] value = (byte[]) owner.stagedObjects[index];
+      owner.stagedObjects[index] = null;
+      publisher.set(value, 0, stagedLength, time);
+      if (mirrored) {
+        logEntry.append(value, 0, stagedLength, time);
+      }
+      return stagedLength;
+    }
+
+    @Override
+    void createLogEntry(DataLog log, String logName) {
+      if (logEntry == null) {
+        log.addSchema(struct);
+        logEntry = new RawLogEntry(log, logName, "", struct.getTypeString() + "[]");
+      }
+    }
+
+    @Override
+    void closeHandles() {
+      publisher.close();
+      if (logEntry != null) {
+        logEntry.finish();
+      }
+    }
   }
 
-  public static void setValue(String name, Object[] value) {
-    DriverStation.reportWarning(
-        "Telemetry: generic setValue() called for "
-            + name
-            + " with type "
-            + value.getClass().getName()
-            + "[], expected primitive[]",
-        false);
-    incrementWarningCounter();
+  /**
+   * Handle for a raw value published straight from a ByteBuffer, for high rate binary payloads
+   * like camera metadata or packed status. set() publishes the bytes between the buffer's position
+   * and limit; a direct buffer goes to NT without being copied into a byte[] first. Reads copy
+   * into a buffer the caller owns, and only when a new value has arrived.
+   */
+  public static final class RawBufferEntry extends Entry {
+    private final String typeString;
+    private final RawPublisher publisher;
+    private RawSubscriber subscriber;
+    private RawLogEntry logEntry;
+    // Both only grow. lastValue is only used with an on-change policy, staged only when staging.
+    private ByteBuffer lastValue = ByteBuffer.allocateDirect(0);
+    private ByteBuffer staged = ByteBuffer.allocateDirect(0);
+    private int lastLength;
+    private int stagedLength;
+    private long lastRead;
+
+    private RawBufferEntry(
+        String name, RawTopic topic, String typeString, boolean readable, PubSubOption... options) {
+      super(name, NetworkTableType.kRaw);
+      this.typeString = typeString;
+      publisher = topic.publish(typeString, options);
+      if (readable) {
+        subscriber = topic.subscribe(typeString, new byte[] {}, options);
+      }
+    }
+
+    /**
+     * Publishes value's remaining bytes. The buffer's position and limit are left alone, so it can
+     * be refilled and set again next loop.
+     */
+    public void set(ByteBuffer value) {
+      if (policy != null && !isDue()) {
+        return;
+      }
+      int start = value.position();
+      int length = value.remaining();
+      if (policy != null && policy.isOnChange()) {
+        boolean changed =
+            length != lastLength || value.mismatch(lastValue.limit(lastLength).position(0)) >= 0;
+        if (!shouldPublish(changed)) {
+          return;
+        }
+        lastValue = copy(value, start, length, lastValue);
+        lastLength = length;
+      }
+      if (owner.staging) {
+        // The caller may refill its buffer before flush(), so staging has to copy
+        staged = copy(value, start, length, staged);
+        stagedLength = length;
+        owner.stageObject(index, staged);
+      } else {
+        TelemetryProfiler profiler = owner.profiler;
+        long time = profiler != null ? System.nanoTime() : 0;
+        publisher.set(value, start, length);
+        if (mirrored) {
+          logEntry.append(value, start, length, 0);
+        }
+        if (profiler != null) {
+          profiler.record(index, System.nanoTime() - time, length);
+        }
+      }
+    }
+
+    // Copies length bytes of source from start into target, which is replaced if it's too small
+    private static ByteBuffer copy(ByteBuffer source, int start, int length, ByteBuffer target) {
+      if (target.capacity() < length) {
+        target = ByteBuffer.allocateDirect(length);
+      }
+      target.clear();
+      target.put(0, source, start, length);
+      return target;
+    }
+
+    /**
+     * Copies the latest value into destination at its position, if one has arrived since the last
+     * read, and advances the position past it. Returns the number of bytes copied, 0 if there was
+     * nothing new, or -1 if the value doesn't fit, in which case it's kept for the next read.
+     */
+    public int read(ByteBuffer destination) {
+      if (subscriber == null) {
+        subscriber = publisher.getTopic().subscribe(typeString, new byte[] {});
+      }
+      long lastChange = subscriber.getLastChange();
+      if (lastChange == lastRead) {
+        return 0;
+      }
+      byte[] value = subscriber.get();
+      if (value.length > destination.remaining()) {
+        Diagnostics.Key key = warningKey("Telemetry: raw read buffer too small", getName());
+        if (Diagnostics.count(key)) {
+          Diagnostics.emit(
+              key,
+              "Telemetry: buffer too small reading "
+                  + getName()
+                  + ": need "
+                  + value.length
+                  + " bytes, have "
+                  + destination.remaining());
+        }
+        return -1;
+      }
+      lastRead = lastChange;
+      destination.put(value);
+      return value.length;
+    }
+
+    @Override
+    String getTypeString() {
+      return typeString;
+    }
+
+    @Override
+    public boolean isReadable() {
+      return subscriber != null;
+    }
+
+    @Override
+    int publishStaged(long time) {
+      owner.stagedObjects[index] = null;
+      publisher.set(staged, 0, stagedLength, time);
+      if (mirrored) {
+        logEntry.append(staged, 0, stagedLength, time);
+      }
+      return stagedLength;
+    }
+
+    @Override
+    void createLogEntry(DataLog log, String logName) {
+      if (logEntry == null) {
+        logEntry = new RawLogEntry(log, logName, "", typeString);
+      }
+    }
+
+    @Override
+    void closeHandles() {
+      publisher.close();
+      if (subscriber != null) {
+        subscriber.close();
+      }
+      if (logEntry != null) {
+        logEntry.finish();
+      }
+    }
   }
 
-  public static DoubleSupplier subscribe(String name, double defaultValue) {
-    Telemetry table = getTelemetry();
+  /**
+   * Handle for a group of up to 64 named booleans, e.g. a motor's faults, packed into one integer
+   * topic. The bit names go out once as the topic's "bits" property so a dashboard can label them,
+   * and the whole group travels as one 8 byte value. The setters only change the word held here;
+   * {@link #publish()} sends it, so every bit changed in a loop arrives together.
+   */
+  public static final class FlagsEntry {
+    private final IntegerEntry entry;
+    private final String[] bitNames;
+    private long bits = 0;
 
-    if (!table.entries.containsKey(name)) {
-      DriverStation.reportWarning(
-          "Telemetry: entry " + name + " does not exist, creating with type double", false);
-      incrementWarningCounter();
-      addReadableValue(name, NetworkTableType.kDouble);
+    private FlagsEntry(IntegerEntry entry, String[] bitNames) {
+      this.entry = entry;
+      this.bitNames = bitNames;
     }
 
-    TelemetryItem item = table.entries.get(name);
-
-    DoubleSubscriber sub;
-
-    if (item.type != NetworkTableType.kDouble) {
-      DriverStation.reportWarning(
-          "Telemetry: type mismatch during subscribe "
-              + name
-              + ": expected double, got "
-              + item.type.getValueStr()
-              + ", returning default value",
-          false);
-      incrementWarningCounter();
-      return () -> defaultValue;
+    public void set(int bit, boolean value) {
+      if (value) {
+        bits |= 1L << bit;
+      } else {
+        bits &= ~(1L << bit);
+      }
     }
 
-    if (item.isReadable == false) {
-      sub = ((DoubleTopic) item.publisher.getTopic()).subscribe(defaultValue);
-      item.subscribe(sub);
-    } else {
-      sub = (DoubleSubscriber) item.subscriber;
+    /** Sets bit i to values[i] for the first length values. */
+    public void set(boolean[] values, int length) {
+      long packed = 0;
+      for (int i = 0; i < length; i++) {
+        if (values[i]) {
+          packed |= 1L << i;
+        }
+      }
+      bits = packed;
     }
 
-    return sub;
-  }
+    public void setBits(long bits) {
+      this.bits = bits;
+    }
 
-  public static Supplier<double[]> subscribe(String name, double[] defaultValue) {
-    Telemetry table = getTelemetry();
+    public boolean get(int bit) {
+      return isSet(bits, bit);
+    }
 
-    if (!table.entries.containsKey(name)) {
-      DriverStation.reportWarning(
-          "Telemetry: entry " + name + " does not exist, creating with type double[]", false);
-      incrementWarningCounter();
-      addReadableValue(name, NetworkTableType.kDoubleArray);
+    public long getBits() {
+      return bits;
     }
 
-    TelemetryItem item = table.entries.get(name);
+    /** Publishes the current word through the integer entry, subject to its policy. */
+    public void publish() {
+      entry.set(bits);
+    }
 
-    DoubleArraySubscriber sub;
+    public IntegerEntry getEntry() {
+      return entry;
+    }
 
-    if (item.type != NetworkTableType.kDoubleArray) {
-      DriverStation.reportWarning(
-          "Telemetry: type mismatch during subscribe "
-              + name
-              + ": expected double[], got "
-              + item.type.getValueStr()
-              + ", returning default value",
-          false);
-      incrementWarningCounter();
-      return () -> defaultValue;
+    public String getBitName(int bit) {
+      return bitNames[bit];
     }
 
-    if (item.isReadable == false) {
-      sub = ((DoubleArrayTopic) item.publisher.getTopic()).subscribe(defaultValue);
-      item.subscribe(sub);
-    } else {
-      sub = (DoubleArraySubscriber) item.subscriber;
+    public int getBitCount() {
+      return bitNames.length;
     }
 
-    return sub;
+    /** For reading a word back, e.g. from {@link WatchedValue#getInteger(long)}. */
+    public static boolean isSet(long bits, int bit) {
+      return (bits & (1L << bit)) != 0;
+    }
   }
 
-  public static FloatSupplier subscribe(String name, float defaultValue) {
-    Telemetry table = getTelemetry();
+  /**
+   * A topic watched through an NT value listener instead of polled. Updates queue up inside NT and
+   * are applied in one batch per loop by {@link #readUpdates()}; in between, the getters are plain
+   * field reads. Callers that only care about changes can compare {@link #getChangeCount()} with
+   * the count they saw last time and skip their work when it hasn't moved.
+   */
+  public static final class WatchedValue {
+    private final String name;
+    private final int listener;
+    // Written only by readUpdates(); volatile so other threads can read the cell without locks.
+    // The value is written before the count, so a new count always comes with its value.
+    private volatile NetworkTableValue value;
+    private volatile long changeCount = 0;
 
-    if (!table.entries.containsKey(name)) {
-      DriverStation.reportWarning(
-          "Telemetry: entry " + name + " does not exist, creating with type float", false);
-      incrementWarningCounter();
-      addReadableValue(name, NetworkTableType.kFloat);
+    private WatchedValue(String name, int listener) {
+      this.name = name;
+      this.listener = listener;
     }
 
-    TelemetryItem item = table.entries.get(name);
-
-    FloatSubscriber sub;
-
-    if (item.type != NetworkTableType.kFloat) {
-      DriverStation.reportWarning(
-          "Telemetry: type mismatch during subscribe "
-              + name
-              + ": expected float, got "
-              + item.type.getValueStr()
-              + ", returning default value",
-          false);
-      incrementWarningCounter();
-      return () -> defaultValue;
+    public String getName() {
+      return name;
     }
 
-    if (item.isReadable == false) {
-      sub = ((FloatTopic) item.publisher.getTopic()).subscribe(defaultValue);
-      item.subscribe(sub);
-    } else {
-      sub = (FloatSubscriber) item.subscriber;
+    /** Number of updates applied so far. Starts at 0, before any value has been seen. */
+    public long getChangeCount() {
+      return changeCount;
     }
 
-    return sub;
-  }
+    public boolean hasChangedSince(long changeCount) {
+      return this.changeCount != changeCount;
+    }
 
-  public static Supplier<float[]> subscribe(String name, float[] defaultValue) {
-    Telemetry table = getTelemetry();
+    /** The last value seen, or null if there hasn't been one. */
+    public NetworkTableValue getValue() {
+      return value;
+    }
 
-    if (!table.entries.containsKey(name)) {
-      DriverStation.reportWarning(
-          "Telemetry: entry " + name + " does not exist, creating with type float[]", false);
-      incrementWarningCounter();
-      addReadableValue(name, NetworkTableType.kFloatArray);
+    public boolean getBoolean(boolean defaultValue) {
+      NetworkTableValue current = value;
+      return current != null && current.getType() == NetworkTableType.kBoolean
+          ? current.getBoolean()
+          : defaultValue;
     }
 
-    TelemetryItem item = table.entries.get(name);
+    public double getDouble(double defaultValue) {
+      NetworkTableValue current = value;
+      if (current == null) {
+        return defaultValue;
+      }
+      switch (current.getType()) {
+        case kDouble:
+          return current.getDouble();
+        case kFloat:
+          return current.getFloat();
+        case kInteger:
+          return current.getInteger();
+        default:
+          return defaultValue;
+      }
+    }
 
-    FloatArraySubscriber sub;
+    public long getInteger(long defaultValue) {
+      NetworkTableValue current = value;
+      return current != null && current.getType() == NetworkTableType.kInteger
+          ? current.getInteger()
+          : defaultValue;
+    }
 
-    if (item.type != NetworkTableType.kFloatArray) {
-      DriverStation.reportWarning(
-          "Telemetry: type mismatch during subscribe "
-              + name
-              + ": expected float[], got "
-              + item.type.getValueStr()
-              + ", returning default value",
-          false);
-      incrementWarningCounter();
-      return () -> defaultValue;
+    public String getString(String defaultValue) {
+      NetworkTableValue current = value;
+      return current != null && current.getType() == NetworkTableType.kString
+          ? current.getString()
+          : defaultValue;
     }
 
-    if (item.isReadable == false) {
-      sub = ((FloatArrayTopic) item.publisher.getTopic()).subscribe(defaultValue);
-      item.subscribe(sub);
-    } else {
-      sub = (FloatArraySubscriber) item.subscriber;
+    private void update(NetworkTableValue newValue) {
+      value = newValue;
+      changeCount = changeCount + 1;
     }
+  }
 
-    return sub;
+  private interface EntryFactory {
+    // key is the topic name relative to nt, name the full name the entry is known by
+    Entry create(
+        NetworkTable nt, String key, String name, boolean readable, PubSubOption[] options);
   }
 
-  public static LongSupplier subscribe(String name, int defaultValue) {
-    Telemetry table = getTelemetry();
+  // One constructor per NT type; adding a type means adding an Entry class and a line here
+  private static final EnumMap<NetworkTableType, EntryFactory> FACTORIES =
+      new EnumMap<NetworkTableType, EntryFactory>(NetworkTableType.class);
+  // The class each factory builds, so re-registering a name can be checked without building one
+  private static final EnumMap<NetworkTableType, Class<? extends Entry>> ENTRY_CLASSES =
+      new EnumMap<NetworkTableType, Class<? extends Entry>>(NetworkTableType.class);
+
+  private static void addFactory(
+      NetworkTableType type, Class<? extends Entry> entryClass, EntryFactory factory) {
+    FACTORIES.put(type, factory);
+    ENTRY_CLASSES.put(type, entryClass);
+  }
 
-    if (!table.entries.containsKey(name)) {
-      DriverStation.reportWarning(
-          "Telemetry: entry " + name + " does not exist, creating with type int", false);
-      incrementWarningCounter();
-      addReadableValue(name, NetworkTableType.kInteger);
-    }
+  static {
+    addFactory(
+        NetworkTableType.kBoolean,
+        BooleanEntry.class,
+        (nt, key, name, readable, options) ->
+            new BooleanEntry(name, nt.getBooleanTopic(key), readable, options));
+    addFactory(
+        NetworkTableType.kBooleanArray,
+        BooleanArrayEntry.class,
+        (nt, key, name, readable, options) ->
+            new BooleanArrayEntry(name, nt.getBooleanArrayTopic(key), readable, options));
+    addFactory(
+        NetworkTableType.kDouble,
+        DoubleEntry.class,
+        (nt, key, name, readable, options) ->
+            new DoubleEntry(name, nt.getDoubleTopic(key), readable, options));
+    addFactory(
+        NetworkTableType.kDoubleArray,
+        DoubleArrayEntry.class,
+        (nt, key, name, readable, options) ->
+            new DoubleArrayEntry(name, nt.getDoubleArrayTopic(key), readable, options));
+    addFactory(
+        NetworkTableType.kFloat,
+        FloatEntry.class,
+        (nt, key, name, readable, options) ->
+            new FloatEntry(name, nt.getFloatTopic(key), readable, options));
+    addFactory(
+        NetworkTableType.kFloatArray,
+        FloatArrayEntry.class,
+        (nt, key, name, readable, options) ->
+            new FloatArrayEntry(name, nt.getFloatArrayTopic(key), readable, options));
+    addFactory(
+        NetworkTableType.kInteger,
+        IntegerEntry.class,
+        (nt, key, name, readable, options) ->
+            new IntegerEntry(name, nt.getIntegerTopic(key), readable, options));
+    addFactory(
+        NetworkTableType.kIntegerArray,
+        IntegerArrayEntry.class,
+        (nt, key, name, readable, options) ->
+            new IntegerArrayEntry(name, nt.getIntegerArrayTopic(key), readable, options));
+    addFactory(
+        NetworkTableType.kRaw,
+        RawEntry.class,
+        (nt, key, name, readable, options) ->
+            new RawEntry(name, nt.getRawTopic(key), readable, options));
+    addFactory(
+        NetworkTableType.kString,
+        StringEntry.class,
+        (nt, key, name, readable, options) ->
+            new StringEntry(name, nt.getStringTopic(key), readable, options));
+    addFactory(
+        NetworkTableType.kStringArray,
+        StringArrayEntry.class,
+        (nt, key, name, readable, options) ->
+            new StringArrayEntry(name, nt.getStringArrayTopic(key), readable, options));
+  }
 
-    TelemetryItem item = table.entries.get(name);
+  private NetworkTableInstance ntInstance = NetworkTableInstance.getDefault();
+  private NetworkTable telemetryTable = ntInstance.getTable(TelemetryConstants.ROOT_NAME);
+  private HashMap<String, Entry> entries = new HashMap<String, Entry>();
+
+  // Staging: while enabled, set() only writes the value into the slot owned by the entry and
+  // queues the slot; flush() publishes every queued slot at once with a single timestamp.
+  // Slots are handed out at registration, so nothing here allocates in the loop.
+  private boolean staging = false;
+  private Entry[] slots = new Entry[TelemetryConstants.INITIAL_CAPACITY];
+  private double[] stagedDoubles = new double[TelemetryConstants.INITIAL_CAPACITY];
+  private long[] stagedLongs = new long[TelemetryConstants.INITIAL_CAPACITY];
+  private Object[] stagedObjects = new Object[TelemetryConstants.INITIAL_CAPACITY];
+  private boolean[] dirty = new boolean[TelemetryConstants.INITIAL_CAPACITY];
+  private int[] dirtyQueue = new int[TelemetryConstants.INITIAL_CAPACITY];
+  private int dirtyCount = 0;
+  private int slotCount = 0;
+  // Slots of closed entries. A slot that was still queued when its entry closed waits in
+  // released until flush() has passed over it, so a new entry never inherits a staged value.
+  private int[] freeSlots = new int[TelemetryConstants.INITIAL_CAPACITY];
+  private int freeCount = 0;
+  private int[] releasedSlots = new int[TelemetryConstants.INITIAL_CAPACITY];
+  private int releasedCount = 0;
+
+  // Advanced by flush(); rate tiered entries are spread over loops by handing out phases in turn
+  private long loopCount = 0;
+  private int nextRatePhase = 0;
+
+  // Null until startLogging() succeeds
+  private TelemetryLogger logger;
+  // Null until startDataLog()
+  private DataLog dataLog;
+  // Null unless profiling is on, see setProfilingEnabled()
+  private TelemetryProfiler profiler;
+  private IntegerEntry logDroppedEntry;
+
+  private final HashMap<String, TelemetryNamespace> namespaces =
+      new HashMap<String, TelemetryNamespace>();
+  private final ArrayList<TelemetryProfile> profiles = new ArrayList<TelemetryProfile>();
+
+  // Null until the first snapshot()
+  private TelemetrySnapshot snapshots;
+  private byte[] lastSnapshot;
+  private RawLogEntry snapshotLogEntry;
+
+  // Null until the first watch()
+  private NetworkTableListenerPoller poller;
+  private final ArrayList<WatchedValue> watches = new ArrayList<WatchedValue>();
+
+  private int warningCount = 0;
+  private final IntegerEntry warningCountEntry;
+  private final DoubleEntry flushTimeEntry;
+  private final IntegerEntry flushCountEntry;
 
-    IntegerSubscriber sub;
+  private Telemetry() {
+    System.out.println(
+        "Telemetry singleton instantiated, writing to /" + TelemetryConstants.ROOT_NAME + "/");
 
-    if (item.type != NetworkTableType.kInteger) {
-      DriverStation.reportWarning(
-          "Telemetry: type mismatch during subscribe "
-              + name
-              + ": expected int, got "
-              + item.type.getValueStr()
-              + ", returning default value",
-          false);
-      incrementWarningCounter();
-      return () -> defaultValue;
-    }
+    // getTelemetry() can't be used until Holder finishes initializing, so register directly
+    warningCountEntry =
+        (IntegerEntry)
+            register("diagnostics/telemetry/warningCount", NetworkTableType.kInteger, true);
+    flushTimeEntry =
+        (DoubleEntry) register("diagnostics/telemetry/flushTime", NetworkTableType.kDouble, false);
+    flushCountEntry =
+        (IntegerEntry)
+            register("diagnostics/telemetry/flushCount", NetworkTableType.kInteger, false);
+  }
 
-    if (item.isReadable == false) {
-      sub = ((IntegerTopic) item.publisher.getTopic()).subscribe(defaultValue);
-      item.subscribe(sub);
-    } else {
-      sub = (IntegerSubscriber) item.subscriber;
-    }
+  private static Telemetry getTelemetry() {
+    return Holder.INSTANCE;
+  }
 
-    return sub;
+  public static void startSimulationServer() {
+    getTelemetry().ntInstance.startServer();
   }
 
-  public static Supplier<long[]> subscribe(String name, long[] defaultValue) {
-    Telemetry table = getTelemetry();
+  // The count lives here rather than being read back from NT, so several warnings inside one
+  // staged loop each count. A warning that repeats every loop shouldn't cost a set() each time, so
+  // flush() publishes the count once per loop.
+  private static void incrementWarningCounter() {
+    getTelemetry().warningCount++;
+  }
 
-    if (!table.entries.containsKey(name)) {
-      DriverStation.reportWarning(
-          "Telemetry: entry " + name + " does not exist, creating with type int[]", false);
-      incrementWarningCounter();
-      addReadableValue(name, NetworkTableType.kIntegerArray);
-    }
+  public static int getWarningCount() {
+    return getTelemetry().warningCount;
+  }
 
-    TelemetryItem item = table.entries.get(name);
+  public static void clearWarningCount() {
+    Telemetry telemetry = getTelemetry();
+    telemetry.warningCount = 0;
+    telemetry.warningCountEntry.set(0);
+  }
 
-    IntegerArraySubscriber sub;
+  /**
+   * Starts writing every boolean, integer, float and double value that gets published to binary
+   * segment files in the given directory, see {@link TelemetryLogger}. The disk is only touched
+   * from a background thread.
+   */
+  public static void startLogging(Path directory) {
+    Telemetry telemetry = getTelemetry();
+    if (telemetry.logger != null) {
+      return;
+    }
 
-    if (item.type != NetworkTableType.kIntegerArray) {
+    TelemetryLogger logger = new TelemetryLogger(directory);
+    try {
+      logger.start();
+    } catch (IOException e) {
       DriverStation.reportWarning(
-          "Telemetry: type mismatch during subscribe "
-              + name
-              + ": expected int[], got "
-              + item.type.getValueStr()
-              + ", returning default value",
-          false);
+          "Telemetry: could not start logging to " + directory + ": " + e.getMessage(), false);
       incrementWarningCounter();
-      return () -> defaultValue;
+      return;
     }
 
-    if (item.isReadable == false) {
-      sub = ((IntegerArrayTopic) item.publisher.getTopic()).subscribe(defaultValue);
-      item.subscribe(sub);
-    } else {
-      sub = (IntegerArraySubscriber) item.subscriber;
+    telemetry.logDroppedEntry =
+        (IntegerEntry)
+            telemetry.register(
+                "diagnostics/telemetry/logDropped", NetworkTableType.kInteger, false);
+    for (int i = 0; i < telemetry.slotCount; i++) {
+      Entry entry = telemetry.slots[i];
+      if (entry != null) {
+        logger.define(i, entry.getType(), entry.getName());
+      }
     }
-
-    return sub;
+    telemetry.logger = logger;
   }
 
-  public static Supplier<String> subscribe(String name, String defaultValue) {
-    Telemetry table = getTelemetry();
-
-    if (!table.entries.containsKey(name)) {
-      DriverStation.reportWarning(
-          "Telemetry: entry " + name + " does not exist, creating with type String", false);
-      incrementWarningCounter();
-      addReadableValue(name, NetworkTableType.kString);
+  /**
+   * Mirrors every entry into the WPILib DataLog (starting DataLogManager if needed), as typed log
+   * entries named after the NT topic. Log entries are created once, here or when an entry is
+   * added later, so samples are appended without any lookups. See {@link
+   * Entry#setDataLogEnabled(boolean)} to leave entries out.
+   */
+  public static void startDataLog() {
+    Telemetry telemetry = getTelemetry();
+    if (telemetry.dataLog != null) {
+      return;
     }
 
-    TelemetryItem item = table.entries.get(name);
+    telemetry.dataLog = DataLogManager.getLog();
+    for (int i = 0; i < telemetry.slotCount; i++) {
+      if (telemetry.slots[i] != null) {
+        telemetry.mirror(telemetry.slots[i]);
+      }
+    }
+  }
 
-    StringSubscriber sub;
+  /**
+   * Turns on measuring Telemetry's own cost: calls, time spent publishing, bytes and type
+   * mismatches per entry and per prefix, reported under diagnostics/telemetry/profile/ with
+   * rolling p50/p99 per loop. Off by default; when off, the only cost is a null check.
+   */
+  public static void setProfilingEnabled(boolean enabled) {
+    Telemetry telemetry = getTelemetry();
+    if (!enabled) {
+      telemetry.profiler = null;
+      return;
+    }
+    if (telemetry.profiler != null) {
+      return;
+    }
 
-    if (item.type != NetworkTableType.kString) {
-      DriverStation.reportWarning(
-          "Telemetry: type mismatch during subscribe "
-              + name
-              + ": expected String, got "
-              + item.type.getValueStr()
-              + ", returning default value",
-          false);
-      incrementWarningCounter();
-      return () -> defaultValue;
+    TelemetryProfiler profiler = new TelemetryProfiler(telemetry.slots.length);
+    for (int i = 0; i < telemetry.slotCount; i++) {
+      if (telemetry.slots[i] != null) {
+        profiler.define(i, telemetry.slots[i].getName());
+      }
     }
+    telemetry.profiler = profiler;
+  }
 
-    if (item.isReadable == false) {
-      sub = ((StringTopic) item.publisher.getTopic()).subscribe(defaultValue);
-      item.subscribe(sub);
-    } else {
-      sub = (StringSubscriber) item.subscriber;
+  public static boolean isProfilingEnabled() {
+    return getTelemetry().profiler != null;
+  }
+
+  /**
+   * Turns staging on or off. While staging, handle set() calls are buffered and nothing reaches
+   * NetworkTables until {@link #flush()}. Turning staging off flushes anything still pending.
+   */
+  public static void setStagingEnabled(boolean enabled) {
+    Telemetry telemetry = getTelemetry();
+    if (!enabled && telemetry.staging) {
+      flush();
     }
+    telemetry.staging = enabled;
+  }
 
-    return sub;
+  public static boolean isStagingEnabled() {
+    return getTelemetry().staging;
   }
 
-  public static Supplier<String[]> subscribe(String name, String[] defaultValue) {
-    Telemetry table = getTelemetry();
+  /**
+   * Returns the namespace for a path such as "Arm/Stage1", creating it (and its parents) the
+   * first time. Entries added through it are named relative to the path, and it can switch off or
+   * slow down everything under it at once. See {@link TelemetryNamespace}.
+   */
+  public static TelemetryNamespace namespace(String path) {
+    Telemetry telemetry = getTelemetry();
+    TelemetryNamespace namespace = telemetry.namespaces.get(path);
+    if (namespace == null) {
+      int slash = path.lastIndexOf('/');
+      TelemetryNamespace parent = slash > 0 ? namespace(path.substring(0, slash)) : null;
+      namespace = new TelemetryNamespace(path, telemetry.telemetryTable.getSubTable(path), parent);
+      telemetry.namespaces.put(path, namespace);
+    }
+    return namespace;
+  }
 
-    if (!table.entries.containsKey(name)) {
-      DriverStation.reportWarning(
-          "Telemetry: entry " + name + " does not exist, creating with type String[]", false);
-      incrementWarningCounter();
-      addReadableValue(name, NetworkTableType.kStringArray);
-    }
+  /**
+   * Returns the client profile with this name, creating it the first time with the given window.
+   * Its mirrors are published under /{@value TelemetryConstants#PROFILE_ROOT_NAME}/name/, outside
+   * the telemetry tree, so clients subscribed to the whole tree don't get them as well. See
+   * {@link TelemetryProfile}.
+   */
+  public static TelemetryProfile profile(String name, int windowLoops) {
+    Telemetry telemetry = getTelemetry();
+    for (TelemetryProfile profile : telemetry.profiles) {
+      if (profile.getName().equals(name)) {
+        return profile;
+      }
+    }
+    NetworkTable table =
+        telemetry.ntInstance.getTable(TelemetryConstants.PROFILE_ROOT_NAME).getSubTable(name);
+    TelemetryProfile profile =
+        new TelemetryProfile(name, windowLoops, telemetry.telemetryTable, table);
+    telemetry.profiles.add(profile);
+    return profile;
+  }
 
-    TelemetryItem item = table.entries.get(name);
+  /**
+   * Captures the current value of every entry into one compact blob, e.g. on mode transitions for
+   * post-match debugging. If the DataLog is running the blob is also appended to it, as
+   * "snapshot"; it's always kept as {@link #getLastSnapshot()}. The first call subscribes to
+   * every entry, so it's slower than the ones after it. See TelemetrySnapshot for the layout.
+   */
+  public static byte[] snapshot() {
+    Telemetry telemetry = getTelemetry();
+    if (telemetry.snapshots == null) {
+      telemetry.snapshots = new TelemetrySnapshot();
+    }
+    byte[] blob =
+        telemetry.snapshots.write(
+            telemetry.slots, telemetry.slotCount, telemetry.telemetryTable, NetworkTablesJNI.now());
+    telemetry.lastSnapshot = blob;
+    if (telemetry.dataLog != null) {
+      if (telemetry.snapshotLogEntry == null) {
+        telemetry.snapshotLogEntry =
+            new RawLogEntry(telemetry.dataLog, telemetry.getLogName("snapshot"));
+      }
+      telemetry.snapshotLogEntry.append(blob);
+    }
+    return blob;
+  }
 
-    StringArraySubscriber sub;
+  /** The blob from the last snapshot(), or null if there hasn't been one. */
+  public static byte[] getLastSnapshot() {
+    return getTelemetry().lastSnapshot;
+  }
 
-    if (item.type != NetworkTableType.kStringArray) {
-      DriverStation.reportWarning(
-          "Telemetry: type mismatch during subscribe "
-              + name
-              + ": expected String[], got "
-              + item.type.getValueStr()
-              + ", returning default value",
-          false);
-      incrementWarningCounter();
-      return () -> defaultValue;
-    }
+  /**
+   * Sets every entry in a snapshot that still exists with the same type, e.g. to reproduce a
+   * match state in simulation. Returns the number of entries set, or -1 if the blob isn't valid.
+   */
+  public static int restore(byte[] snapshot) {
+    return TelemetrySnapshot.read(snapshot, getTelemetry().entries);
+  }
 
-    if (item.isReadable == false) {
-      sub = ((StringArrayTopic) item.publisher.getTopic()).subscribe(defaultValue);
-      item.subscribe(sub);
+  /** Sets one entry from a decoded snapshot value. False if the handle can't take it. */
+  static boolean restore(Entry item, Object value) {
+    if (item instanceof BooleanEntry entry) {
+      entry.set((Boolean) value);
+    } else if (item instanceof DoubleEntry entry) {
+      entry.set((Double) value);
+    } else if (item instanceof FloatEntry entry) {
+      entry.set((Float) value);
+    } else if (item instanceof IntegerEntry entry) {
+      entry.set((Long) value);
+    } else if (item instanceof StringEntry entry) {
+      entry.set((String) value);
+    } else if (item instanceof RawEntry entry) {
+      entry.set((byte[]) value);
+    } else if (item instanceof RawBufferEntry entry) {
+      entry.set(ByteBuffer.wrap((byte[]) value));
+    } else if (item instanceof StructEntry<?> entry) {
+      entry.restore((byte[]) value);
+    } else if (item instanceof StructArrayEntry<?> entry) {
+      entry.restore((byte[]) value);
+    } else if (item instanceof BooleanArrayEntry entry) {
+      entry.set((boolean[]) value);
+    } else if (item instanceof DoubleArrayEntry entry) {
+      entry.set((double[]) value);
+    } else if (item instanceof FloatArrayEntry entry) {
+      entry.set((float[]) value);
+    } else if (item instanceof IntegerArrayEntry entry) {
+      entry.set((long[]) value);
+    } else if (item instanceof StringArrayEntry entry) {
+      entry.set((String[]) value);
     } else {
-      sub = (StringArraySubscriber) item.subscriber;
+      return false;
     }
+    return true;
+  }
 
-    return sub;
+  /**
+   * Watches a topic (relative to the telemetry table, like every other name here) for changes
+   * from anywhere, including the dashboard and our own publishers. Watching the same name twice
+   * returns the same WatchedValue. Values only update when {@link #readUpdates()} runs.
+   */
+  public static WatchedValue watch(String name) {
+    Telemetry telemetry = getTelemetry();
+    for (WatchedValue watched : telemetry.watches) {
+      if (watched.name.equals(name)) {
+        return watched;
+      }
+    }
+    if (telemetry.poller == null) {
+      telemetry.poller = new NetworkTableListenerPoller(telemetry.ntInstance);
+    }
+    // kImmediate also delivers the current value, so a watch starts out up to date
+    int listener =
+        telemetry.poller.addListener(
+            telemetry.telemetryTable.getTopic(name),
+            EnumSet.of(NetworkTableEvent.Kind.kValueAll, NetworkTableEvent.Kind.kImmediate));
+    WatchedValue watched = new WatchedValue(name, listener);
+    telemetry.watches.add(watched);
+    return watched;
   }
 
-  public static Supplier<byte[]> subscribe(String name, byte[] defaultValue, String typeString) {
-    Telemetry table = getTelemetry();
+  /**
+   * Applies every update queued for watched topics since the last call, in one batch. Call once
+   * per loop before the scheduler runs so commands see this loop's values. Returns the number of
+   * updates applied.
+   */
+  public static int readUpdates() {
+    Telemetry telemetry = getTelemetry();
+    if (telemetry.poller == null) {
+      return 0;
+    }
+    NetworkTableEvent[] events = telemetry.poller.readQueue();
+    ArrayList<WatchedValue> watches = telemetry.watches;
+    for (NetworkTableEvent event : events) {
+      if (event.valueData == null) {
+        continue;
+      }
+      // Only a handful of topics are watched, so a scan beats boxing the handle for a map
+      for (int i = 0; i < watches.size(); i++) {
+        WatchedValue watched = watches.get(i);
+        if (watched.listener == event.listener) {
+          watched.update(event.valueData.value);
+          break;
+        }
+      }
+    }
+    return events.length;
+  }
 
-    if (!table.entries.containsKey(name)) {
-      DriverStation.reportWarning(
-          "Telemetry: entry " + name + " does not exist, creating with type byte[]", false);
-      incrementWarningCounter();
-      addReadableValue(name, NetworkTableType.kRaw);
-    }
+  /**
+   * Publishes every value staged since the last flush, all stamped with the same time. Call once
+   * per loop after the scheduler has run. Staged arrays are copied at set(), so callers can reuse
+   * their buffers right away.
+   *
+   * <p>This also advances the loop count used by rate tiers, so it should be called every loop
+   * even when staging is off.
+   */
+  public static void flush() {
+    Telemetry telemetry = getTelemetry();
+    long start = System.nanoTime();
+    long time = NetworkTablesJNI.now();
+
+    TelemetryProfiler profiler = telemetry.profiler;
+    int count = telemetry.dirtyCount;
+    for (int i = 0; i < count; i++) {
+      int index = telemetry.dirtyQueue[i];
+      telemetry.dirty[index] = false;
+      Entry entry = telemetry.slots[index];
+      if (entry == null) {
+        continue; // closed after it was staged
+      }
+      if (profiler == null) {
+        entry.publishStaged(time);
+      } else {
+        long publishStart = System.nanoTime();
+        int bytes = entry.publishStaged(time);
+        profiler.record(index, System.nanoTime() - publishStart, bytes);
+      }
+    }
+    telemetry.dirtyCount = 0;
+    while (telemetry.releasedCount > 0) {
+      telemetry.freeSlots[telemetry.freeCount++] =
+          telemetry.releasedSlots[--telemetry.releasedCount];
+    }
+    if (++telemetry.loopCount % TelemetryConstants.IDLE_SWEEP_LOOPS == 0) {
+      telemetry.sweepIdle();
+    }
+
+    if (profiler != null) {
+      profiler.endLoop();
+    }
+
+    for (int i = 0; i < telemetry.profiles.size(); i++) {
+      telemetry.profiles.get(i).update(telemetry.loopCount);
+    }
+
+    if (telemetry.logger != null) {
+      telemetry.logDroppedEntry.set(telemetry.logger.getDroppedCount());
+    }
+    telemetry.warningCountEntry.set(telemetry.warningCount);
+    Diagnostics.publish();
+
+    // These are staged as well, so the cost of this flush shows up with the next one
+    telemetry.flushCountEntry.set(count);
+    telemetry.flushTimeEntry.set((System.nanoTime() - start) / 1e6);
+  }
 
-    TelemetryItem item = table.entries.get(name);
+  private void stageDouble(int index, double value) {
+    stagedDoubles[index] = value;
+    markDirty(index);
+  }
 
-    RawSubscriber sub;
+  private void stageLong(int index, long value) {
+    stagedLongs[index] = value;
+    markDirty(index);
+  }
 
-    if (item.type != NetworkTableType.kRaw) {
-      DriverStation.reportWarning(
-          "Telemetry: type mismatch during subscribe "
-              + name
-              + ": expected byte[], got "
-              + item.type.getValueStr()
-              + ", returning default value",
-          false);
-      incrementWarningCounter();
-      return () -> defaultValue;
+  private void stageObject(int index, Object value) {
+    stagedObjects[index] = value;
+    markDirty(index);
+  }
+
+  private String getLogName(String name) {
+    return TelemetryConstants.ROOT_NAME + "/" + name;
+  }
+
+  private void mirror(Entry entry) {
+    if (entry.dataLogEnabled) {
+      entry.createLogEntry(dataLog, getLogName(entry.getName()));
+      entry.mirrored = true;
     }
+  }
 
-    if (item.isReadable == false) {
-      sub = ((RawTopic) item.publisher.getTopic()).subscribe(typeString, defaultValue);
-      item.subscribe(sub);
-    } else {
-      sub = (RawSubscriber) item.subscriber;
+  /** Rough payload size of a string array, for the profiler. */
+  private static int sizeOf(String[] value) {
+    int size = 0;
+    for (String string : value) {
+      size += string.length();
     }
+    return size;
+  }
 
-    return sub;
+  private void log(int index, byte kind, long payload, long time) {
+    if (logger != null) {
+      logger.append(index, kind, time, payload);
+    }
   }
 
-  public static BooleanSupplier subscribe(String name, boolean defaultValue) {
-    Telemetry table = getTelemetry();
+  private void logNow(int index, byte kind, long payload) {
+    if (logger != null) {
+      logger.append(index, kind, NetworkTablesJNI.now(), payload);
+    }
+  }
 
-    if (!table.entries.containsKey(name)) {
-      DriverStation.reportWarning(
-          "Telemetry: entry " + name + " does not exist, creating with type boolean", false);
-      incrementWarningCounter();
-      addReadableValue(name, NetworkTableType.kBoolean);
+  private void markDirty(int index) {
+    if (!dirty[index]) {
+      dirty[index] = true;
+      dirtyQueue[dirtyCount++] = index;
+    }
+  }
+
+  /**
+   * Gives the entry a slot in the staging buffers, reusing one freed by a closed entry if there is
+   * one and growing the buffers otherwise.
+   */
+  private void allocateSlot(Entry entry) {
+    if (freeCount == 0 && slotCount == slots.length) {
+      int capacity = slots.length * 2;
+      slots = Arrays.copyOf(slots, capacity);
+      stagedDoubles = Arrays.copyOf(stagedDoubles, capacity);
+      stagedLongs = Arrays.copyOf(stagedLongs, capacity);
+      stagedObjects = Arrays.copyOf(stagedObjects, capacity);
+      dirty = Arrays.copyOf(dirty, capacity);
+      dirtyQueue = Arrays.copyOf(dirtyQueue, capacity);
+      freeSlots = Arrays.copyOf(freeSlots, capacity);
+      releasedSlots = Arrays.copyOf(releasedSlots, capacity);
+    }
+    entry.owner = this;
+    entry.index = freeCount > 0 ? freeSlots[--freeCount] : slotCount++;
+    slots[entry.index] = entry;
+    if (logger != null) {
+      logger.define(entry.index, entry.getType(), entry.getName());
+    }
+    if (dataLog != null) {
+      mirror(entry);
+    }
+    if (profiler != null) {
+      profiler.define(entry.index, entry.getName());
     }
+  }
 
-    TelemetryItem item = table.entries.get(name);
+  /**
+   * Creates a write-only entry and returns its handle. The handle type follows the requested
+   * {@link NetworkTableType}, e.g. {@code DoubleEntry pos = Telemetry.addValue("pos", kDouble);}
+   */
+  public static <T extends Entry> T addValue(
+      String name, NetworkTableType type, PubSubOption... options) {
+    return add(name, type, false, null, options);
+  }
 
-    BooleanSubscriber sub;
+  /** Same as {@link #addValue}, but the handle only publishes when the policy allows it. */
+  public static <T extends Entry> T addValue(
+      String name, NetworkTableType type, PublishPolicy policy, PubSubOption... options) {
+    return add(name, type, false, policy, options);
+  }
 
-    if (item.type != NetworkTableType.kBoolean) {
-      DriverStation.reportWarning(
-          "Telemetry: type mismatch during subscribe "
-              + name
-              + ": expected boolean, got "
-              + item.type.getValueStr()
-              + ", returning default value",
-          false);
-      incrementWarningCounter();
-      return () -> defaultValue;
+  /** Same as {@link #addValue}, but the entry can also be read back with getValue/subscribe. */
+  public static <T extends Entry> T addReadableValue(
+      String name, NetworkTableType type, PubSubOption... options) {
+    return add(name, type, true, null, options);
+  }
+
+  /** Readable version of {@link #addValue(String, NetworkTableType, PublishPolicy, ...)}. */
+  public static <T extends Entry> T addReadableValue(
+      String name, NetworkTableType type, PublishPolicy policy, PubSubOption... options) {
+    return add(name, type, true, policy, options);
+  }
+
+  /**
+   * Creates an entry that publishes values packed with the given struct, e.g. {@code
+   * Telemetry.addStructValue("Swerve/Pose", Pose2d.struct)}. Write-only until the first get(),
+   * which subscribes.
+   */
+  public static <T> StructEntry<T> addStructValue(
+      String name, Struct<T> struct, PubSubOption... options) {
+    return addStructValue(name, struct, null, options);
+  }
+
+  public static <T> StructEntry<T> addStructValue(
+      String name, Struct<T> struct, PublishPolicy policy, PubSubOption... options) {
+    return addStructValue(null, name, struct, policy, options);
+  }
+
+  @SuppressWarnings("unchecked")
+  static <T> StructEntry<T> addStructValue(
+      TelemetryNamespace namespace,
+      String key,
+      Struct<T> struct,
+      PublishPolicy policy,
+      PubSubOption... options) {
+    Telemetry telemetry = getTelemetry();
+    String name = namespace == null ? key : namespace.resolve(key);
+    Entry existing = telemetry.entries.get(name);
+    if (existing != null) {
+      // Same struct type string means the same struct, so the cast holds
+      return (StructEntry<T>)
+          checkExisting(existing, StructEntry.class, struct.getTypeString(), false, policy);
+    }
+    telemetry.ntInstance.addSchema(struct);
+    if (namespace != null && policy == null) {
+      policy = PublishPolicy.always();
+    }
+    NetworkTable table = namespace == null ? telemetry.telemetryTable : namespace.table;
+    RawTopic topic = table.getRawTopic(key);
+    options = withPolicyOptions(policy, options);
+    StructEntry<T> entry = telemetry.track(new StructEntry<T>(name, topic, struct, false, options));
+    entry.namespace = namespace;
+    telemetry.applyPolicy(entry, policy);
+    return entry;
+  }
+
+  /** Array version of {@link #addStructValue}, e.g. for {@code SwerveModuleState.struct}. */
+  public static <T> StructArrayEntry<T> addStructArrayValue(
+      String name, Struct<T> struct, PubSubOption... options) {
+    return addStructArrayValue(name, struct, null, options);
+  }
+
+  public static <T> StructArrayEntry<T> addStructArrayValue(
+      String name, Struct<T> struct, PublishPolicy policy, PubSubOption... options) {
+    return addStructArrayValue(null, name, struct, policy, options);
+  }
+
+  @SuppressWarnings("unchecked")
+  static <T> StructArrayEntry<T> addStructArrayValue(
+      TelemetryNamespace namespace,
+      String key,
+      Struct<T> struct,
+      PublishPolicy policy,
+      PubSubOption... options) {
+    Telemetry telemetry = getTelemetry();
+    String name = namespace == null ? key : namespace.resolve(key);
+    Entry existing = telemetry.entries.get(name);
+    if (existing != null) {
+      return (StructArrayEntry<T>)
+          checkExisting(
+              existing, StructArrayEntry.class, struct.getTypeString() + "[]", false, policy);
+    }
+    telemetry.ntInstance.addSchema(struct);
+    if (namespace != null && policy == null) {
+      policy = PublishPolicy.always();
+    }
+    NetworkTable table = namespace == null ? telemetry.telemetryTable : namespace.table;
+    RawTopic topic = table.getRawTopic(key);
+    options = withPolicyOptions(policy, options);
+    StructArrayEntry<T> entry =
+        telemetry.track(new StructArrayEntry<T>(name, topic, struct, options));
+    entry.namespace = namespace;
+    telemetry.applyPolicy(entry, policy);
+    return entry;
+  }
+
+  /**
+   * Creates a raw entry that publishes from a ByteBuffer without per-call allocation. The type
+   * string tells dashboards and logs how to decode it, e.g. "photonvision" or "msgpack".
+   */
+  public static RawBufferEntry addRawBufferValue(
+      String name, String typeString, PubSubOption... options) {
+    return addRawBufferValue(name, typeString, null, options);
+  }
+
+  public static RawBufferEntry addRawBufferValue(
+      String name, String typeString, PublishPolicy policy, PubSubOption... options) {
+    return addRawBufferValue(null, name, typeString, policy, options);
+  }
+
+  static RawBufferEntry addRawBufferValue(
+      TelemetryNamespace namespace,
+      String key,
+      String typeString,
+      PublishPolicy policy,
+      PubSubOption... options) {
+    Telemetry telemetry = getTelemetry();
+    String name = namespace == null ? key : namespace.resolve(key);
+    Entry existing = telemetry.entries.get(name);
+    if (existing != null) {
+      return (RawBufferEntry)
+          checkExisting(existing, RawBufferEntry.class, typeString, false, policy);
+    }
+    if (namespace != null && policy == null) {
+      policy = PublishPolicy.always();
+    }
+    NetworkTable table = namespace == null ? telemetry.telemetryTable : namespace.table;
+    RawTopic topic = table.getRawTopic(key);
+    options = withPolicyOptions(policy, options);
+    RawBufferEntry entry =
+        telemetry.track(new RawBufferEntry(name, topic, typeString, false, options));
+    entry.namespace = namespace;
+    telemetry.applyPolicy(entry, policy);
+    return entry;
+  }
+
+  /**
+   * Creates a packed group of named booleans, bit i named bitNames[i], see {@link FlagsEntry}.
+   * Returns null, with a warning, if there are more than 64 names.
+   */
+  public static FlagsEntry addFlagsValue(String name, String[] bitNames, PubSubOption... options) {
+    return addFlagsValue(null, name, bitNames, null, options);
+  }
+
+  public static FlagsEntry addFlagsValue(
+      String name, String[] bitNames, PublishPolicy policy, PubSubOption... options) {
+    return addFlagsValue(null, name, bitNames, policy, options);
+  }
+
+  static FlagsEntry addFlagsValue(
+      TelemetryNamespace namespace,
+      String key,
+      String[] bitNames,
+      PublishPolicy policy,
+      PubSubOption... options) {
+    if (bitNames.length > Long.SIZE) {
+      String name = namespace == null ? key : namespace.resolve(key);
+      Diagnostics.report(
+          warningKey("Telemetry: too many flags", name),
+          "Telemetry: " + name + " has " + bitNames.length + " flags, the most is " + Long.SIZE);
+      return null;
+    }
+    IntegerEntry entry = add(namespace, key, NetworkTableType.kInteger, false, policy, options);
+    if (entry == null) {
+      return null;
+    }
+    entry.publisher.getTopic().setProperty("bits", toJson(bitNames));
+    return new FlagsEntry(entry, bitNames);
+  }
+
+  /** A JSON array of strings, for topic properties. */
+  private static String toJson(String[] values) {
+    StringBuilder json = new StringBuilder("[");
+    for (int i = 0; i < values.length; i++) {
+      if (i > 0) {
+        json.append(',');
+      }
+      json.append('"').append(values[i].replace("\\", "\\\\").replace("\"", "\\\"")).append('"');
     }
+    return json.append(']').toString();
+  }
 
-    if (item.isReadable == false) {
-      sub = ((BooleanTopic) item.publisher.getTopic()).subscribe(defaultValue);
-      item.subscribe(sub);
-    } else {
-      sub = (BooleanSubscriber) item.subscriber;
+  private static <T extends Entry> T add(
+      String name,
+      NetworkTableType type,
+      boolean readable,
+      PublishPolicy policy,
+      PubSubOption... options) {
+    return add(null, name, type, readable, policy, options);
+  }
+
+  /** Adds an entry, relative to namespace if it isn't null. Used by TelemetryNamespace. */
+  @SuppressWarnings("unchecked")
+  static <T extends Entry> T add(
+      TelemetryNamespace namespace,
+      String key,
+      NetworkTableType type,
+      boolean readable,
+      PublishPolicy policy,
+      PubSubOption... options) {
+    Telemetry telemetry = getTelemetry();
+    String name = namespace == null ? key : namespace.resolve(key);
+    Entry existing = telemetry.entries.get(name);
+    if (existing != null) {
+      return (T)
+          checkExisting(existing, ENTRY_CLASSES.get(type), type.getValueStr(), readable, policy);
+    }
+    if (namespace != null && policy == null) {
+      // isDue() is only consulted for entries with a policy, and it's what checks the namespace
+      policy = PublishPolicy.always();
+    }
+    NetworkTable table = namespace == null ? telemetry.telemetryTable : namespace.table;
+    options = withPolicyOptions(policy, options);
+    Entry entry = telemetry.register(table, key, name, type, readable, options);
+    if (entry != null) {
+      entry.namespace = namespace;
+      telemetry.applyPolicy(entry, policy);
+    }
+    return (T) entry;
+  }
+
+  /**
+   * Checks an entry that's being added again against what the new registration would create.
+   * Returns it if it has the same handle class and type string, else reports the mismatch and
+   * returns null. Checked here, once, so the handle's set()/get() never need to check again. The
+   * class is compared, not the NT type, since struct and raw buffer entries are kRaw too.
+   */
+  private static Entry checkExisting(
+      Entry existing,
+      Class<?> entryClass,
+      String typeString,
+      boolean readable,
+      PublishPolicy policy) {
+    String name = existing.getName();
+    if (existing.getClass() != entryClass || !existing.getTypeString().equals(typeString)) {
+      reportTypeMismatch("add", name, typeString, existing);
+      return null;
+    }
+    if (readable) {
+      existing.makeReadable();
+    }
+    if (policy != null && policy != existing.policy) {
+      // The publisher's options can't change, so the first registration's policy stays
+      Diagnostics.report(
+          warningKey("Telemetry: entry added again with a different policy", name),
+          "Telemetry: entry " + name + " already exists, keeping its publish policy");
+    }
+    return existing;
+  }
+
+  /**
+   * Looks up an existing entry as the given handle class, e.g. {@code
+   * Telemetry.getEntry("Power/Voltage", DoubleEntry.class)}. The type is checked here, so code
+   * that only knows an entry by name can bind to it once and then call set() directly. Returns
+   * null, with a warning, if there is no such entry or it has a different type.
+   */
+  public static <T extends Entry> T getEntry(String name, Class<T> type) {
+    Entry item = getTelemetry().entries.get(name);
+    if (item == null) {
+      Diagnostics.report(
+          warningKey("Telemetry: entry does not exist", name),
+          "Telemetry: entry " + name + " does not exist");
+      return null;
+    }
+    if (!type.isInstance(item)) {
+      reportTypeMismatch("getEntry", name, type.getSimpleName(), item);
+      return null;
+    }
+    return type.cast(item);
+  }
+
+  /** Closes the entry with this name, see {@link Entry#close()}. False if there isn't one. */
+  public static boolean remove(String name) {
+    Telemetry telemetry = getTelemetry();
+    Entry item = telemetry.entries.get(name);
+    if (item == null) {
+      return false;
     }
+    telemetry.release(item);
+    return true;
+  }
 
-    return sub;
+  /** The number of open entries. */
+  public static int getEntryCount() {
+    return getTelemetry().entries.size();
   }
 
-  public static Supplier<boolean[]> subscribe(String name, boolean[] defaultValue) {
-    Telemetry table = getTelemetry();
+  private static PubSubOption[] withPolicyOptions(PublishPolicy policy, PubSubOption[] options) {
+    if (policy != null && policy.hasHeartbeat()) {
+      // NT drops repeated identical values by default, which would swallow the heartbeat
+      options = Arrays.copyOf(options, options.length + 1);
+      options[options.length - 1] = PubSubOption.keepDuplicates(true);
+    }
+    return options;
+  }
 
-    if (!table.entries.containsKey(name)) {
-      DriverStation.reportWarning(
-          "Telemetry: entry " + name + " does not exist, creating with type boolean[]", false);
-      incrementWarningCounter();
-      addReadableValue(name, NetworkTableType.kBooleanArray);
+  private void applyPolicy(Entry entry, PublishPolicy policy) {
+    if (policy != null) {
+      entry.policy = policy;
+      entry.ratePeriod = policy.getRatePeriod();
+      entry.ratePhase = nextRatePhase++ % entry.ratePeriod;
     }
+  }
 
-    TelemetryItem item = table.entries.get(name);
+  private Entry register(
+      String name, NetworkTableType type, boolean readable, PubSubOption... options) {
+    return register(telemetryTable, name, name, type, readable, options);
+  }
 
-    BooleanArraySubscriber sub;
+  private Entry register(
+      NetworkTable table,
+      String key,
+      String name,
+      NetworkTableType type,
+      boolean readable,
+      PubSubOption... options) {
+    EntryFactory factory = FACTORIES.get(type);
+    if (factory == null) {
+      Diagnostics.Key warning = warningKey("Telemetry: invalid type", name);
+      if (Diagnostics.count(warning)) {
+        Diagnostics.emit(
+            warning, "Telemetry: invalid type " + type.getValueStr() + " for entry " + name);
+      }
+      return null;
+    }
+    return track(factory.create(table, key, name, readable, options));
+  }
 
-    if (item.type != NetworkTableType.kBooleanArray) {
-      DriverStation.reportWarning(
-          "Telemetry: type mismatch during subscribe "
-              + name
-              + ": expected boolean[], got "
-              + item.type.getValueStr()
-              + ", returning default value",
-          false);
-      incrementWarningCounter();
-      return () -> defaultValue;
+  /**
+   * Closes an entry and gives back its name and slot. Anything that remembers a slot (the
+   * logger, profiler and snapshot) is told again when the slot is reused.
+   */
+  private void release(Entry entry) {
+    if (entry.closed) {
+      return;
+    }
+    entry.closed = true;
+    if (entry.policy == null) {
+      entry.policy = PublishPolicy.always(); // so set() reaches isDue(), which now says no
     }
+    if (entries.get(entry.getName()) == entry) {
+      entries.remove(entry.getName());
+    }
+    entry.closeHandles();
+    entry.mirrored = false;
 
-    if (item.isReadable == false) {
-      sub = ((BooleanArrayTopic) item.publisher.getTopic()).subscribe(defaultValue);
-      item.subscribe(sub);
+    int index = entry.index;
+    slots[index] = null;
+    stagedObjects[index] = null;
+    if (snapshots != null) {
+      snapshots.release(index);
+    }
+    if (dirty[index]) {
+      releasedSlots[releasedCount++] = index;
     } else {
-      sub = (BooleanArraySubscriber) item.subscriber;
+      freeSlots[freeCount++] = index;
     }
+  }
 
-    return sub;
+  /** Closes entries with an idle timeout that haven't been set for that many sweeps in a row. */
+  private void sweepIdle() {
+    for (int i = 0; i < slotCount; i++) {
+      Entry entry = slots[i];
+      if (entry == null || entry.idleSweepLimit == 0) {
+        continue;
+      }
+      if (entry.written) {
+        entry.written = false;
+        entry.idleSweeps = 0;
+      } else if (++entry.idleSweeps >= entry.idleSweepLimit) {
+        release(entry);
+      }
+    }
   }
 
-  public static void subscribe(String name, Object defaultValue) {
-    DriverStation.reportWarning(
-        "Telemetry: generic subscribe() called for "
-            + name
-            + " with type "
-            + defaultValue.getClass().getName()
-            + ", expected primitive",
-        false);
-    incrementWarningCounter();
+  /** Gives a newly created entry its slot and makes it reachable by name. */
+  private <T extends Entry> T track(T entry) {
+    allocateSlot(entry);
+    entries.put(entry.getName(), entry);
+    return entry;
   }
 
-  public static void subscribe(String name, Object[] defaultValue) {
-    DriverStation.reportWarning(
-        "Telemetry: generic subscribe() called for "
-            + name
-            + " with type "
-            + defaultValue.getClass().getName()
-            + "[], expected primitive[]",
-        false);
-    incrementWarningCounter();
+  /** Looks up an entry by name, creating it (with a warning) if it has not been added yet. */
+  private static Entry getOrAddEntry(
+      String name, NetworkTableType type, String typeName, boolean readable) {
+    Entry item = getTelemetry().entries.get(name);
+    if (item == null) {
+      Diagnostics.Key key = warningKey("Telemetry: entry does not exist", name);
+      if (Diagnostics.count(key)) {
+        Diagnostics.emit(
+            key, "Telemetry: entry " + name + " does not exist, creating with type " + typeName);
+      }
+      item = add(name, type, readable, null);
+      if (item != null && !readable && TelemetryConstants.IMPLICIT_IDLE_TIMEOUT_SECONDS > 0) {
+        // Opt in: only writes count, so reads by name are kept
+        item.setIdleTimeout(TelemetryConstants.IMPLICIT_IDLE_TIMEOUT_SECONDS);
+      }
+    }
+    return item;
   }
 
-  public static double getValue(String name, double defaultValue) {
-    Telemetry table = getTelemetry();
+  /**
+   * Counts a warning and returns its Diagnostics key, interned per category and entry name so a
+   * call that fails every loop is only printed now and then.
+   */
+  private static Diagnostics.Key warningKey(String category, String name) {
+    incrementWarningCounter();
+    return Diagnostics.key(Diagnostics.Severity.WARNING, category, name);
+  }
 
-    if (!table.entries.containsKey(name)) {
-      DriverStation.reportWarning(
-          "Telemetry: entry " + name + " does not exist, creating with type double", false);
-      incrementWarningCounter();
-      addReadableValue(name, NetworkTableType.kDouble);
+  private static void reportTypeMismatch(
+      String operation, String name, String expected, Entry item) {
+    Diagnostics.Key key = warningKey("Telemetry: type mismatch", name);
+    if (Diagnostics.count(key)) {
+      Diagnostics.emit(
+          key,
+          "Telemetry: type mismatch during "
+              + operation
+              + " "
+              + name
+              + ": expected "
+              + expected
+              + ", got "
+              + item.getTypeString());
+    }
+    TelemetryProfiler profiler = getTelemetry().profiler;
+    if (profiler != null) {
+      profiler.recordMismatch(item.index);
     }
+  }
 
-    TelemetryItem item = table.entries.get(name);
-    if (item.isReadable == false) {
-      DriverStation.reportWarning(
+  private static void reportNotReadable(String name, String typeName) {
+    Diagnostics.Key key = warningKey("Telemetry: entry not readable", name);
+    if (Diagnostics.count(key)) {
+      Diagnostics.emit(
+          key,
           "Telemetry: entry "
               + name
-              + " [double] is not readable. Create with addReadableValue or subscribe before reading.",
-          false);
-      incrementWarningCounter();
-      return defaultValue;
+              + " ["
+              + typeName
+              + "] is not readable. Create with addReadableValue or subscribe before reading.");
     }
+  }
 
-    if (item.type == NetworkTableType.kDouble) {
-      return ((DoubleSubscriber) item.subscriber).get(defaultValue);
+  public static void setValue(String name, boolean value) {
+    Entry item = getOrAddEntry(name, NetworkTableType.kBoolean, "boolean", false);
+    if (item instanceof BooleanEntry entry) {
+      entry.set(value);
     } else {
-      DriverStation.reportWarning(
-          "Telemetry: type mismatch during get "
-              + name
-              + ": expected double, got "
-              + item.type.getValueStr(),
-          false);
-      incrementWarningCounter();
-      return defaultValue;
+      reportTypeMismatch("get", name, "boolean", item);
     }
   }
 
-  public static boolean getValue(String name, boolean defaultValue) {
-    Telemetry table = getTelemetry();
+  public static void setValue(String name, boolean[] value) {
+    Entry item = getOrAddEntry(name, NetworkTableType.kBooleanArray, "boolean[]", false);
+    if (item instanceof BooleanArrayEntry entry) {
+      entry.set(value);
+    } else {
+      reportTypeMismatch("get", name, "boolean[]", item);
+    }
+  }
 
-    if (!table.entries.containsKey(name)) {
-      DriverStation.reportWarning(
-          "Telemetry: entry " + name + " does not exist, creating with type boolean", false);
-      incrementWarningCounter();
-      addReadableValue(name, NetworkTableType.kBoolean);
+  public static void setValue(String name, double value) {
+    Entry item = getOrAddEntry(name, NetworkTableType.kDouble, "double", false);
+    if (item instanceof DoubleEntry entry) {
+      entry.set(value);
+    } else {
+      reportTypeMismatch("get", name, "double", item);
     }
+  }
 
-    TelemetryItem item = table.entries.get(name);
+  public static void setValue(String name, Double value) {
+    setValue(name, value.doubleValue());
+  }
 
-    if (item.isReadable == false) {
-      DriverStation.reportWarning(
-          "Telemetry: entry "
-              + name
-              + " [boolean] is not readable. Create with addReadableValue or subscribe before reading.",
-          false);
-      incrementWarningCounter();
-      return defaultValue;
+  public static void setValue(String name, double[] value) {
+    Entry item = getOrAddEntry(name, NetworkTableType.kDoubleArray, "double[]", false);
+    if (item instanceof DoubleArrayEntry entry) {
+      entry.set(value);
+    } else {
+      reportTypeMismatch("get", name, "double[]", item);
     }
+  }
 
-    if (item.type == NetworkTableType.kBoolean) {
-      return ((BooleanSubscriber) item.subscriber).get(defaultValue);
+  public static void setValue(String name, Double[] value) {
+    Entry item = getOrAddEntry(name, NetworkTableType.kDoubleArray, "double[]", false);
+    if (item instanceof DoubleArrayEntry entry) {
+      // Unbox into the entry's own array instead of a new one every call
+      double[] doubleValue = entry.buffer(value.length);
+      for (int i = 0; i < value.length; i++) {
+        doubleValue[i] = value[i].doubleValue();
+      }
+      entry.set(doubleValue);
     } else {
-      DriverStation.reportWarning(
-          "Telemetry: type mismatch during get "
-              + name
-              + ": expected boolean, got "
-              + item.type.getValueStr(),
-          false);
-      incrementWarningCounter();
-      return defaultValue;
+      reportTypeMismatch("get", name, "double[]", item);
     }
   }
 
-  public static double[] getValue(String name, double[] defaultValue) {
-    Telemetry table = getTelemetry();
+  public static void setValue(String name, float value) {
+    Entry item = getOrAddEntry(name, NetworkTableType.kFloat, "float", false);
+    if (item instanceof FloatEntry entry) {
+      entry.set(value);
+    } else {
+      reportTypeMismatch("get", name, "float", item);
+    }
+  }
 
-    if (!table.entries.containsKey(name)) {
-      DriverStation.reportWarning(
-          "Telemetry: entry " + name + " does not exist, creating with type double[]", false);
-      incrementWarningCounter();
-      addReadableValue(name, NetworkTableType.kDoubleArray);
+  public static void setValue(String name, Float value) {
+    setValue(name, value.floatValue());
+  }
+
+  public static void setValue(String name, float[] value) {
+    Entry item = getOrAddEntry(name, NetworkTableType.kFloatArray, "float[]", false);
+    if (item instanceof FloatArrayEntry entry) {
+      entry.set(value);
+    } else {
+      reportTypeMismatch("get", name, "float[]", item);
+    }
+  }
+
+  public static void setValue(String name, Float[] value) {
+    Entry item = getOrAddEntry(name, NetworkTableType.kFloatArray, "float[]", false);
+    if (item instanceof FloatArrayEntry entry) {
+      // Unbox into the entry's own array instead of a new one every call
+      float[] floatValue = entry.buffer(value.length);
+      for (int i = 0; i < value.length; i++) {
+        floatValue[i] = value[i].floatValue();
+      }
+      entry.set(floatValue);
+    } else {
+      reportTypeMismatch("get", name, "float[]", item);
     }
+  }
 
-    TelemetryItem item = table.entries.get(name);
+  public static void setValue(String name, int value) {
+    Entry item = getOrAddEntry(name, NetworkTableType.kInteger, "int", false);
+    if (item instanceof IntegerEntry entry) {
+      entry.set(value);
+    } else {
+      reportTypeMismatch("get", name, "int", item);
+    }
+  }
 
-    if (item.isReadable == false) {
-      DriverStation.reportWarning(
-          "Telemetry: entry "
-              + name
-              + " [double[]] is not readable. Create with addReadableValue or subscribe before reading.",
-          false);
-      incrementWarningCounter();
-      return defaultValue;
+  public static void setValue(String name, Integer value) {
+    setValue(name, value.intValue());
+  }
+
+  public static void setValue(String name, long[] value) {
+    Entry item = getOrAddEntry(name, NetworkTableType.kIntegerArray, "int[]", false);
+    if (item instanceof IntegerArrayEntry entry) {
+      entry.set(value);
+    } else {
+      reportTypeMismatch("get", name, "int[]", item);
     }
+  }
 
-    if (item.type == NetworkTableType.kDoubleArray) {
-      return ((DoubleArraySubscriber) item.subscriber).get(defaultValue);
+  public static void setValue(String name, Long[] value) {
+    Entry item = getOrAddEntry(name, NetworkTableType.kIntegerArray, "int[]", false);
+    if (item instanceof IntegerArrayEntry entry) {
+      // Unbox into the entry's own array instead of a new one every call
+      long[] longValue = entry.buffer(value.length);
+      for (int i = 0; i < value.length; i++) {
+        longValue[i] = value[i].longValue();
+      }
+      entry.set(longValue);
     } else {
-      DriverStation.reportWarning(
-          "Telemetry: type mismatch during get "
-              + name
-              + ": expected double[], got "
-              + item.type.getValueStr(),
-          false);
-      incrementWarningCounter();
-      return defaultValue;
+      reportTypeMismatch("get", name, "int[]", item);
     }
   }
 
-  public static boolean[] getValue(String name, boolean[] defaultValue) {
-    Telemetry table = getTelemetry();
+  public static void setValue(String name, String value) {
+    Entry item = getOrAddEntry(name, NetworkTableType.kString, "String", false);
+    if (item instanceof StringEntry entry) {
+      entry.set(value);
+    } else {
+      reportTypeMismatch("get", name, "String", item);
+    }
+  }
 
-    if (!table.entries.containsKey(name)) {
-      DriverStation.reportWarning(
-          "Telemetry: entry " + name + " does not exist, creating with type boolean[]", false);
-      incrementWarningCounter();
-      addReadableValue(name, NetworkTableType.kBooleanArray);
+  public static void setValue(String name, String[] value) {
+    Entry item = getOrAddEntry(name, NetworkTableType.kStringArray, "String[]", false);
+    if (item instanceof StringArrayEntry entry) {
+      entry.set(value);
+    } else {
+      reportTypeMismatch("get", name, "String[]", item);
     }
+  }
 
-    TelemetryItem item = table.entries.get(name);
+  public static void setValue(String name, byte[] value) {
+    Entry item = getOrAddEntry(name, NetworkTableType.kRaw, "byte[]", false);
+    if (item instanceof RawEntry entry) {
+      entry.set(value);
+    } else {
+      reportTypeMismatch("get", name, "byte[]", item);
+    }
+  }
 
-    if (item.isReadable == false) {
-      DriverStation.reportWarning(
-          "Telemetry: entry "
+  public static void setValue(String name, Object value) {
+    Diagnostics.Key key = warningKey("Telemetry: generic setValue()", name);
+    if (Diagnostics.count(key)) {
+      Diagnostics.emit(
+          key,
+          "Telemetry: generic setValue() called for "
               + name
-              + " [boolean[]] is not readable. Create with addReadableValue or subscribe before reading.",
-          false);
-      incrementWarningCounter();
-      return defaultValue;
+              + " with type "
+              + value.getClass().getName()
+              + ", expected primitive");
     }
+  }
 
-    if (item.type == NetworkTableType.kBooleanArray) {
-      return ((BooleanArraySubscriber) item.subscriber).get(defaultValue);
-    } else {
-      DriverStation.reportWarning(
-          "Telemetry: type mismatch during get "
+  public static void setValue(String name, Object[] value) {
+    Diagnostics.Key key = warningKey("Telemetry: generic setValue()", name);
+    if (Diagnostics.count(key)) {
+      Diagnostics.emit(
+          key,
+          "Telemetry: generic setValue() called for "
               + name
-              + ": expected boolean[], got "
-              + item.type.getValueStr(),
-          false);
-      incrementWarningCounter();
-      return defaultValue;
+              + " with type "
+              + value.getClass().getName()
+              + "[], expected primitive[]");
     }
   }
 
-  public static float getValue(String name, float defaultValue) {
-    Telemetry table = getTelemetry();
+  public static DoubleSupplier subscribe(String name, double defaultValue) {
+    Entry item = getOrAddEntry(name, NetworkTableType.kDouble, "double", true);
 
-    if (!table.entries.containsKey(name)) {
-      DriverStation.reportWarning(
-          "Telemetry: entry " + name + " does not exist, creating with type float", false);
-      incrementWarningCounter();
-      addReadableValue(name, NetworkTableType.kFloat);
+    if (item instanceof DoubleEntry entry) {
+      return entry.subscribe(defaultValue);
     }
 
-    TelemetryItem item = table.entries.get(name);
+    reportTypeMismatch("subscribe", name, "double", item);
+    return () -> defaultValue;
+  }
 
-    if (item.isReadable == false) {
-      DriverStation.reportWarning(
-          "Telemetry: entry "
-              + name
-              + " [float] is not readable. Create with addReadableValue or subscribe before reading.",
-          false);
-      incrementWarningCounter();
-      return defaultValue;
+  public static Supplier<double[]> subscribe(String name, double[] defaultValue) {
+    Entry item = getOrAddEntry(name, NetworkTableType.kDoubleArray, "double[]", true);
+
+    if (item instanceof DoubleArrayEntry entry) {
+      return entry.subscribe(defaultValue);
     }
 
-    if (item.type == NetworkTableType.kFloat) {
-      return ((FloatSubscriber) item.subscriber).get(defaultValue);
-    } else {
-      DriverStation.reportWarning(
-          "Telemetry: type mismatch during get "
-              + name
-              + ": expected float, got "
-              + item.type.getValueStr(),
-          false);
-      incrementWarningCounter();
-      return defaultValue;
+    reportTypeMismatch("subscribe", name, "double[]", item);
+    return () -> defaultValue;
+  }
+
+  public static FloatSupplier subscribe(String name, float defaultValue) {
+    Entry item = getOrAddEntry(name, NetworkTableType.kFloat, "float", true);
+
+    if (item instanceof FloatEntry entry) {
+      return entry.subscribe(defaultValue);
     }
+
+    reportTypeMismatch("subscribe", name, "float", item);
+    return () -> defaultValue;
   }
 
-  public static float[] getValue(String name, float[] defaultValue) {
-    Telemetry table = getTelemetry();
+  public static Supplier<float[]> subscribe(String name, float[] defaultValue) {
+    Entry item = getOrAddEntry(name, NetworkTableType.kFloatArray, "float[]", true);
 
-    if (!table.entries.containsKey(name)) {
-      DriverStation.reportWarning(
-          "Telemetry: entry " + name + " does not exist, creating with type float[]", false);
-      incrementWarningCounter();
-      addReadableValue(name, NetworkTableType.kFloatArray);
+    if (item instanceof FloatArrayEntry entry) {
+      return entry.subscribe(defaultValue);
     }
 
-    TelemetryItem item = table.entries.get(name);
+    reportTypeMismatch("subscribe", name, "float[]", item);
+    return () -> defaultValue;
+  }
+
+  public static LongSupplier subscribe(String name, int defaultValue) {
+    Entry item = getOrAddEntry(name, NetworkTableType.kInteger, "int", true);
 
-    if (item.isReadable == false) {
-      DriverStation.reportWarning(
-          "Telemetry: entry "
-              + name
-              + " [float[]] is not readable. Create with addReadableValue or subscribe before reading.",
-          false);
-      incrementWarningCounter();
-      return defaultValue;
+    if (item instanceof IntegerEntry entry) {
+      return entry.subscribe(defaultValue);
     }
 
-    if (item.type == NetworkTableType.kFloatArray) {
-      return ((FloatArraySubscriber) item.subscriber).get(defaultValue);
-    } else {
-      DriverStation.reportWarning(
-          "Telemetry: type mismatch during get "
-              + name
-              + ": expected float[], got "
-              + item.type.getValueStr(),
-          false);
-      incrementWarningCounter();
-      return defaultValue;
+    reportTypeMismatch("subscribe", name, "int", item);
+    return () -> defaultValue;
+  }
+
+  public static Supplier<long[]> subscribe(String name, long[] defaultValue) {
+    Entry item = getOrAddEntry(name, NetworkTableType.kIntegerArray, "int[]", true);
+
+    if (item instanceof IntegerArrayEntry entry) {
+      return entry.subscribe(defaultValue);
     }
+
+    reportTypeMismatch("subscribe", name, "int[]", item);
+    return () -> defaultValue;
   }
 
-  public static long getValue(String name, int defaultValue) {
-    Telemetry table = getTelemetry();
+  public static Supplier<String> subscribe(String name, String defaultValue) {
+    Entry item = getOrAddEntry(name, NetworkTableType.kString, "String", true);
 
-    if (!table.entries.containsKey(name)) {
-      DriverStation.reportWarning(
-          "Telemetry: entry " + name + " does not exist, creating with type int", false);
-      incrementWarningCounter();
-      addReadableValue(name, NetworkTableType.kInteger);
+    if (item instanceof StringEntry entry) {
+      return entry.subscribe(defaultValue);
     }
 
-    TelemetryItem item = table.entries.get(name);
+    reportTypeMismatch("subscribe", name, "String", item);
+    return () -> defaultValue;
+  }
 
-    if (item.isReadable == false) {
-      DriverStation.reportWarning(
-          "Telemetry: entry "
-              + name
-              + " [int] is not readable. Create with addReadableValue or subscribe before reading.",
-          false);
-      incrementWarningCounter();
-      return defaultValue;
+  public static Supplier<String[]> subscribe(String name, String[] defaultValue) {
+    Entry item = getOrAddEntry(name, NetworkTableType.kStringArray, "String[]", true);
+
+    if (item instanceof StringArrayEntry entry) {
+      return entry.subscribe(defaultValue);
     }
 
-    if (item.type == NetworkTableType.kInteger) {
-      return ((IntegerSubscriber) item.subscriber).get(defaultValue);
-    } else {
-      DriverStation.reportWarning(
-          "Telemetry: type mismatch during get "
-              + name
-              + ": expected int, got "
-              + item.type.getValueStr(),
-          false);
-      incrementWarningCounter();
-      return defaultValue;
+    reportTypeMismatch("subscribe", name, "String[]", item);
+    return () -> defaultValue;
+  }
+
+  public static Supplier<byte[]> subscribe(String name, byte[] defaultValue, String typeString) {
+    Entry item = getOrAddEntry(name, NetworkTableType.kRaw, "byte[]", true);
+
+    if (item instanceof RawEntry entry) {
+      return entry.subscribe(defaultValue, typeString);
     }
+
+    reportTypeMismatch("subscribe", name, "byte[]", item);
+    return () -> defaultValue;
   }
 
-  public static long[] getValue(String name, long[] defaultValue) {
-    Telemetry table = getTelemetry();
+  public static BooleanSupplier subscribe(String name, boolean defaultValue) {
+    Entry item = getOrAddEntry(name, NetworkTableType.kBoolean, "boolean", true);
 
-    if (!table.entries.containsKey(name)) {
-      DriverStation.reportWarning(
-          "Telemetry: entry " + name + " does not exist, creating with type int[]", false);
-      incrementWarningCounter();
-      addReadableValue(name, NetworkTableType.kIntegerArray);
+    if (item instanceof BooleanEntry entry) {
+      return entry.subscribe(defaultValue);
     }
 
-    TelemetryItem item = table.entries.get(name);
+    reportTypeMismatch("subscribe", name, "boolean", item);
+    return () -> defaultValue;
+  }
+
+  public static Supplier<boolean[]> subscribe(String name, boolean[] defaultValue) {
+    Entry item = getOrAddEntry(name, NetworkTableType.kBooleanArray, "boolean[]", true);
 
-    if (item.isReadable == false) {
-      DriverStation.reportWarning(
-          "Telemetry: entry "
+    if (item instanceof BooleanArrayEntry entry) {
+      return entry.subscribe(defaultValue);
+    }
+
+    reportTypeMismatch("subscribe", name, "boolean[]", item);
+    return () -> defaultValue;
+  }
+
+  public static void subscribe(String name, Object defaultValue) {
+    Diagnostics.Key key = warningKey("Telemetry: generic subscribe()", name);
+    if (Diagnostics.count(key)) {
+      Diagnostics.emit(
+          key,
+          "Telemetry: generic subscribe() called for "
               + name
-              + " [int[]] is not readable. Create with addReadableValue or subscribe before reading.",
-          false);
-      incrementWarningCounter();
-      return defaultValue;
+              + " with type "
+              + defaultValue.getClass().getName()
+              + ", expected primitive");
     }
+  }
 
-    if (item.type == NetworkTableType.kIntegerArray) {
-      return ((IntegerArraySubscriber) item.subscriber).get(defaultValue);
-    } else {
-      DriverStation.reportWarning(
-          "Telemetry: type mismatch during get "
+  public static void subscribe(String name, Object[] defaultValue) {
+    Diagnostics.Key key = warningKey("Telemetry: generic subscribe()", name);
+    if (Diagnostics.count(key)) {
+      Diagnostics.emit(
+          key,
+          "Telemetry: generic subscribe() called for "
               + name
-              + ": expected int[], got "
-              + item.type.getValueStr(),
-          false);
-      incrementWarningCounter();
+              + " with type "
+              + defaultValue.getClass().getName()
+              + "[], expected primitive[]");
+    }
+  }
+
+  public static double getValue(String name, double defaultValue) {
+    Entry item = getOrAddEntry(name, NetworkTableType.kDouble, "double", true);
+
+    if (!item.isReadable()) {
+      reportNotReadable(name, "double");
       return defaultValue;
     }
+
+    if (item instanceof DoubleEntry entry) {
+      return entry.get(defaultValue);
+    }
+
+    reportTypeMismatch("get", name, "double", item);
+    return defaultValue;
   }
 
-  public static String getValue(String name, String defaultValue) {
-    Telemetry table = getTelemetry();
+  public static boolean getValue(String name, boolean defaultValue) {
+    Entry item = getOrAddEntry(name, NetworkTableType.kBoolean, "boolean", true);
 
-    if (!table.entries.containsKey(name)) {
-      DriverStation.reportWarning(
-          "Telemetry: entry " + name + " does not exist, creating with type String", false);
-      incrementWarningCounter();
-      addReadableValue(name, NetworkTableType.kString);
+    if (!item.isReadable()) {
+      reportNotReadable(name, "boolean");
+      return defaultValue;
+    }
+
+    if (item instanceof BooleanEntry entry) {
+      return entry.get(defaultValue);
     }
 
-    TelemetryItem item = table.entries.get(name);
+    reportTypeMismatch("get", name, "boolean", item);
+    return defaultValue;
+  }
 
-    if (item.isReadable == false) {
-      DriverStation.reportWarning(
-          "Telemetry: entry "
-              + name
-              + " [String] is not readable. Create with addReadableValue or subscribe before reading.",
-          false);
-      incrementWarningCounter();
+  public static double[] getValue(String name, double[] defaultValue) {
+    Entry item = getOrAddEntry(name, NetworkTableType.kDoubleArray, "double[]", true);
+
+    if (!item.isReadable()) {
+      reportNotReadable(name, "double[]");
       return defaultValue;
     }
 
-    if (item.type == NetworkTableType.kString) {
-      return ((StringSubscriber) item.subscriber).get(defaultValue);
-    } else {
-      DriverStation.reportWarning(
-          "Telemetry: type mismatch during get "
-              + name
-              + ": expected String, got "
-              + item.type.getValueStr(),
-          false);
-      incrementWarningCounter();
+    if (item instanceof DoubleArrayEntry entry) {
+      return entry.get(defaultValue);
+    }
+
+    reportTypeMismatch("get", name, "double[]", item);
+    return defaultValue;
+  }
+
+  public static boolean[] getValue(String name, boolean[] defaultValue) {
+    Entry item = getOrAddEntry(name, NetworkTableType.kBooleanArray, "boolean[]", true);
+
+    if (!item.isReadable()) {
+      reportNotReadable(name, "boolean[]");
       return defaultValue;
     }
+
+    if (item instanceof BooleanArrayEntry entry) {
+      return entry.get(defaultValue);
+    }
+
+    reportTypeMismatch("get", name, "boolean[]", item);
+    return defaultValue;
   }
 
-  public static String[] getValue(String name, String[] defaultValue) {
-    Telemetry table = getTelemetry();
+  public static float getValue(String name, float defaultValue) {
+    Entry item = getOrAddEntry(name, NetworkTableType.kFloat, "float", true);
 
-    if (!table.entries.containsKey(name)) {
-      DriverStation.reportWarning(
-          "Telemetry: entry " + name + " does not exist, creating with type String[]", false);
-      incrementWarningCounter();
-      addReadableValue(name, NetworkTableType.kStringArray);
+    if (!item.isReadable()) {
+      reportNotReadable(name, "float");
+      return defaultValue;
     }
 
-    TelemetryItem item = table.entries.get(name);
+    if (item instanceof FloatEntry entry) {
+      return entry.get(defaultValue);
+    }
 
-    if (item.isReadable == false) {
-      DriverStation.reportWarning(
-          "Telemetry: entry "
-              + name
-              + " [String[]] is not readable. Create with addReadableValue or subscribe before reading.",
-          false);
-      incrementWarningCounter();
+    reportTypeMismatch("get", name, "float", item);
+    return defaultValue;
+  }
+
+  public static float[] getValue(String name, float[] defaultValue) {
+    Entry item = getOrAddEntry(name, NetworkTableType.kFloatArray, "float[]", true);
+
+    if (!item.isReadable()) {
+      reportNotReadable(name, "float[]");
       return defaultValue;
     }
 
-    if (item.type == NetworkTableType.kStringArray) {
-      return ((StringArraySubscriber) item.subscriber).get(defaultValue);
-    } else {
-      DriverStation.reportWarning(
-          "Telemetry: type mismatch during get "
-              + name
-              + ": expected String[], got "
-              + item.type.getValueStr(),
-          false);
-      incrementWarningCounter();
+    if (item instanceof FloatArrayEntry entry) {
+      return entry.get(defaultValue);
+    }
+
+    reportTypeMismatch("get", name, "float[]", item);
+    return defaultValue;
+  }
+
+  public static long getValue(String name, int defaultValue) {
+    Entry item = getOrAddEntry(name, NetworkTableType.kInteger, "int", true);
+
+    if (!item.isReadable()) {
+      reportNotReadable(name, "int");
       return defaultValue;
     }
+
+    if (item instanceof IntegerEntry entry) {
+      return entry.get(defaultValue);
+    }
+
+    reportTypeMismatch("get", name, "int", item);
+    return defaultValue;
   }
 
-  public static byte[] getValue(String name, byte[] defaultValue) {
-    Telemetry table = getTelemetry();
+  public static long[] getValue(String name, long[] defaultValue) {
+    Entry item = getOrAddEntry(name, NetworkTableType.kIntegerArray, "int[]", true);
 
-    if (!table.entries.containsKey(name)) {
-      DriverStation.reportWarning(
-          "Telemetry: entry " + name + " does not exist, creating with type byte[]", false);
-      incrementWarningCounter();
-      addReadableValue(name, NetworkTableType.kRaw);
+    if (!item.isReadable()) {
+      reportNotReadable(name, "int[]");
+      return defaultValue;
     }
 
-    TelemetryItem item = table.entries.get(name);
+    if (item instanceof IntegerArrayEntry entry) {
+      return entry.get(defaultValue);
+    }
 
-    if (item.isReadable == false) {
-      DriverStation.reportWarning(
-          "Telemetry: entry "
-              + name
-              + " [byte[]] is not readable. Create with addReadableValue or subscribe before reading.",
-          false);
-      incrementWarningCounter();
+    reportTypeMismatch("get", name, "int[]", item);
+    return defaultValue;
+  }
+
+  public static String getValue(String name, String defaultValue) {
+    Entry item = getOrAddEntry(name, NetworkTableType.kString, "String", true);
+
+    if (!item.isReadable()) {
+      reportNotReadable(name, "String");
       return defaultValue;
     }
 
-    if (item.type == NetworkTableType.kRaw) {
-      return ((RawSubscriber) item.subscriber).get(defaultValue);
-    } else {
-      DriverStation.reportWarning(
-          "Telemetry: type mismatch during get "
-              + name
-              + ": expected byte[], got "
-              + item.type.getValueStr(),
-          false);
-      incrementWarningCounter();
+    if (item instanceof StringEntry entry) {
+      return entry.get(defaultValue);
+    }
+
+    reportTypeMismatch("get", name, "String", item);
+    return defaultValue;
+  }
+
+  public static String[] getValue(String name, String[] defaultValue) {
+    Entry item = getOrAddEntry(name, NetworkTableType.kStringArray, "String[]", true);
+
+    if (!item.isReadable()) {
+      reportNotReadable(name, "String[]");
       return defaultValue;
     }
+
+    if (item instanceof StringArrayEntry entry) {
+      return entry.get(defaultValue);
+    }
+
+    reportTypeMismatch("get", name, "String[]", item);
+    return defaultValue;
+  }
+
+  public static byte[] getValue(String name, byte[] defaultValue) {
+    Entry item = getOrAddEntry(name, NetworkTableType.kRaw, "byte[]", true);
+
+    if (!item.isReadable()) {
+      reportNotReadable(name, "byte[]");
+      return defaultValue;
+    }
+
+    if (item instanceof RawEntry entry) {
+      return entry.get(defaultValue);
+    }
+
+    reportTypeMismatch("get", name, "byte[]", item);
+    return defaultValue;
   }
 
   public static Object getValue(String name, Object defaultValue) {
-    DriverStation.reportWarning(
-        "Telemetry: generic getValue() called for "
-            + name
-            + " with type "
-            + defaultValue.getClass().getName()
-            + ", expected primitive",
-        false);
-    incrementWarningCounter();
+    Diagnostics.Key key = warningKey("Telemetry: generic getValue()", name);
+    if (Diagnostics.count(key)) {
+      Diagnostics.emit(
+          key,
+          "Telemetry: generic getValue() called for "
+              + name
+              + " with type "
+              + defaultValue.getClass().getName()
+              + ", expected primitive");
+    }
     return defaultValue;
   }
 
   public static Object getValue(String name, Object[] defaultValue) {
-    DriverStation.reportWarning(
-        "Telemetry: generic getValue() called for "
-            + name
-            + " with type "
-            + defaultValue.getClass().getName()
-            + "[], expected primitive[]",
-        false);
-    incrementWarningCounter();
+    Diagnostics.Key key = warningKey("Telemetry: generic getValue()", name);
+    if (Diagnostics.count(key)) {
+      Diagnostics.emit(
+          key,
+          "Telemetry: generic getValue() called for "
+              + name
+              + " with type "
+              + defaultValue.getClass().getName()
+              + "[], expected primitive[]");
+    }
     return defaultValue;
   }
 }
@@ -0,0 +1,288 @@
+package frc.robot.utilities;
+
+import edu.wpi.first.networktables.NetworkTableType;
+import edu.wpi.first.wpilibj.DriverStation;
+import frc.robot.Constants.TelemetryConstants;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/*
+ * Writes every scalar Telemetry value to disk without touching the disk from the robot loop.
+ *
+ * The robot loop (the only producer) drops records into a preallocated ring of primitive arrays.
+ * A background thread (the only consumer) drains the ring into memory-mapped segment files that
+ * are sized up front and rotated when full, keeping the newest MAX_LOG_SEGMENTS. If the writer
+ * falls behind and the ring fills, new records are dropped and counted, never waited on.
+ *
+ * Segment layout, all big endian:
+ *   int magic, int version
+ *   then records, each starting with a kind byte (0 marks the end of the segment)
+ *   DEFINE:  byte 1, int id, byte value kind, short name length, UTF-8 name
+ *   values:  byte kind (2 boolean, 3 integer, 4 double), int id, long time (us), long payload
+ * Doubles are stored as raw long bits. Every segment starts by repeating the known definitions.
+ * An id can be defined again when Telemetry reuses a closed entry's slot; records belong to the
+ * latest definition before them. Each definition remembers the ring position it was made at and
+ * is written just before the record at that position, so records queued for an id before it was
+ * reused still land ahead of the new definition.
+ *
+ * The mapped segment is forced to disk every LOG_FORCE_NANOS and when it's rotated, so a power
+ * off loses at most that much.
+ */
+public class TelemetryLogger {
+  static final byte DEFINE = 1;
+  static final byte BOOLEAN = 2;
+  static final byte INTEGER = 3;
+  static final byte DOUBLE = 4;
+
+  private static final int MAGIC = 0x46544c47; // "FTLG"
+  private static final int VERSION = 1;
+  private static final int VALUE_RECORD_SIZE = 1 + 4 + 8 + 8;
+
+  // Ring buffer, written only by the robot loop and read only by the writer thread
+  private final int mask;
+  private final int[] ids;
+  private final byte[] kinds;
+  private final long[] times;
+  private final long[] payloads;
+  private final AtomicLong head = new AtomicLong(); // next record to write to disk
+  private final AtomicLong tail = new AtomicLong(); // next free slot
+  private final AtomicLong dropped = new AtomicLong();
+
+  private final ConcurrentLinkedQueue<Definition> pendingDefinitions =
+      new ConcurrentLinkedQueue<Definition>();
+  private final ArrayList<Definition> definitions = new ArrayList<Definition>();
+
+  private final Path directory;
+  private long segmentNumber;
+  private MappedByteBuffer segment;
+  private volatile boolean running = false;
+
+  // Writer thread only: polled from pendingDefinitions, waiting for the ring to reach its position
+  private Definition nextDefinition;
+  private long lastForceNanos;
+
+  private static final class Definition {
+    private final int id;
+    private final byte kind;
+    private final byte[] name;
+    // The ring position of the first record that belongs to this definition
+    private final long position;
+
+    private Definition(int id, byte kind, byte[] name, long position) {
+      this.id = id;
+      this.kind = kind;
+      this.name = name;
+      this.position = position;
+    }
+  }
+
+  TelemetryLogger(Path directory) {
+    int capacity = Integer.highestOneBit(Math.max(2, TelemetryConstants.LOG_QUEUE_CAPACITY));
+    this.mask = capacity - 1;
+    this.ids = new int[capacity];
+    this.kinds = new byte[capacity];
+    this.times = new long[capacity];
+    this.payloads = new long[capacity];
+    this.directory = directory;
+  }
+
+  /** Maps the NT type of an entry to the kind it's logged as, or 0 if it isn't logged. */
+  static byte kindOf(NetworkTableType type) {
+    switch (type) {
+      case kBoolean:
+        return BOOLEAN;
+      case kInteger:
+        return INTEGER;
+      case kDouble:
+      case kFloat:
+        return DOUBLE;
+      default:
+        return 0;
+    }
+  }
+
+  /** Opens the first segment and starts the writer thread. */
+  void start() throws IOException {
+    Files.createDirectories(directory);
+    segmentNumber = findLastSegmentNumber() + 1;
+    openSegment();
+
+    running = true;
+    Thread writer = new Thread(this::run, "TelemetryLogger");
+    writer.setDaemon(true);
+    writer.setPriority(Thread.MIN_PRIORITY);
+    writer.start();
+  }
+
+  void define(int id, NetworkTableType type, String name) {
+    byte kind = kindOf(type);
+    if (kind != 0) {
+      // Called from the robot loop, like append(), so tail is exactly where its records start
+      pendingDefinitions.add(
+          new Definition(id, kind, name.getBytes(StandardCharsets.UTF_8), tail.get()));
+    }
+  }
+
+  /** Queues one record. Never blocks; if the ring is full the record is dropped and counted. */
+  void append(int id, byte kind, long time, long payload) {
+    long t = tail.get();
+    if (t - head.get() > mask) {
+      dropped.incrementAndGet();
+      return;
+    }
+    int slot = (int) t & mask;
+    ids[slot] = id;
+    kinds[slot] = kind;
+    times[slot] = time;
+    payloads[slot] = payload;
+    tail.lazySet(t + 1);
+  }
+
+  long getDroppedCount() {
+    return dropped.get();
+  }
+
+  private void run() {
+    lastForceNanos = System.nanoTime();
+    while (running) {
+      // Read tail before the definitions so every definition a queued record needs is visible
+      long t = tail.get();
+      long h = head.get();
+      writeDefinitionsUpTo(h);
+      if (System.nanoTime() - lastForceNanos >= TelemetryConstants.LOG_FORCE_NANOS) {
+        force();
+      }
+
+      if (h == t) {
+        LockSupport.parkNanos(TelemetryConstants.LOG_IDLE_NANOS);
+        continue;
+      }
+      for (; h < t && running; h++) {
+        writeDefinitionsUpTo(h);
+        int slot = (int) h & mask;
+        ensureSpace(VALUE_RECORD_SIZE);
+        if (segment == null) {
+          break;
+        }
+        segment.put(kinds[slot]).putInt(ids[slot]).putLong(times[slot]).putLong(payloads[slot]);
+      }
+      head.lazySet(t);
+    }
+  }
+
+  // Writes the definitions made before the record at position was queued, in the order they were
+  private void writeDefinitionsUpTo(long position) {
+    while (running) {
+      if (nextDefinition == null) {
+        nextDefinition = pendingDefinitions.poll();
+        if (nextDefinition == null) {
+          return;
+        }
+      }
+      if (nextDefinition.position > position) {
+        return;
+      }
+      writeDefinition(nextDefinition);
+      remember(nextDefinition);
+      nextDefinition = null;
+    }
+  }
+
+  private void force() {
+    if (segment != null) {
+      segment.force();
+    }
+    lastForceNanos = System.nanoTime();
+  }
+
+  // A closed Telemetry entry's id is handed to the next new entry, which replaces its definition
+  private void remember(Definition definition) {
+    for (int i = 0; i < definitions.size(); i++) {
+      if (definitions.get(i).id == definition.id) {
+        definitions.set(i, definition);
+        return;
+      }
+    }
+    definitions.add(definition);
+  }
+
+  private void writeDefinition(Definition definition) {
+    ensureSpace(1 + 4 + 1 + 2 + definition.name.length);
+    if (segment != null) {
+      segment
+          .put(DEFINE)
+          .putInt(definition.id)
+          .put(definition.kind)
+          .putShort((short) definition.name.length)
+          .put(definition.name);
+    }
+  }
+
+  private void ensureSpace(int bytes) {
+    // Always leave one zero byte at the end so readers can find where the segment stops
+    if (segment != null && segment.remaining() > bytes) {
+      return;
+    }
+    // Flush the full segment, then drop it so its mapping can be released
+    force();
+    segment = null;
+    segmentNumber++;
+    try {
+      openSegment();
+    } catch (IOException e) {
+      DriverStation.reportWarning("TelemetryLogger: stopping, " + e.getMessage(), false);
+      segment = null;
+      running = false;
+      return;
+    }
+    for (Definition definition : definitions) {
+      writeDefinition(definition);
+    }
+  }
+
+  private void openSegment() throws IOException {
+    try (FileChannel channel =
+        FileChannel.open(
+            segmentPath(segmentNumber),
+            StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING,
+            StandardOpenOption.READ,
+            StandardOpenOption.WRITE)) {
+      // Mapping past the end grows the file, so the segment is allocated once up front
+      segment =
+          channel.map(FileChannel.MapMode.READ_WRITE, 0, TelemetryConstants.LOG_SEGMENT_BYTES);
+    }
+    segment.putInt(MAGIC).putInt(VERSION);
+    if (segmentNumber > TelemetryConstants.MAX_LOG_SEGMENTS) {
+      Files.deleteIfExists(segmentPath(segmentNumber - TelemetryConstants.MAX_LOG_SEGMENTS));
+    }
+  }
+
+  private long findLastSegmentNumber() throws IOException {
+    long last = 0;
+    try (var files = Files.newDirectoryStream(directory, "telemetry-*.bin")) {
+      for (Path file : files) {
+        String name = file.getFileName().toString();
+        try {
+          last = Math.max(last, Long.parseLong(name.substring(10, name.length() - 4)));
+        } catch (NumberFormatException e) {
+          // not one of ours
+        }
+      }
+    }
+    return last;
+  }
+
+  private Path segmentPath(long number) {
+    return directory.resolve(String.format("telemetry-%06d.bin", number));
+  }
+}
@@ -0,0 +1,133 @@
+package frc.robot.utilities;
+
+import edu.wpi.first.networktables.NetworkTable;
+import edu.wpi.first.networktables.NetworkTableType;
+import edu.wpi.first.networktables.PubSubOption;
+import edu.wpi.first.util.struct.Struct;
+import edu.wpi.first.wpilibj.TimedRobot;
+import java.util.ArrayList;
+
+/**
+ * A subtree of Telemetry, e.g. "Arm/Stage1". The NetworkTable for the path is resolved once, and
+ * entries are added by their name within it, so subsystems don't build paths by hand:
+ *
+ * <pre>{@code
+ * TelemetryNamespace telemetry = Telemetry.namespace("Arm/" + name);
+ * m_outputEntry = telemetry.addValue("Output", NetworkTableType.kDouble);
+ * }</pre>
+ *
+ * <p>A namespace can be disabled or put on a slower rate tier, which applies to every entry under
+ * it, including entries in child namespaces. A child only ever publishes less than its parent: it
+ * is enabled if it and all its parents are, and runs at the slowest tier along the way.
+ */
+public final class TelemetryNamespace {
+  private final String path;
+  private final TelemetryNamespace parent;
+  private final ArrayList<TelemetryNamespace> children = new ArrayList<TelemetryNamespace>();
+  final NetworkTable table;
+
+  // What was asked of this namespace itself
+  private boolean ownEnabled = true;
+  private int ownRatePeriod = 1;
+  // Combined with the parents; read by Telemetry.Entry.isDue() on every set()
+  boolean enabled = true;
+  int ratePeriod = 1;
+
+  TelemetryNamespace(String path, NetworkTable table, TelemetryNamespace parent) {
+    this.path = path;
+    this.table = table;
+    this.parent = parent;
+    if (parent != null) {
+      parent.children.add(this);
+    }
+    update();
+  }
+
+  public String getPath() {
+    return path;
+  }
+
+  /** The namespace one level down, e.g. {@code Telemetry.namespace("Arm").child("Claw")}. */
+  public TelemetryNamespace child(String name) {
+    return Telemetry.namespace(resolve(name));
+  }
+
+  public <T extends Telemetry.Entry> T addValue(
+      String name, NetworkTableType type, PubSubOption... options) {
+    return Telemetry.add(this, name, type, false, null, options);
+  }
+
+  public <T extends Telemetry.Entry> T addValue(
+      String name, NetworkTableType type, PublishPolicy policy, PubSubOption... options) {
+    return Telemetry.add(this, name, type, false, policy, options);
+  }
+
+  public <T extends Telemetry.Entry> T addReadableValue(
+      String name, NetworkTableType type, PubSubOption... options) {
+    return Telemetry.add(this, name, type, true, null, options);
+  }
+
+  public <T extends Telemetry.Entry> T addReadableValue(
+      String name, NetworkTableType type, PublishPolicy policy, PubSubOption... options) {
+    return Telemetry.add(this, name, type, true, policy, options);
+  }
+
+  public <T> Telemetry.StructEntry<T> addStructValue(
+      String name, Struct<T> struct, PubSubOption... options) {
+    return Telemetry.addStructValue(this, name, struct, null, options);
+  }
+
+  public <T> Telemetry.StructArrayEntry<T> addStructArrayValue(
+      String name, Struct<T> struct, PubSubOption... options) {
+    return Telemetry.addStructArrayValue(this, name, struct, null, options);
+  }
+
+  public Telemetry.RawBufferEntry addRawBufferValue(
+      String name, String typeString, PubSubOption... options) {
+    return Telemetry.addRawBufferValue(this, name, typeString, null, options);
+  }
+
+  public Telemetry.FlagsEntry addFlagsValue(
+      String name, String[] bitNames, PublishPolicy policy, PubSubOption... options) {
+    return Telemetry.addFlagsValue(this, name, bitNames, policy, options);
+  }
+
+  /** Turns publishing for everything under this namespace on or off. */
+  public void setEnabled(boolean enabled) {
+    ownEnabled = enabled;
+    update();
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /** Only publish everything under this namespace every Nth loop. 1 (the default) is every loop. */
+  public void setRate(int everyNLoops) {
+    ownRatePeriod = Math.max(1, everyNLoops);
+    update();
+  }
+
+  /** Same as {@link #setRate(int)}, rounded from a target rate against the default loop time. */
+  public void setFrequency(double hertz) {
+    setRate((int) Math.round(1.0 / (hertz * TimedRobot.kDefaultPeriod)));
+  }
+
+  public int getRatePeriod() {
+    return ratePeriod;
+  }
+
+  /** The full name of an entry or namespace called name under this one. */
+  String resolve(String name) {
+    return path + "/" + name;
+  }
+
+  // Settings are pushed down when they change, so isDue() never walks up the tree
+  private void update() {
+    enabled = ownEnabled && (parent == null || parent.enabled);
+    ratePeriod = parent == null ? ownRatePeriod : Math.max(ownRatePeriod, parent.ratePeriod);
+    for (TelemetryNamespace child : children) {
+      child.update();
+    }
+  }
+}
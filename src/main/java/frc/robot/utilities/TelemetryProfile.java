@@ -0,0 +1,165 @@
+package frc.robot.utilities;
+
+import edu.wpi.first.networktables.DoubleArrayPublisher;
+import edu.wpi.first.networktables.GenericPublisher;
+import edu.wpi.first.networktables.GenericSubscriber;
+import edu.wpi.first.networktables.NetworkTable;
+import edu.wpi.first.networktables.NetworkTableValue;
+import edu.wpi.first.networktables.PubSubOption;
+import edu.wpi.first.networktables.Topic;
+import java.util.ArrayList;
+
+/**
+ * A lighter copy of chosen Telemetry entries for one kind of client, e.g. a scouting laptop that
+ * only needs a few values once a second. The NT server sends every subscribed topic to every
+ * client at the rate it's published, so instead of the whole telemetry tree a client subscribes
+ * to its profile's table, /telemetryProfiles/name/, and gets:
+ *
+ * <ul>
+ *   <li>{@link #decimate} entries: the latest value once per window, only if it changed. Works for
+ *       any type, structs included.
+ *   <li>{@link #aggregate} entries: {min, max, mean} of every sample in the window, as one double
+ *       array, for numeric entries where a spike between windows matters.
+ * </ul>
+ *
+ * <pre>{@code
+ * Telemetry.profile("scouting", 50).aggregate("Power/Voltage").decimate("Swerve/Pose");
+ * }</pre>
+ *
+ * <p>Profiles are updated by Telemetry.flush(), each on its own window, so an extra client costs
+ * its window's worth of mirrored values rather than another copy of every loop.
+ */
+public final class TelemetryProfile {
+  private final String name;
+  private final int windowLoops;
+  private final NetworkTable source;
+  private final NetworkTable table;
+  private final ArrayList<Decimated> decimated = new ArrayList<Decimated>();
+  private final ArrayList<Aggregated> aggregated = new ArrayList<Aggregated>();
+
+  private static final class Decimated {
+    private final Topic sourceTopic;
+    private final GenericSubscriber subscriber;
+    private final Topic topic;
+    // Created on the first copy, once the source's type string is known
+    private GenericPublisher publisher;
+    private long lastCopied = 0;
+
+    private Decimated(Topic sourceTopic, Topic topic) {
+      this.sourceTopic = sourceTopic;
+      this.topic = topic;
+      subscriber = sourceTopic.genericSubscribe();
+    }
+
+    private void update() {
+      long lastChange = subscriber.getLastChange();
+      if (lastChange == lastCopied) {
+        return;
+      }
+      NetworkTableValue value = subscriber.get();
+      if (!value.isValid()) {
+        return;
+      }
+      if (publisher == null) {
+        publisher = topic.genericPublish(sourceTopic.getTypeString());
+      }
+      publisher.set(value);
+      lastCopied = lastChange;
+    }
+  }
+
+  private static final class Aggregated {
+    private final String name;
+    private final GenericSubscriber subscriber;
+    private final DoubleArrayPublisher publisher;
+    private final double[] stats = new double[3];
+    private final Diagnostics.Key notNumeric;
+
+    private Aggregated(String name, Topic sourceTopic, NetworkTable table, int windowLoops) {
+      this.name = name;
+      // Room for every sample in a window, with slack for a late flush
+      subscriber = sourceTopic.genericSubscribe(PubSubOption.pollStorage(2 * windowLoops));
+      publisher = table.getDoubleArrayTopic(name).publish();
+      notNumeric =
+          Diagnostics.key(Diagnostics.Severity.WARNING, "Telemetry: profile needs a number", name);
+    }
+
+    private void update() {
+      // Allocates the window's samples, but only once per window
+      NetworkTableValue[] samples = subscriber.readQueue();
+      if (samples.length == 0) {
+        return; // nothing new, the last window's stats stand
+      }
+      double min = Double.POSITIVE_INFINITY;
+      double max = Double.NEGATIVE_INFINITY;
+      double sum = 0;
+      for (NetworkTableValue sample : samples) {
+        double value;
+        switch (sample.getType()) {
+          case kDouble:
+            value = sample.getDouble();
+            break;
+          case kFloat:
+            value = sample.getFloat();
+            break;
+          case kInteger:
+            value = sample.getInteger();
+            break;
+          default:
+            Diagnostics.report(notNumeric, "Telemetry: can't aggregate " + name + ", not a number");
+            return;
+        }
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+        sum += value;
+      }
+      stats[0] = min;
+      stats[1] = max;
+      stats[2] = sum / samples.length;
+      publisher.set(stats);
+    }
+  }
+
+  TelemetryProfile(String name, int windowLoops, NetworkTable source, NetworkTable table) {
+    this.name = name;
+    this.windowLoops = Math.max(1, windowLoops);
+    this.source = source;
+    this.table = table;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public int getWindowLoops() {
+    return windowLoops;
+  }
+
+  /** Mirrors an entry, by its full name, with its latest value once per window. */
+  public TelemetryProfile decimate(String entryName) {
+    decimated.add(new Decimated(source.getTopic(entryName), table.getTopic(entryName)));
+    return this;
+  }
+
+  /**
+   * Mirrors a numeric entry, by its full name, as {min, max, mean} over each window. NT only
+   * passes on values that changed, so a value that sat still counts once toward the mean.
+   */
+  public TelemetryProfile aggregate(String entryName) {
+    aggregated.add(new Aggregated(entryName, source.getTopic(entryName), table, windowLoops));
+    return this;
+  }
+
+  /** Called by Telemetry.flush() every loop, after the loop's values are published. */
+  void update(long loopCount) {
+    if (loopCount % windowLoops != 0) {
+      return;
+    }
+    for (int i = 0; i < decimated.size(); i++) {
+      decimated.get(i).update();
+    }
+    for (int i = 0; i < aggregated.size(); i++) {
+      aggregated.get(i).update();
+    }
+  }
+}
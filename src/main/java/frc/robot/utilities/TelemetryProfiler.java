@@ -0,0 +1,221 @@
+package frc.robot.utilities;
+
+import edu.wpi.first.networktables.NetworkTableType;
+import frc.robot.Constants.TelemetryConstants;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+/*
+ * Measures what Telemetry itself costs. Only exists while profiling is on; Telemetry checks for
+ * a null profiler before timing anything, so turning it off leaves one field read per publish.
+ *
+ * Every publish is recorded against its entry and against the entry's prefix (the first path
+ * segment, e.g. "Arm" for "Arm/Stage1/Status"). Per prefix it keeps a rolling window of the time
+ * spent per loop, and every PROFILE_REPORT_LOOPS loops publishes totals and p50/p99 under
+ * diagnostics/telemetry/profile/.
+ */
+class TelemetryProfiler {
+  private static final String ROOT = "diagnostics/telemetry/profile/";
+
+  // Per entry, indexed by Telemetry slot
+  private long[] calls;
+  private long[] nanos;
+  private long[] bytes;
+  private long[] mismatches;
+  private int[] prefixOf;
+  private String[] names;
+
+  // Per prefix, plus the total over every entry
+  private final HashMap<String, Integer> prefixIndex = new HashMap<String, Integer>();
+  private final ArrayList<Prefix> prefixes = new ArrayList<Prefix>();
+  private final Prefix total = new Prefix("total");
+
+  private int loopsSinceReport = 0;
+  private Telemetry.StringArrayEntry heaviestEntry;
+  private final String[] heaviest = new String[TelemetryConstants.PROFILE_HEAVIEST_COUNT];
+  private final int[] heaviestIndices = new int[TelemetryConstants.PROFILE_HEAVIEST_COUNT];
+  private final long[] sortScratch = new long[TelemetryConstants.PROFILE_WINDOW_LOOPS];
+
+  private static final class Prefix {
+    private final String name;
+    private long calls;
+    private long nanos;
+    private long bytes;
+    private long mismatches;
+    private long loopNanos;
+    private final long[] window = new long[TelemetryConstants.PROFILE_WINDOW_LOOPS];
+    private int windowSize = 0;
+    private int windowNext = 0;
+
+    // Created on the first report, so registering them never happens inside a registration
+    private Telemetry.IntegerEntry callsEntry;
+    private Telemetry.DoubleEntry microsEntry;
+    private Telemetry.IntegerEntry bytesEntry;
+    private Telemetry.IntegerEntry mismatchesEntry;
+    private Telemetry.DoubleEntry p50Entry;
+    private Telemetry.DoubleEntry p99Entry;
+
+    private Prefix(String name) {
+      this.name = name;
+    }
+
+    private void endLoop() {
+      window[windowNext] = loopNanos;
+      windowNext = (windowNext + 1) % window.length;
+      windowSize = Math.min(windowSize + 1, window.length);
+      loopNanos = 0;
+    }
+  }
+
+  TelemetryProfiler(int capacity) {
+    calls = new long[capacity];
+    nanos = new long[capacity];
+    bytes = new long[capacity];
+    mismatches = new long[capacity];
+    prefixOf = new int[capacity];
+    names = new String[capacity];
+  }
+
+  /** Called for every slot that exists when profiling starts and for every one added later. */
+  void define(int index, String name) {
+    if (index >= calls.length) {
+      int capacity = Math.max(index + 1, calls.length * 2);
+      calls = Arrays.copyOf(calls, capacity);
+      nanos = Arrays.copyOf(nanos, capacity);
+      bytes = Arrays.copyOf(bytes, capacity);
+      mismatches = Arrays.copyOf(mismatches, capacity);
+      prefixOf = Arrays.copyOf(prefixOf, capacity);
+      names = Arrays.copyOf(names, capacity);
+    }
+
+    int slash = name.indexOf('/');
+    String prefix = slash > 0 ? name.substring(0, slash) : name;
+    Integer existing = prefixIndex.get(prefix);
+    if (existing == null) {
+      existing = prefixes.size();
+      prefixIndex.put(prefix, existing);
+      prefixes.add(new Prefix(prefix));
+    }
+    prefixOf[index] = existing;
+    names[index] = name;
+    // The slot may have belonged to a closed entry
+    calls[index] = 0;
+    nanos[index] = 0;
+    bytes[index] = 0;
+    mismatches[index] = 0;
+  }
+
+  void record(int index, long elapsedNanos, int payloadBytes) {
+    calls[index]++;
+    nanos[index] += elapsedNanos;
+    bytes[index] += payloadBytes;
+
+    Prefix prefix = prefixes.get(prefixOf[index]);
+    prefix.calls++;
+    prefix.nanos += elapsedNanos;
+    prefix.bytes += payloadBytes;
+    prefix.loopNanos += elapsedNanos;
+    total.calls++;
+    total.nanos += elapsedNanos;
+    total.bytes += payloadBytes;
+    total.loopNanos += elapsedNanos;
+  }
+
+  void recordMismatch(int index) {
+    mismatches[index]++;
+    prefixes.get(prefixOf[index]).mismatches++;
+    total.mismatches++;
+  }
+
+  /** Closes the current loop's window sample and reports every PROFILE_REPORT_LOOPS loops. */
+  void endLoop() {
+    for (int i = 0; i < prefixes.size(); i++) {
+      prefixes.get(i).endLoop();
+    }
+    total.endLoop();
+
+    if (++loopsSinceReport >= TelemetryConstants.PROFILE_REPORT_LOOPS) {
+      loopsSinceReport = 0;
+      report();
+    }
+  }
+
+  private void report() {
+    for (int i = 0; i < prefixes.size(); i++) {
+      report(prefixes.get(i));
+    }
+    report(total);
+
+    if (heaviestEntry == null) {
+      heaviestEntry = Telemetry.addValue(ROOT + "heaviest", NetworkTableType.kStringArray);
+    }
+    heaviestEntry.set(findHeaviest(), heaviest.length);
+  }
+
+  private void report(Prefix prefix) {
+    if (prefix.callsEntry == null) {
+      String root = ROOT + prefix.name + "/";
+      prefix.callsEntry = Telemetry.addReadableValue(root + "calls", NetworkTableType.kInteger);
+      prefix.microsEntry = Telemetry.addReadableValue(root + "micros", NetworkTableType.kDouble);
+      prefix.bytesEntry = Telemetry.addReadableValue(root + "bytes", NetworkTableType.kInteger);
+      prefix.mismatchesEntry =
+          Telemetry.addReadableValue(root + "mismatches", NetworkTableType.kInteger);
+      prefix.p50Entry = Telemetry.addReadableValue(root + "p50Micros", NetworkTableType.kDouble);
+      prefix.p99Entry = Telemetry.addReadableValue(root + "p99Micros", NetworkTableType.kDouble);
+    }
+
+    prefix.callsEntry.set(prefix.calls);
+    prefix.microsEntry.set(prefix.nanos / 1e3);
+    prefix.bytesEntry.set(prefix.bytes);
+    prefix.mismatchesEntry.set(prefix.mismatches);
+
+    int size = prefix.windowSize;
+    System.arraycopy(prefix.window, 0, sortScratch, 0, size);
+    Arrays.sort(sortScratch, 0, size);
+    prefix.p50Entry.set(size == 0 ? 0 : sortScratch[(size - 1) / 2] / 1e3);
+    prefix.p99Entry.set(size == 0 ? 0 : sortScratch[(int) ((size - 1) * 0.99)] / 1e3);
+  }
+
+  /** Fills the heaviest array with the entries that have spent the most time publishing. */
+  private String[] findHeaviest() {
+    int count = 0;
+    int[] chosen = heaviestIndices;
+    Arrays.fill(chosen, -1);
+    for (int i = 0; i < names.length; i++) {
+      // Slots of closed entries leave holes, so skip them rather than stop
+      if (names[i] == null || calls[i] == 0) {
+        continue;
+      }
+      // Insertion into a short sorted list, heaviest first
+      int position = Math.min(count, heaviest.length);
+      while (position > 0 && nanos[chosen[position - 1]] < nanos[i]) {
+        if (position < heaviest.length) {
+          chosen[position] = chosen[position - 1];
+        }
+        position--;
+      }
+      if (position < heaviest.length) {
+        chosen[position] = i;
+        count = Math.min(count + 1, heaviest.length);
+      }
+    }
+    for (int i = 0; i < heaviest.length; i++) {
+      int index = chosen[i];
+      heaviest[i] =
+          index < 0
+              ? ""
+              : names[index]
+                  + ": "
+                  + calls[index]
+                  + " calls, "
+                  + (nanos[index] / 1000)
+                  + " us, "
+                  + bytes[index]
+                  + " bytes, "
+                  + mismatches[index]
+                  + " mismatches";
+    }
+    return heaviest;
+  }
+}
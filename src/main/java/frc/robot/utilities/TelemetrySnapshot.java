@@ -0,0 +1,255 @@
+package frc.robot.utilities;
+
+import edu.wpi.first.networktables.GenericSubscriber;
+import edu.wpi.first.networktables.NetworkTable;
+import edu.wpi.first.networktables.NetworkTableType;
+import edu.wpi.first.networktables.NetworkTableValue;
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+
+/*
+ * Captures the current value of every Telemetry entry into one binary blob, and puts a blob back.
+ *
+ * Values are read back from NT through one generic subscriber per entry, created the first time
+ * a snapshot is taken, so it captures what was last published (or set from the dashboard) no
+ * matter which handle type or policy the entry has. Encoding goes into a buffer that is reused
+ * and only grows, so after the first snapshot the only allocation is the returned copy.
+ *
+ * Layout, all big endian:
+ *   int magic, short version, long time (NT us), int record count
+ *   then per record: name, short NT type value, value
+ * Scalars are stored as themselves (booleans as one byte). Strings (including the name) and raw
+ * values are an int length and the bytes. Arrays are an int element count and the elements.
+ */
+class TelemetrySnapshot {
+  private static final int MAGIC = 0x4654534e; // "FTSN"
+  private static final short VERSION = 1;
+
+  private GenericSubscriber[] subscribers = new GenericSubscriber[0];
+  private ByteBuffer buffer = ByteBuffer.allocate(16 * 1024);
+
+  /**
+   * Encodes the first count slots. Closed slots, and entries that have never had a value, are
+   * left out.
+   */
+  byte[] write(Telemetry.Entry[] slots, int count, NetworkTable table, long time) {
+    if (subscribers.length < count) {
+      subscribers = Arrays.copyOf(subscribers, slots.length);
+    }
+    for (int i = 0; i < count; i++) {
+      if (subscribers[i] == null && slots[i] != null) {
+        subscribers[i] = table.getTopic(slots[i].getName()).genericSubscribe();
+      }
+    }
+
+    while (true) {
+      try {
+        return encode(slots, count, time);
+      } catch (BufferOverflowException e) {
+        buffer = ByteBuffer.allocate(buffer.capacity() * 2);
+      }
+    }
+  }
+
+  /** Drops the subscriber for a closed entry's slot, so a new entry in it gets its own. */
+  void release(int index) {
+    if (index < subscribers.length && subscribers[index] != null) {
+      subscribers[index].close();
+      subscribers[index] = null;
+    }
+  }
+
+  private byte[] encode(Telemetry.Entry[] slots, int count, long time) {
+    buffer.clear();
+    buffer.putInt(MAGIC).putShort(VERSION).putLong(time);
+    int countPosition = buffer.position();
+    buffer.putInt(0);
+
+    int records = 0;
+    for (int i = 0; i < count; i++) {
+      if (slots[i] == null) {
+        continue; // closed
+      }
+      NetworkTableValue value = subscribers[i].get();
+      if (!value.isValid()) {
+        continue;
+      }
+      putString(slots[i].getName());
+      buffer.putShort((short) value.getType().getValue());
+      putValue(value);
+      records++;
+    }
+    buffer.putInt(countPosition, records);
+    return Arrays.copyOf(buffer.array(), buffer.position());
+  }
+
+  private void putValue(NetworkTableValue value) {
+    switch (value.getType()) {
+      case kBoolean:
+        buffer.put((byte) (value.getBoolean() ? 1 : 0));
+        break;
+      case kDouble:
+        buffer.putDouble(value.getDouble());
+        break;
+      case kFloat:
+        buffer.putFloat(value.getFloat());
+        break;
+      case kInteger:
+        buffer.putLong(value.getInteger());
+        break;
+      case kString:
+        putString(value.getString());
+        break;
+      case kRaw:
+        byte[] raw = value.getRaw();
+        buffer.putInt(raw.length).put(raw);
+        break;
+      case kBooleanArray:
+        boolean[] booleans = value.getBooleanArray();
+        buffer.putInt(booleans.length);
+        for (boolean element : booleans) {
+          buffer.put((byte) (element ? 1 : 0));
+        }
+        break;
+      case kDoubleArray:
+        double[] doubles = value.getDoubleArray();
+        buffer.putInt(doubles.length);
+        for (double element : doubles) {
+          buffer.putDouble(element);
+        }
+        break;
+      case kFloatArray:
+        float[] floats = value.getFloatArray();
+        buffer.putInt(floats.length);
+        for (float element : floats) {
+          buffer.putFloat(element);
+        }
+        break;
+      case kIntegerArray:
+        long[] longs = value.getIntegerArray();
+        buffer.putInt(longs.length);
+        for (long element : longs) {
+          buffer.putLong(element);
+        }
+        break;
+      case kStringArray:
+        String[] strings = value.getStringArray();
+        buffer.putInt(strings.length);
+        for (String element : strings) {
+          putString(element);
+        }
+        break;
+      default:
+        break;
+    }
+  }
+
+  private void putString(String value) {
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    buffer.putInt(bytes.length).put(bytes);
+  }
+
+  /**
+   * Sets every entry in the blob that still exists with the same type. Values go through the
+   * normal set() path, so they are staged and policies apply. Returns the number of entries set,
+   * or -1 if the blob isn't a snapshot.
+   */
+  static int read(byte[] blob, HashMap<String, Telemetry.Entry> entries) {
+    ByteBuffer in = ByteBuffer.wrap(blob);
+    try {
+      if (in.getInt() != MAGIC || in.getShort() != VERSION) {
+        return -1;
+      }
+      in.getLong(); // time, for whoever reads the blob offline
+      int records = in.getInt();
+      int restored = 0;
+      for (int i = 0; i < records; i++) {
+        String name = getString(in);
+        NetworkTableType type = NetworkTableType.getFromInt(in.getShort());
+        Object value = getValue(in, type);
+        if (value == null) {
+          return -1; // unknown type, so the rest can't be parsed
+        }
+        Telemetry.Entry entry = entries.get(name);
+        if (entry != null && entry.getType() == type && Telemetry.restore(entry, value)) {
+          restored++;
+        }
+      }
+      return restored;
+    } catch (BufferUnderflowException e) {
+      return -1; // truncated or corrupt
+    }
+  }
+
+  // Boxed, but restoring only happens when asked for, never in the loop
+  private static Object getValue(ByteBuffer in, NetworkTableType type) {
+    switch (type) {
+      case kBoolean:
+        return in.get() != 0;
+      case kDouble:
+        return in.getDouble();
+      case kFloat:
+        return in.getFloat();
+      case kInteger:
+        return in.getLong();
+      case kString:
+        return getString(in);
+      case kRaw:
+        byte[] raw = new byte[getLength(in, Byte.BYTES)];
+        in.get(raw);
+        return raw;
+      case kBooleanArray:
+        boolean[] booleans = new boolean[getLength(in, Byte.BYTES)];
+        for (int i = 0; i < booleans.length; i++) {
+          booleans[i] = in.get() != 0;
+        }
+        return booleans;
+      case kDoubleArray:
+        double[] doubles = new double[getLength(in, Double.BYTES)];
+        for (int i = 0; i < doubles.length; i++) {
+          doubles[i] = in.getDouble();
+        }
+        return doubles;
+      case kFloatArray:
+        float[] floats = new float[getLength(in, Float.BYTES)];
+        for (int i = 0; i < floats.length; i++) {
+          floats[i] = in.getFloat();
+        }
+        return floats;
+      case kIntegerArray:
+        long[] longs = new long[getLength(in, Long.BYTES)];
+        for (int i = 0; i < longs.length; i++) {
+          longs[i] = in.getLong();
+        }
+        return longs;
+      case kStringArray:
+        String[] strings = new String[getLength(in, Integer.BYTES)];
+        for (int i = 0; i < strings.length; i++) {
+          strings[i] = getString(in);
+        }
+        return strings;
+      default:
+        return null;
+    }
+  }
+
+  private static String getString(ByteBuffer in) {
+    byte[] bytes = new byte[getLength(in, Byte.BYTES)];
+    in.get(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  // A corrupt length would otherwise allocate up to 2^31 elements before the read underflows, and
+  // an OutOfMemoryError isn't something read() can catch. Strings need at least their own prefix.
+  private static int getLength(ByteBuffer in, int minElementSize) {
+    int length = in.getInt();
+    if (length < 0 || (long) length * minElementSize > in.remaining()) {
+      throw new BufferUnderflowException();
+    }
+    return length;
+  }
+}
@@ -0,0 +1,146 @@
+package frc.robot.subsystems.Swerve;
+
+import static edu.wpi.first.units.Units.MetersPerSecond;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.kinematics.ChassisSpeeds;
+import edu.wpi.first.math.kinematics.SwerveDriveKinematics;
+import edu.wpi.first.math.kinematics.SwerveModuleState;
+import edu.wpi.first.wpilibj.TimedRobot;
+import frc.robot.Constants.SwerveConstants;
+import frc.robot.Constants.SwerveConstants.PhysicsConstants;
+import org.junit.jupiter.api.Test;
+
+// SwerveKinematics re-derives WPILib's math on primitives; these check it against WPILib itself
+class SwerveKinematicsTest {
+  private static final double DELTA = 1e-9;
+  private static final double DT = TimedRobot.kDefaultPeriod;
+  private static final double[] VX = {-3.0, -0.1, 0.0, 0.15, 2.0};
+  private static final double[] VY = {-1.5, 0.0, 0.05, 2.5};
+  // 1e-9 is small enough that discretize takes its series branch
+  private static final double[] OMEGA = {-4.0, -0.5, 0.0, 1e-9, 2.0};
+  // The robot's own limit, which desaturates most of the grid, and one that never does
+  private static final double[] MAX_SPEEDS = {
+    PhysicsConstants.MAX_STRAFE_SPEED.in(MetersPerSecond), 100.0
+  };
+
+  @Test
+  void moduleStatesMatchWpilib() {
+    for (double maxSpeed : MAX_SPEEDS) {
+      for (double vx : VX) {
+        for (double vy : VY) {
+          for (double omega : OMEGA) {
+            if (vx == 0 && vy == 0 && omega == 0) {
+              continue; // see stoppedChassisKeepsAngles
+            }
+            SwerveKinematics kinematics = new SwerveKinematics(SwerveConstants.KINEMATICS);
+            kinematics.toModuleStates(vx, vy, omega, DT, maxSpeed);
+
+            SwerveModuleState[] expected =
+                SwerveConstants.KINEMATICS.toSwerveModuleStates(
+                    ChassisSpeeds.discretize(vx, vy, omega, DT));
+            SwerveDriveKinematics.desaturateWheelSpeeds(expected, maxSpeed);
+
+            assertStatesEqual(expected, kinematics, vx + ", " + vy + ", " + omega);
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  void stoppedChassisKeepsAngles() {
+    SwerveKinematics kinematics = new SwerveKinematics(SwerveConstants.KINEMATICS);
+    kinematics.toModuleStates(0.1, -0.2, 1.0, DT, 100.0);
+    SwerveConstants.KINEMATICS.toSwerveModuleStates(ChassisSpeeds.discretize(0.1, -0.2, 1.0, DT));
+
+    kinematics.toModuleStates(0, 0, 0, DT, 100.0);
+    SwerveModuleState[] expected =
+        SwerveConstants.KINEMATICS.toSwerveModuleStates(new ChassisSpeeds());
+
+    for (int module = 0; module < expected.length; module++) {
+      assertEquals(0, kinematics.speeds[module]);
+      assertEquals(expected[module].angle.getRadians(), kinematics.angles[module], DELTA);
+    }
+  }
+
+  @Test
+  void chassisSpeedsMatchWpilib() {
+    SwerveKinematics kinematics = new SwerveKinematics(SwerveConstants.KINEMATICS);
+    double[] speeds = new double[4];
+    double[] angles = new double[4];
+    ChassisSpeeds actual = new ChassisSpeeds();
+
+    // Consistent states from a chassis speed, then ones no chassis speed makes (least squares)
+    for (double vx : VX) {
+      for (double vy : VY) {
+        for (double omega : OMEGA) {
+          SwerveModuleState[] states =
+              SwerveConstants.KINEMATICS.toSwerveModuleStates(new ChassisSpeeds(vx, vy, omega));
+          assertChassisSpeedsMatch(kinematics, states, speeds, angles, actual);
+        }
+      }
+    }
+    SwerveModuleState[] inconsistent = {
+      new SwerveModuleState(1.0, Rotation2d.fromDegrees(10)),
+      new SwerveModuleState(-0.5, Rotation2d.fromDegrees(100)),
+      new SwerveModuleState(0.0, Rotation2d.fromDegrees(-45)),
+      new SwerveModuleState(2.0, Rotation2d.fromDegrees(200))
+    };
+    assertChassisSpeedsMatch(kinematics, inconsistent, speeds, angles, actual);
+  }
+
+  @Test
+  void fieldRelativeMatchesWpilib() {
+    for (double yaw = -Math.PI; yaw <= Math.PI; yaw += Math.PI / 7) {
+      for (double vx : VX) {
+        for (double vy : VY) {
+          ChassisSpeeds expected =
+              ChassisSpeeds.fromRobotRelativeSpeeds(vx, vy, 1.0, Rotation2d.fromRadians(yaw));
+          ChassisSpeeds actual =
+              SwerveKinematics.toFieldRelative(
+                  new ChassisSpeeds(vx, vy, 1.0), Math.cos(yaw), Math.sin(yaw));
+
+          assertEquals(expected.vxMetersPerSecond, actual.vxMetersPerSecond, DELTA);
+          assertEquals(expected.vyMetersPerSecond, actual.vyMetersPerSecond, DELTA);
+          assertEquals(expected.omegaRadiansPerSecond, actual.omegaRadiansPerSecond, DELTA);
+        }
+      }
+    }
+  }
+
+  private static void assertStatesEqual(
+      SwerveModuleState[] expected, SwerveKinematics actual, String input) {
+    for (int module = 0; module < expected.length; module++) {
+      assertEquals(expected[module].speedMetersPerSecond, actual.speeds[module], DELTA, input);
+      // A module that's barely moving has no meaningful angle; WPILib falls back to 0 there
+      if (expected[module].speedMetersPerSecond > 1e-6) {
+        assertEquals(
+            0,
+            MathUtil.angleModulus(expected[module].angle.getRadians() - actual.angles[module]),
+            DELTA,
+            input);
+      }
+    }
+  }
+
+  private static void assertChassisSpeedsMatch(
+      SwerveKinematics kinematics,
+      SwerveModuleState[] states,
+      double[] speeds,
+      double[] angles,
+      ChassisSpeeds actual) {
+    for (int module = 0; module < states.length; module++) {
+      speeds[module] = states[module].speedMetersPerSecond;
+      angles[module] = states[module].angle.getRadians();
+    }
+    ChassisSpeeds expected = SwerveConstants.KINEMATICS.toChassisSpeeds(states);
+    kinematics.toChassisSpeeds(speeds, angles, actual);
+
+    assertEquals(expected.vxMetersPerSecond, actual.vxMetersPerSecond, DELTA);
+    assertEquals(expected.vyMetersPerSecond, actual.vyMetersPerSecond, DELTA);
+    assertEquals(expected.omegaRadiansPerSecond, actual.omegaRadiansPerSecond, DELTA);
+  }
+}
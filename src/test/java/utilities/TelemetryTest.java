@@ -2,10 +2,23 @@ package utilities;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import edu.wpi.first.hal.HAL;
+import edu.wpi.first.math.geometry.Translation2d;
+import edu.wpi.first.networktables.DoublePublisher;
+import edu.wpi.first.networktables.NetworkTable;
+import edu.wpi.first.networktables.NetworkTableInstance;
 import edu.wpi.first.networktables.NetworkTableType;
+import frc.robot.Constants.TelemetryConstants;
+import frc.robot.utilities.PublishPolicy;
 import frc.robot.utilities.Telemetry;
+import frc.robot.utilities.TelemetryNamespace;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeAll;
@@ -18,6 +31,7 @@ class TelemetryTest {
   @BeforeAll // this method will run before each test
   void setup() {
     assert HAL.initialize(500, 0); // initialize the HAL, crash if failed
+    Telemetry.setStagingEnabled(false); // Robot turns staging on, these tests expect it off
   }
 
   @Test // marks this method as a test
@@ -155,6 +169,265 @@ class TelemetryTest {
     assertArrayEquals(value, Telemetry.getValue("test16", defaultValue));
   }
 
+  @Test
+  void setThroughHandle() {
+    Telemetry.DoubleEntry entry = Telemetry.addReadableValue("test18", NetworkTableType.kDouble);
+    entry.set(12.5);
+
+    assertEquals(12.5, entry.get(0.0));
+    assertEquals(12.5, Telemetry.getValue("test18", 0.0));
+  }
+
+  @Test
+  void stagedSetWaitsForFlush() {
+    Telemetry.DoubleEntry entry = Telemetry.addReadableValue("test19", NetworkTableType.kDouble);
+    Telemetry.setStagingEnabled(true);
+    entry.set(3.0);
+    entry.set(4.0);
+
+    assertEquals(0.0, entry.get(-1.0));
+
+    Telemetry.flush();
+    Telemetry.setStagingEnabled(false);
+
+    assertEquals(4.0, entry.get(-1.0));
+  }
+
+  @Test
+  void deadbandSuppressesSmallChanges() {
+    Telemetry.DoubleEntry entry =
+        Telemetry.addReadableValue(
+            "test20",
+            NetworkTableType.kDouble,
+            PublishPolicy.onChange().withAbsoluteDeadband(1.0).withHeartbeat(0));
+    entry.set(0.5);
+
+    assertEquals(0.0, entry.get(-1.0));
+
+    entry.set(2.0);
+
+    assertEquals(2.0, entry.get(-1.0));
+  }
+
+  @Test
+  void rateTierSkipsLoops() {
+    Telemetry.DoubleEntry entry =
+        Telemetry.addReadableValue(
+            "test21", NetworkTableType.kDouble, PublishPolicy.always().withRate(2));
+
+    // Exactly one of two consecutive loops is this entry's slot
+    entry.set(1.0);
+    boolean publishedFirst = entry.get(0.0) == 1.0;
+    Telemetry.flush();
+    entry.set(2.0);
+
+    assertEquals(publishedFirst ? 1.0 : 2.0, entry.get(0.0));
+  }
+
+  @Test
+  void setFromReusedBuffer() {
+    Telemetry.DoubleArrayEntry entry =
+        Telemetry.addReadableValue("test22", NetworkTableType.kDoubleArray);
+    double[] buffer = {1.0, 2.0, 3.0, 4.0};
+    entry.set(buffer, 2);
+    buffer[0] = 5.0;
+
+    double[] defaultValue = {};
+    assertArrayEquals(new double[] {1.0, 2.0}, entry.get(defaultValue));
+  }
+
+  @Test
+  void stagedArrayIsCopied() {
+    Telemetry.DoubleArrayEntry entry =
+        Telemetry.addReadableValue("test34", NetworkTableType.kDoubleArray);
+    double[] buffer = {1.0, 2.0};
+    Telemetry.setStagingEnabled(true);
+    entry.set(buffer);
+    buffer[0] = 5.0; // refilled before the flush
+
+    Telemetry.flush();
+    Telemetry.setStagingEnabled(false);
+
+    double[] defaultValue = {};
+    assertArrayEquals(new double[] {1.0, 2.0}, entry.get(defaultValue));
+  }
+
+  @Test
+  void profilerCountsPublishes() {
+    Telemetry.setProfilingEnabled(true);
+    Telemetry.DoubleEntry entry = Telemetry.addValue("test23", NetworkTableType.kDouble);
+    entry.set(1.0);
+    entry.set(2.0);
+    for (int i = 0; i < TelemetryConstants.PROFILE_REPORT_LOOPS; i++) {
+      Telemetry.flush();
+    }
+    Telemetry.setProfilingEnabled(false);
+
+    assertEquals(2, Telemetry.getValue("diagnostics/telemetry/profile/test23/calls", 0));
+  }
+
+  @Test
+  void structRoundTrip() {
+    Telemetry.StructEntry<Translation2d> entry =
+        Telemetry.addStructValue("test24", Translation2d.struct);
+    entry.set(new Translation2d(1.0, 2.0));
+
+    assertEquals(new Translation2d(1.0, 2.0), entry.get(new Translation2d()));
+  }
+
+  @Test
+  void typeCheckedAtRegistration() {
+    Telemetry.DoubleEntry entry = Telemetry.addValue("test25", NetworkTableType.kDouble);
+
+    assertSame(entry, Telemetry.addValue("test25", NetworkTableType.kDouble));
+    assertSame(entry, Telemetry.getEntry("test25", Telemetry.DoubleEntry.class));
+    assertNull(Telemetry.addValue("test25", NetworkTableType.kString));
+    assertEquals(1, Telemetry.getWarningCount());
+    Telemetry.clearWarningCount(); // the mismatch *should* warn, so clear it
+  }
+
+  @Test
+  void reRegistrationKeepsHandleClass() {
+    Telemetry.addStructArrayValue("test32", Translation2d.struct);
+
+    assertNull(Telemetry.addValue("test32", NetworkTableType.kRaw)); // kRaw, but not a RawEntry
+    assertEquals(1, Telemetry.getWarningCount());
+    Telemetry.clearWarningCount(); // the mismatch *should* warn, so clear it
+  }
+
+  @Test
+  void structReRegistrationIsChecked() {
+    Telemetry.StructEntry<Translation2d> entry =
+        Telemetry.addStructValue("test35", Translation2d.struct);
+    Telemetry.addValue("test36", NetworkTableType.kDouble);
+
+    assertSame(entry, Telemetry.addStructValue("test35", Translation2d.struct));
+    assertNull(Telemetry.addStructValue("test36", Translation2d.struct)); // over a kDouble
+    assertEquals(1, Telemetry.getWarningCount());
+    Telemetry.clearWarningCount(); // the mismatch *should* warn, so clear it
+  }
+
+  @Test
+  void addReadableValueMakesExistingEntryReadable() {
+    Telemetry.DoubleEntry entry = Telemetry.addValue("test33", NetworkTableType.kDouble);
+    Telemetry.addReadableValue("test33", NetworkTableType.kDouble);
+    entry.set(2.0);
+
+    assertTrue(entry.isReadable());
+    assertEquals(2.0, Telemetry.getValue("test33", -1.0));
+  }
+
+  @Test
+  void disabledNamespaceStopsPublishing() {
+    TelemetryNamespace namespace = Telemetry.namespace("test26");
+    Telemetry.DoubleEntry entry =
+        namespace.child("child").addReadableValue("value", NetworkTableType.kDouble);
+    entry.set(1.0);
+    namespace.setEnabled(false);
+    entry.set(2.0);
+
+    assertEquals(1.0, Telemetry.getValue("test26/child/value", 0.0));
+    namespace.setEnabled(true);
+  }
+
+  @Test
+  void snapshotRoundTrip() {
+    Telemetry.DoubleEntry entry = Telemetry.addReadableValue("test27", NetworkTableType.kDouble);
+    entry.set(27.0);
+    byte[] snapshot = Telemetry.snapshot();
+    entry.set(0.0);
+
+    assertTrue(Telemetry.restore(snapshot) > 0);
+    assertEquals(27.0, entry.get(0.0));
+  }
+
+  @Test
+  void rawBufferRoundTrip() {
+    Telemetry.RawBufferEntry entry = Telemetry.addRawBufferValue("test28", "raw");
+    ByteBuffer value = ByteBuffer.allocateDirect(3).put(new byte[] {1, 2, 3}).flip();
+    entry.set(value);
+
+    ByteBuffer destination = ByteBuffer.allocate(8);
+    assertEquals(3, entry.read(destination));
+    assertEquals(0, entry.read(destination)); // nothing new since the last read
+    assertArrayEquals(new byte[] {1, 2, 3}, Arrays.copyOf(destination.array(), 3));
+  }
+
+  @Test
+  void idleEntryIsClosed() {
+    Telemetry.DoubleEntry entry = Telemetry.addValue("test29", NetworkTableType.kDouble);
+    entry.setIdleTimeout(0.001); // closed by the second sweep without a set()
+    for (int i = 0; i < 2 * TelemetryConstants.IDLE_SWEEP_LOOPS; i++) {
+      Telemetry.flush();
+    }
+
+    assertTrue(entry.isClosed());
+    assertNotSame(entry, Telemetry.addValue("test29", NetworkTableType.kDouble));
+  }
+
+  @Test
+  void flagsPackIntoOneInteger() {
+    Telemetry.FlagsEntry flags =
+        Telemetry.addFlagsValue("test30", new String[] {"Brownout", "CanWarning", "Overheat"});
+    flags.set(0, true);
+    flags.set(2, true);
+    flags.publish();
+
+    assertEquals(0b101, flags.getEntry().get(0));
+    assertTrue(Telemetry.FlagsEntry.isSet(flags.getBits(), 2));
+  }
+
+  @Test
+  void profileAggregatesWindow() {
+    Telemetry.DoubleEntry entry = Telemetry.addValue("test31", NetworkTableType.kDouble);
+    Telemetry.profile("test31", 1).aggregate("test31");
+    entry.set(2.0);
+    entry.set(4.0);
+    Telemetry.flush();
+
+    NetworkTable profile =
+        NetworkTableInstance.getDefault()
+            .getTable(TelemetryConstants.PROFILE_ROOT_NAME)
+            .getSubTable("test31");
+    assertArrayEquals(
+        new double[] {2.0, 4.0, 3.0}, profile.getEntry("test31").getDoubleArray(new double[] {}));
+  }
+
+  @Test
+  void watchAppliesUpdatesOnReadUpdates() {
+    Telemetry.WatchedValue watched = Telemetry.watch("test37");
+    DoublePublisher publisher = publisherFor("test37");
+    publisher.set(37.0);
+
+    assertEquals(0, watched.getChangeCount()); // queued, not applied until readUpdates()
+    assertEquals(-1.0, watched.getDouble(-1.0));
+    Telemetry.readUpdates();
+    assertEquals(1, watched.getChangeCount());
+    assertEquals(37.0, watched.getDouble(-1.0));
+    assertSame(watched, Telemetry.watch("test37"));
+    publisher.close();
+  }
+
+  @Test
+  void watchStartsWithCurrentValue() {
+    DoublePublisher publisher = publisherFor("test38");
+    publisher.set(38.0);
+    Telemetry.WatchedValue watched = Telemetry.watch("test38");
+
+    Telemetry.readUpdates(); // kImmediate delivers the value published before the watch
+    assertEquals(1, watched.getChangeCount());
+    assertEquals(38.0, watched.getDouble(-1.0));
+    publisher.close();
+  }
+
+  // A publisher of its own, like the dashboard would be, rather than a Telemetry entry
+  private static DoublePublisher publisherFor(String name) {
+    return NetworkTableInstance.getDefault()
+        .getTable(TelemetryConstants.ROOT_NAME)
+        .getDoubleTopic(name)
+        .publish();
+  }
+
   @Test
   void getValueWithoutAdding() {
     assertEquals("", Telemetry.getValue("test17", "hello"));